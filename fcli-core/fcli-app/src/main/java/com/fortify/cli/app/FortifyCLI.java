@@ -13,6 +13,8 @@
 package com.fortify.cli.app;
 
 import com.fortify.cli.app.runner.DefaultFortifyCLIRunner;
+import com.fortify.cli.common.daemon.FcliDaemonClient;
+import com.fortify.cli.common.daemon.FcliDaemonHelper;
 
 /**
  * <p>This class provides the {@link #main(String[])} entrypoint into the application,
@@ -33,14 +35,24 @@ public class FortifyCLI {
     }
 
     private static final int execute(String[] args) {
-        try ( var runner = new DefaultFortifyCLIRunner() ) {
+        try {
             installAnsiConsole();
-            return runner.run(args);
+            var exitCode = FcliDaemonHelper.isClientEnabled() ? FcliDaemonClient.tryRun(args) : null;
+            return exitCode!=null ? exitCode : executeInProcess(args);
         } finally {
             uninstallAnsiConsole();
         }
     }
     
+    private static final int executeInProcess(String[] args) {
+        // Allow 'fcli util daemon start' to run commands using a separate runner 
+        // that retains connections and pre-builds CommandLine instances.
+        FcliDaemonHelper.setCommandRunnerFactory(()->new DefaultFortifyCLIRunner(true, true)::run);
+        try ( var runner = new DefaultFortifyCLIRunner() ) {
+            return runner.run(args);
+        }
+    }
+    
     private static final void installAnsiConsole() {
     	tryInvokeAnsiConsoleMethod("systemInstall");
     }
@@ -14,12 +14,21 @@ package com.fortify.cli.app.runner;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fortify.cli.app._main.cli.cmd.FCLIRootCommands;
 import com.fortify.cli.app.runner.util.FortifyCLIDefaultValueProvider;
 import com.fortify.cli.app.runner.util.FortifyCLIDynamicInitializer;
 import com.fortify.cli.app.runner.util.FortifyCLIStaticInitializer;
 import com.fortify.cli.common.rest.unirest.GenericUnirestFactory;
+import com.fortify.cli.common.session.helper.SessionDescriptorCache;
+import com.fortify.cli.common.spring.expression.SpelEvaluator;
+import com.fortify.cli.common.variable.FcliVariableCache;
 import com.fortify.cli.common.variable.FcliVariableHelper;
 
 import picocli.CommandLine;
@@ -28,12 +37,82 @@ import picocli.CommandLine.Model.ArgGroupSpec;
 import picocli.CommandLine.Model.CommandSpec;
 
 public final class DefaultFortifyCLIRunner implements IFortifyCLIRunner {
-    // TODO See https://github.com/remkop/picocli/issues/2066
-    //@Getter(value = AccessLevel.PRIVATE, lazy = true)
-	//private final CommandLine commandLine = createCommandLine();
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultFortifyCLIRunner.class);
+    // Picocli CommandLine instances can't be safely reused across invocations, as 
+    // arg group state isn't reset (see https://github.com/remkop/picocli/issues/2066),
+    // and many of our commands and mixins lazily cache state. Instead, we build a new
+    // CommandLine instance for every invocation, but do so in the background, either
+    // while resolving variables and performing dynamic initialization, or if 
+    // prebuildCommandLine is enabled, for the next invocation right after the
+    // current invocation has completed. Static initialization is always performed
+    // synchronously at the start of every invocation, as it updates process-wide
+    // state like system properties and default locale; only the picocli model is
+    // built in the background. As picocli resource bundles are resolved based on 
+    // the default locale, a prebuilt CommandLine instance is discarded if static 
+    // initialization changed the default locale.
+    private final boolean prebuildCommandLine;
+    private final boolean retainUnirestInstances;
+    private CompletableFuture<CommandLine> nextCommandLine;
+    private Locale nextCommandLineLocale;
+    
+    public DefaultFortifyCLIRunner() {
+        this(false);
+    }
+    
+    /**
+     * @param prebuildCommandLine If true, the CommandLine instance for the next invocation 
+     *        is built in the background once the current invocation has completed. This is 
+     *        useful if this runner is used to run many fcli commands within a single process.
+     */
+    public DefaultFortifyCLIRunner(boolean prebuildCommandLine) {
+        this(prebuildCommandLine, false);
+    }
+    
+    /**
+     * @param prebuildCommandLine See {@link #DefaultFortifyCLIRunner(boolean)}
+     * @param retainUnirestInstances If true, session-scoped {@link GenericUnirestFactory} instances 
+     *        are not shut down after every invocation, allowing connections to be reused by subsequent
+     *        invocations. Callers are responsible for shutting down these instances whenever
+     *        session data, proxy or other connection-related configuration changes, as is done 
+     *        by the fcli daemon.
+     */
+    public DefaultFortifyCLIRunner(boolean prebuildCommandLine, boolean retainUnirestInstances) {
+        this.prebuildCommandLine = prebuildCommandLine;
+        this.retainUnirestInstances = retainUnirestInstances;
+    }
+	
+	private synchronized CompletableFuture<CommandLine> takeCommandLine() {
+	    var result = nextCommandLine!=null && Locale.getDefault().equals(nextCommandLineLocale) 
+	            ? nextCommandLine 
+	            : buildCommandLineAsync();
+	    nextCommandLine = null;
+	    nextCommandLineLocale = null;
+	    return result;
+	}
+	
+	private synchronized void prebuildCommandLine() {
+	    if ( prebuildCommandLine && nextCommandLine==null ) {
+	        nextCommandLineLocale = Locale.getDefault();
+	        nextCommandLine = buildCommandLineAsync();
+	    }
+	}
+	
+	private CompletableFuture<CommandLine> buildCommandLineAsync() {
+	    return CompletableFuture.supplyAsync(this::createCommandLine);
+	}
+	
+	private static final CommandLine getCommandLine(CompletableFuture<CommandLine> commandLine) {
+	    try {
+	        return commandLine.join();
+	    } catch ( CompletionException e ) {
+	        var cause = e.getCause();
+	        if ( cause instanceof RuntimeException ) { throw (RuntimeException)cause; }
+	        if ( cause instanceof Error ) { throw (Error)cause; }
+	        throw e;
+	    }
+	}
 	
 	private CommandLine createCommandLine() {
-	    FortifyCLIStaticInitializer.getInstance().initialize();
 	    CommandLine cl = new CommandLine(FCLIRootCommands.class);
 	    // Custom parameter exception handler is disabled for now as it causes https://github.com/fortify/fcli/issues/434.
 	    // See comments in I18nParameterExceptionHandler for more detail.
@@ -51,17 +130,25 @@ public final class DefaultFortifyCLIRunner implements IFortifyCLIRunner {
 	        if ( args.length>0 && "fcli".equalsIgnoreCase(args[0]) ) {
 	            args = Arrays.copyOfRange(args, 1, args.length);
 	        }
+	        FortifyCLIStaticInitializer.getInstance().initialize();
+	        var commandLine = takeCommandLine();
     	    String[] resolvedArgs = FcliVariableHelper.resolveVariables(args);
     	    FortifyCLIDynamicInitializer.getInstance().initialize(resolvedArgs);
-    	    //CommandLine cl = getCommandLine(); // TODO See https://github.com/remkop/picocli/issues/2066
-    	    CommandLine cl = createCommandLine();
+    	    CommandLine cl = getCommandLine(commandLine);
     	    cl.clearExecutionResults();
     	    return cl.execute(resolvedArgs);
 	    } finally {
+	        logStatistics();
 	        // TODO For now, this is required to ensure new connections are used for 
 	        // every fcli invocation, as otherwise we may be using older proxy settings
 	        // after proxy has been reconfigured.
-	        GenericUnirestFactory.shutdown();
+	        if ( retainUnirestInstances ) { 
+	            GenericUnirestFactory.shutdownCommandInstances(); 
+	        } else {
+	            GenericUnirestFactory.shutdown();
+	        }
+	        FortifyCLIDynamicInitializer.getInstance().resetLogging();
+	        prebuildCommandLine();
 	    }
 	}
 	
@@ -70,6 +157,16 @@ public final class DefaultFortifyCLIRunner implements IFortifyCLIRunner {
 	    return run(args.toArray(new String[] {}));
 	}
 	
+	private static final void logStatistics() {
+	    if ( LOG.isDebugEnabled() ) {
+	        for ( var evaluator : SpelEvaluator.values() ) {
+	            LOG.debug("SpEL expression cache statistics for {}: {}", evaluator.name(), evaluator.getExpressionCache());
+	        }
+	        LOG.debug("Session descriptor cache statistics: {}", SessionDescriptorCache.getStatistics());
+	        LOG.debug("Variable cache statistics: {}", FcliVariableCache.getStatistics());
+	    }
+	}
+	
 	@Override
 	public void close() {
 	    GenericUnirestFactory.shutdown();
@@ -23,6 +23,7 @@ import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand.GenericOptionsArgGroup;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand.LogLevel;
 
+import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.layout.TTLLLayout;
@@ -47,13 +48,16 @@ public final class FortifyCLIDynamicInitializer {
     private static final PrintWriter DUMMY_WRITER = new PrintWriter(new StringWriter());
     @Getter(lazy = true)
     private static final FortifyCLIDynamicInitializer instance = new FortifyCLIDynamicInitializer(); 
-    @Getter(value = AccessLevel.PRIVATE, lazy = true)
-    private final CommandLine genericOptionsCommandLine = createGenericOptionsCommandLine();
+    private FileAppender<ILoggingEvent> logFileAppender;
+    private Level orgRootLogLevel;
     
     public void initialize(String[] args) {
         // Remove help options, as we want initialization always to occur
         String[] argsWithoutHelp = Stream.of(args).filter(a->!a.matches("-h|--help")).toArray(String[]::new);
-        getGenericOptionsCommandLine().execute(argsWithoutHelp);
+        // Picocli doesn't reset arg group state between invocations, so we need a new
+        // CommandLine instance for every invocation when running multiple commands in
+        // a single process.
+        createGenericOptionsCommandLine().execute(argsWithoutHelp);
     }
     
     private void initialize(GenericOptionsArgGroup genericOptions) {
@@ -67,12 +71,12 @@ public final class FortifyCLIDynamicInitializer {
         FortifyCLIDefaultValueProvider.getInstance().setEnvPrefix(envPrefix);
     }
         
-    public void initializeLogging(GenericOptionsArgGroup genericOptions) {
+    public synchronized void initializeLogging(GenericOptionsArgGroup genericOptions) {
+        resetLogging();
         String logFile = genericOptions.getLogFile().getAbsolutePath();
         LogLevel logLevel = genericOptions.getLogLevel();
         if ( logFile!=null || logLevel!=null ) {
-            LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
-            Logger rootLogger = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+            Logger rootLogger = getRootLogger();
             configureLogFile(rootLogger, logFile==null ? "fcli.log" : logFile);
             configureLogLevel(rootLogger, logLevel==null ? LogLevel.INFO : logLevel);
         }
@@ -93,12 +97,38 @@ public final class FortifyCLIDynamicInitializer {
         fileAppender.setContext(loggerContext);
         fileAppender.start();
         rootLogger.addAppender(fileAppender);
+        logFileAppender = fileAppender;
     }
 
     private void configureLogLevel(Logger rootLogger, LogLevel level) {
+        orgRootLogLevel = rootLogger.getLevel();
         rootLogger.setLevel(level.getLogbackLevel());
     }
     
+    /**
+     * Detach and stop any log file appender, and restore the original root log level,
+     * as configured by {@link #initializeLogging(GenericOptionsArgGroup)}. This allows
+     * for running multiple fcli commands within a single process, each with their own
+     * logging configuration.
+     */
+    public synchronized void resetLogging() {
+        Logger rootLogger = getRootLogger();
+        if ( logFileAppender!=null ) {
+            rootLogger.detachAppender(logFileAppender);
+            logFileAppender.stop();
+            logFileAppender = null;
+        }
+        if ( orgRootLogLevel!=null ) {
+            rootLogger.setLevel(orgRootLogLevel);
+            orgRootLogLevel = null;
+        }
+    }
+    
+    private Logger getRootLogger() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        return loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    }
+    
     private CommandLine createGenericOptionsCommandLine() {
         return new CommandLine(new FortifyCLIInitializerCommand(this::initialize))
                 .setOut(DUMMY_WRITER)
@@ -28,6 +28,9 @@ public final class ActionDefaultValues implements IActionElement {
     @JsonPropertyDescription("Optional string: Default request target to use for REST requests.")
     @JsonProperty(required = false) private String requestTarget;
     
+    @JsonPropertyDescription("Optional integer: Maximum number of simple REST requests to be executed concurrently within a single 'requests' step or 'forEach.embed' block. Responses are still processed sequentially, in the order that the requests were declared. Defaults to 1, meaning requests are executed sequentially.")
+    @JsonProperty(required = false, defaultValue = "1") private int requestConcurrency = 1;
+    
     @Override
     public void postLoad(Action action) {}
 }
\ No newline at end of file
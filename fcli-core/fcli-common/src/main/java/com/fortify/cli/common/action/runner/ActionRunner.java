@@ -15,14 +15,20 @@ package com.fortify.cli.common.action.runner;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -35,10 +41,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
 import com.fasterxml.jackson.databind.node.FloatNode;
 import com.fasterxml.jackson.databind.node.IntNode;
@@ -46,7 +55,6 @@ import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
-import com.fasterxml.jackson.databind.node.ValueNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.action.model.AbstractActionStepForEach;
@@ -68,7 +76,6 @@ import com.fortify.cli.common.action.model.ActionStepSet;
 import com.fortify.cli.common.action.model.ActionStepUnset;
 import com.fortify.cli.common.action.model.ActionStepWrite;
 import com.fortify.cli.common.action.model.ActionValidationException;
-import com.fortify.cli.common.action.model.ActionValueTemplate;
 import com.fortify.cli.common.action.model.IActionStepIfSupplier;
 import com.fortify.cli.common.action.model.IActionStepValueSupplier;
 import com.fortify.cli.common.action.runner.ActionRunner.IActionRequestHelper.ActionRequestDescriptor;
@@ -77,8 +84,8 @@ import com.fortify.cli.common.cli.util.FcliCommandExecutor;
 import com.fortify.cli.common.cli.util.SimpleOptionsParser;
 import com.fortify.cli.common.cli.util.SimpleOptionsParser.IOptionDescriptor;
 import com.fortify.cli.common.cli.util.SimpleOptionsParser.OptionsParseResult;
+import com.fortify.cli.common.json.FileBackedArrayNode;
 import com.fortify.cli.common.json.JsonHelper;
-import com.fortify.cli.common.json.JsonHelper.JsonNodeDeepCopyWalker;
 import com.fortify.cli.common.output.product.IProductHelper;
 import com.fortify.cli.common.output.transform.IInputTransformer;
 import com.fortify.cli.common.progress.helper.IProgressWriterI18n;
@@ -94,6 +101,8 @@ import com.fortify.cli.common.spring.expression.ISpelEvaluator;
 import com.fortify.cli.common.spring.expression.SpelEvaluator;
 import com.fortify.cli.common.spring.expression.SpelHelper;
 import com.fortify.cli.common.spring.expression.wrapper.TemplateExpression;
+import com.fortify.cli.common.util.ConcurrencyHelper;
+import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.common.util.JavaHelper;
 import com.fortify.cli.common.util.StringUtils;
 
@@ -118,6 +127,11 @@ public class ActionRunner implements AutoCloseable {
     private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
     /** Jackson {@link ObjectMapper} used for formatting steps in logging/exception messages */
     private static final ObjectMapper yamlObjectMapper = new ObjectMapper(new YAMLFactory());
+    /** Jackson {@link ObjectWriter} used by write steps, producing the same format as {@link JsonNode#toPrettyString()} */
+    private static final ObjectWriter prettyJsonWriter = new ObjectMapper().writerWithDefaultPrettyPrinter()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    /** Environment variable for configuring {@link #arraySpillThreshold} */
+    public static final String ENVNAME_ARRAY_SPILL_THRESHOLD = "FCLI_ACTION_ARRAY_SPILL_THRESHOLD";
     /** Logger */
     private static final Logger LOG = LoggerFactory.getLogger(ActionRunner.class);
     /** Progress writer, provided through builder method */
@@ -141,10 +155,21 @@ public class ActionRunner implements AutoCloseable {
     private final Map<String, BiFunction<String, ParameterTypeConverterArgs, JsonNode>> parameterConverters = createDefaultParameterConverters();
     /** Request helpers as configured through the {@link #addRequestHelper(String, IActionRequestHelper)} method */
     private final Map<String, IActionRequestHelper> requestHelpers = new HashMap<>();
+    /** Compiled value templates, lazily created by {@link ActionStepsProcessor#getTemplateValue(String)} */
+    private final Map<String, ActionValueTemplateInstantiator> valueTemplateInstantiators = new HashMap<>();
+    /** Arrays and objects created by append steps that are not referenced by anything other than the
+     *  data value being appended to, and can thus be modified in-place by subsequent append steps */
+    private final Set<JsonNode> appendTargets = Collections.newSetFromMap(new IdentityHashMap<>());
     /** Check statuses */
     private final Map<String, CheckStatus> checkStatuses = new LinkedHashMap<>(); 
     // We need to delay writing output to console as to not interfere with progress writer
     private final List<Runnable> delayedConsoleWriterRunnables = new ArrayList<>();
+    /** Arrays built by append steps are moved to a temporary file once they exceed this size; 0 disables this */
+    private final int arraySpillThreshold = getArraySpillThreshold();
+    /** File-backed arrays created by append steps, to be closed once all output has been written */
+    private final List<FileBackedArrayNode> fileBackedArrays = new ArrayList<>();
+    /** Set to true once the {@link Callable} for writing delayed output has been created */
+    @Builder.Default private boolean delayedOutputPending = false;
     /** Save original stdout for delayed output operations */
     private final PrintStream stdout = System.out;
     /** Save original stderr for delayed output operations */
@@ -165,21 +190,37 @@ public class ActionRunner implements AutoCloseable {
             new ActionStepsProcessor(globalData, null).processSteps();
             progressWriter.writeProgress("Action processing finished");
         }
+        // Delayed console output may reference file-backed arrays, so these
+        // arrays are closed after writing delayed output rather than in close().
+        delayedOutputPending = true;
         return ()->{
-            delayedConsoleWriterRunnables.forEach(Runnable::run);
-            if ( !checkStatuses.isEmpty() ) {
-                checkStatuses.entrySet().forEach(
-                    e-> printCheckResult(e.getValue(), e.getKey()));
-                var overallStatus = CheckStatus.combine(checkStatuses.values());
-                stdout.println("Status: "+overallStatus);
-                if ( exitCode==0 && overallStatus==CheckStatus.FAIL ) {
-                    exitCode = 100;
+            try {
+                delayedConsoleWriterRunnables.forEach(Runnable::run);
+                if ( !checkStatuses.isEmpty() ) {
+                    checkStatuses.entrySet().forEach(
+                        e-> printCheckResult(e.getValue(), e.getKey()));
+                    var overallStatus = CheckStatus.combine(checkStatuses.values());
+                    stdout.println("Status: "+overallStatus);
+                    if ( exitCode==0 && overallStatus==CheckStatus.FAIL ) {
+                        exitCode = 100;
+                    }
                 }
+                return exitCode;
+            } finally {
+                closeFileBackedArrays();
             }
-            return exitCode;
         };
     }
     
+    private static final int getArraySpillThreshold() {
+        return EnvHelper.envAsInteger(ENVNAME_ARRAY_SPILL_THRESHOLD, 0);
+    }
+    
+    private final void closeFileBackedArrays() {
+        fileBackedArrays.forEach(FileBackedArrayNode::close);
+        fileBackedArrays.clear();
+    }
+    
     private void initializeCheckStatuses() {
         for ( var elt : action.getAllActionElements() ) {
             if ( elt instanceof ActionStepCheck ) {
@@ -204,6 +245,7 @@ public class ActionRunner implements AutoCloseable {
 
     public final void close() {
         requestHelpers.values().forEach(IActionRequestHelper::close);
+        if ( !delayedOutputPending ) { closeFileBackedArrays(); }
     }
     
     private final void configureSpelEvaluator(SimpleEvaluationContext context) {
@@ -474,6 +516,7 @@ public class ActionRunner implements AutoCloseable {
         private void processSetStep(ActionStepSet set) {
             var name = set.getName();
             var value = getValue(set);
+            appendTargets.remove(localData.get(name));
             setDataValue(name, value);
         }
         
@@ -492,33 +535,81 @@ public class ActionRunner implements AutoCloseable {
         private void appendToArray(String name, JsonNode currentValue, JsonNode valueToAppend) {
             if ( currentValue==null ) {
                 currentValue = objectMapper.createArrayNode();
+                appendTargets.add(currentValue);
             }
             if ( !currentValue.isArray() ) {
                 throw new IllegalStateException("Cannot append value to non-array node "+currentValue.getNodeType());
             } else {
+                var array = getAppendTarget((ArrayNode)currentValue, this::copyArray);
                 if ( valueToAppend!=null ) {
-                    ((ArrayNode)currentValue).add(valueToAppend);
+                    array.add(valueToAppend);
                 }
-                setDataValue(name, currentValue); // Update copies in parents
+                setDataValue(name, spillIfNeeded(array)); // Update copies in parents
+            }
+        }
+        
+        /**
+         * Get the array or object that an append step should append to. To avoid
+         * copying data values on every set or append step, {@link #getValue(TemplateExpression)}
+         * doesn't copy {@link JsonNode} instances, so the current value may also be referenced
+         * by other data values or be part of for example a REST response. Unless the current 
+         * value is a known {@link #appendTargets} entry, we therefore append to a shallow copy, 
+         * which is then registered as an append target for subsequent append steps.
+         */
+        private <T extends ContainerNode<T>> T getAppendTarget(T currentValue, Function<T, T> copier) {
+            if ( appendTargets.contains(currentValue) ) { return currentValue; }
+            var result = copier.apply(currentValue);
+            appendTargets.add(result);
+            return result;
+        }
+        
+        private ArrayNode copyArray(ArrayNode array) {
+            if ( array instanceof FileBackedArrayNode ) {
+                return registerFileBackedArray(FileBackedArrayNode.copyOf(array));
+            }
+            return objectMapper.createArrayNode().addAll(array);
+        }
+        
+        /**
+         * Move the given array to a temporary file if it exceeds the configured
+         * spill threshold, to avoid having to keep very large arrays (like all 
+         * issues to be included in a SARIF report) in memory.
+         */
+        private ArrayNode spillIfNeeded(ArrayNode array) {
+            if ( arraySpillThreshold<=0 || array instanceof FileBackedArrayNode || array.size()<=arraySpillThreshold ) {
+                return array;
             }
+            appendTargets.remove(array);
+            var result = registerFileBackedArray(FileBackedArrayNode.copyOf(array));
+            appendTargets.add(result);
+            return result;
+        }
+        
+        private FileBackedArrayNode registerFileBackedArray(FileBackedArrayNode array) {
+            fileBackedArrays.add(array);
+            return array;
         }
         
         private void appendToObject(String name, JsonNode currentValue, String property, JsonNode valueToAppend) {
             if ( currentValue==null ) {
                 currentValue = objectMapper.createObjectNode();
+                appendTargets.add(currentValue);
             }
             if ( !currentValue.isObject() ) {
                 throw new IllegalStateException(String.format("Cannot append value to non-object node "+currentValue.getNodeType()));
             } else {
+                var object = getAppendTarget((ObjectNode)currentValue, o->objectMapper.createObjectNode().setAll(o));
                 if ( valueToAppend!=null ) {
-                    ((ObjectNode)currentValue).set(property, valueToAppend);
+                    object.set(property, valueToAppend);
                 }
-                setDataValue(name, currentValue); // Update copies in parents
+                setDataValue(name, object); // Update copies in parents
             }
         }
 
         private void processUnsetStep(ActionStepUnset unset) {
-            unsetDataValue(unset.getName());
+            var name = unset.getName();
+            appendTargets.remove(localData.get(name));
+            unsetDataValue(name);
         }
 
         private void setDataValue(String name, JsonNode value) {
@@ -551,18 +642,56 @@ public class ActionRunner implements AutoCloseable {
 
         private JsonNode getValue(TemplateExpression valueExpression) {
             var value = spelEvaluator.evaluate(valueExpression, localData, Object.class);
-            return objectMapper.valueToTree(value);
+            return valueToTree(value);
         }
         
         private final JsonNode getTemplateValue(String templateName) {
-            var valueTemplateDescriptor = action.getValueTemplatesByName().get(templateName);
-            var outputRawContents = valueTemplateDescriptor.getContents();
-            return new JsonNodeOutputWalker(spelEvaluator, valueTemplateDescriptor, localData).walk(outputRawContents);
+            var instantiator = valueTemplateInstantiators.computeIfAbsent(templateName, 
+                    n->new ActionValueTemplateInstantiator(action.getValueTemplatesByName().get(n)));
+            return instantiator.instantiate(this::getTemplateExpressionValue);
+        }
+        
+        private final JsonNode getTemplateExpressionValue(TemplateExpression expression) {
+            try {
+                var rawResult = spelEvaluator.evaluate(expression, localData, Object.class);
+                if ( rawResult instanceof CharSequence ) {
+                    rawResult = new TextNode(((String)rawResult).replace("\\n", "\n"));
+                }
+                return valueToTree(rawResult);
+            } catch ( SpelEvaluationException e ) {
+                throw new RuntimeException("Error evaluating action expression "+expression.getExpressionString(), e);
+            }
+        }
+        
+        /**
+         * Convert the given SpEL evaluation result to a {@link JsonNode}. As opposed to 
+         * {@link ObjectMapper#valueToTree(Object)}, {@link JsonNode} instances like data 
+         * values, REST responses or elements thereof are returned as-is rather than being
+         * deep-copied, which also means that we don't load {@link FileBackedArrayNode} 
+         * contents into memory. As the returned node may now be referenced from multiple 
+         * places, it's removed from {@link #appendTargets}, such that subsequent append
+         * steps will append to a copy instead of modifying the returned node.
+         */
+        private JsonNode valueToTree(Object value) {
+            if ( !(value instanceof JsonNode) ) { return objectMapper.valueToTree(value); }
+            if ( value instanceof ContainerNode && !appendTargets.isEmpty() ) {
+                if ( isLocalData(value) ) {
+                    // Expression returned all data values, like #root
+                    appendTargets.clear();
+                } else {
+                    appendTargets.remove(value);
+                }
+            }
+            return (JsonNode)value;
+        }
+        
+        private boolean isLocalData(Object value) {
+            return value==localData || (parent!=null && parent.isLocalData(value));
         }
         
         private void processWriteStep(ActionStepWrite write) {
             var to = spelEvaluator.evaluate(write.getTo(), localData, String.class);
-            var value = asString(getValue(write));
+            var value = getValue(write);
             try {
                 switch (to.toLowerCase()) {
                 case "stdout": delayedConsoleWriterRunnables.add(createRunner(stdout, value)); break;
@@ -570,29 +699,46 @@ public class ActionRunner implements AutoCloseable {
                 default: write(new File(to), value);
                 }
             } catch (IOException e) {
-                throw new RuntimeException("Error writing action output to "+to);
+                throw new RuntimeException("Error writing action output to "+to, e);
             }
         }
         
         private Runnable createRunner(PrintStream out, String output) {
             return ()->out.print(output);
         }
+        
+        private Runnable createRunner(PrintStream out, JsonNode output) {
+            return ()->{
+                try {
+                    write(new PrintStreamWriter(out), output);
+                    out.flush();
+                } catch ( IOException e ) {
+                    throw new RuntimeException("Error writing action output", e);
+                }
+            };
+        }
 
-        private void write(File file, String output) throws IOException {
-            try ( var out = new PrintStream(file, StandardCharsets.UTF_8) ) {
-                out.println(output);
+        private void write(File file, JsonNode output) throws IOException {
+            try ( var writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8) ) {
+                write(writer, output);
+                writer.write(System.lineSeparator());
             }
         }
-
-        private final String asString(Object output) {
+        
+        /**
+         * Write the given output to the given {@link Writer}. Rather than converting
+         * JSON output to a String first, JSON output is written directly through a
+         * {@link JsonGenerator}, such that large documents don't need to be kept in 
+         * memory in both JSON tree and String representation, and such that any 
+         * {@link FileBackedArrayNode} instances can be streamed from file.
+         */
+        private void write(Writer writer, JsonNode output) throws IOException {
             if ( output instanceof TextNode ) {
-                return ((TextNode)output).asText();
-            } else if ( output instanceof JsonNode ) {
-                return ((JsonNode)output).toPrettyString();
+                writer.write(output.asText());
             } else {
-                return output.toString();
+                prettyJsonWriter.writeValue(writer, output);
             }
-        }  
+        }
 
         private void processProgressStep(TemplateExpression progress) {
             progressWriter.writeProgress(spelEvaluator.evaluate(progress, localData, String.class));
@@ -624,9 +770,11 @@ public class ActionRunner implements AutoCloseable {
             } else if ( valuesExpression!=null ) {
                 var values = spelEvaluator.evaluate(valuesExpression, localData, ArrayNode.class);
                 if ( values!=null ) { 
-                    // Process values until processForEachStepNode() returns false
-                    JsonHelper.stream(values)
-                        .allMatch(value->processForEachStepNode(forEach, value));
+                    // Process values until processForEachStepNode() returns false; the stream
+                    // is closed explicitly to release any resources if processing stops early
+                    try ( var stream = JsonHelper.stream(values) ) {
+                        stream.allMatch(value->processForEachStepNode(forEach, value));
+                    }
                 }
             }
         }
@@ -663,7 +811,9 @@ public class ActionRunner implements AutoCloseable {
             var forEach = fcli.getForEach();
             var name = fcli.getName();
             if ( StringUtils.isNotBlank(name) ) {
-                setDataValue(name, objectMapper.createArrayNode());
+                var records = objectMapper.createArrayNode();
+                appendTargets.add(records);
+                setDataValue(name, records);
             }
             if ( forEach!=null || StringUtils.isNotBlank(name) ) {
                 if ( !cmdExecutor.canCollectRecords() ) {
@@ -862,9 +1012,14 @@ public class ActionRunner implements AutoCloseable {
             if ( isPaged ) {
                 requests.forEach(r->requestHelper.executePagedRequest(r));
             } else {
-                requestHelper.executeSimpleRequests(requests);
+                requestHelper.executeSimpleRequests(requests, getRequestConcurrency());
             }
         }
+        
+        private int getRequestConcurrency() {
+            var defaults = action.getDefaults();
+            return defaults==null ? 1 : defaults.getRequestConcurrency();
+        }
     }
     
     public static interface IActionRequestHelper extends AutoCloseable {
@@ -872,6 +1027,16 @@ public class ActionRunner implements AutoCloseable {
         public JsonNode transformInput(JsonNode input);
         public void executePagedRequest(ActionRequestDescriptor requestDescriptor);
         public void executeSimpleRequests(List<ActionRequestDescriptor> requestDescriptor);
+        /**
+         * Execute the given simple requests, potentially executing up to the given 
+         * number of requests concurrently. Implementations must invoke response and 
+         * failure consumers sequentially, in the order of the given request descriptors.
+         * This default implementation ignores the given concurrency, executing all 
+         * requests through {@link #executeSimpleRequests(List)}.
+         */
+        public default void executeSimpleRequests(List<ActionRequestDescriptor> requestDescriptors, int maxConcurrentRequests) {
+            executeSimpleRequests(requestDescriptors);
+        }
         public void close();
         
         @Data
@@ -944,6 +1109,27 @@ public class ActionRunner implements AutoCloseable {
                 var unirest = getUnirestInstance();
                 requestDescriptors.forEach(r->executeSimpleRequest(unirest, r));
             }
+            @Override
+            public void executeSimpleRequests(List<ActionRequestDescriptor> requestDescriptors, int maxConcurrentRequests) {
+                if ( maxConcurrentRequests<2 ) {
+                    executeSimpleRequests(requestDescriptors);
+                } else {
+                    // Execute requests concurrently, but invoke response and failure consumers
+                    // on the current thread, in the original request order, as these consumers
+                    // usually update shared (non-thread-safe) action data.
+                    var unirest = getUnirestInstance();
+                    ConcurrencyHelper.mapConcurrently(requestDescriptors, maxConcurrentRequests, r->executeSimpleRequestDeferred(unirest, r))
+                        .forEach(Runnable::run);
+                }
+            }
+            private Runnable executeSimpleRequestDeferred(UnirestInstance unirest, ActionRequestDescriptor requestDescriptor) {
+                try {
+                    var response = createRequest(unirest, requestDescriptor).asObject(JsonNode.class);
+                    return ()->response.ifSuccess(r->requestDescriptor.getResponseConsumer().accept(r.getBody()));
+                } catch ( UnirestException e ) {
+                    return ()->requestDescriptor.getFailureConsumer().accept(e);
+                }
+            }
             private void executeSimpleRequest(UnirestInstance unirest, ActionRequestDescriptor requestDescriptor) {
                 try {
                     createRequest(unirest, requestDescriptor)
@@ -995,29 +1181,26 @@ public class ActionRunner implements AutoCloseable {
         return result;
     }
     
+    /**
+     * {@link Writer} implementation that writes all characters to the given {@link PrintStream},
+     * using the {@link PrintStream} character encoding. Closing this writer has no effect.
+     */
     @RequiredArgsConstructor
-    private static final class JsonNodeOutputWalker extends JsonNodeDeepCopyWalker {
-        private final ISpelEvaluator spelEvaluator;
-        private final ActionValueTemplate outputDescriptor;
-        private final ObjectNode data;
+    private static final class PrintStreamWriter extends Writer {
+        private final PrintStream out;
+        
         @Override
-        protected JsonNode copyValue(JsonNode state, String path, JsonNode parent, ValueNode node) {
-            if ( !(node instanceof TextNode) ) {
-                return super.copyValue(state, path, parent, node);
-            } else {
-                TemplateExpression expression = outputDescriptor.getValueExpressions().get(path);
-                if ( expression==null ) { throw new RuntimeException("No expression for "+path); }
-                try {
-                    var rawResult = spelEvaluator.evaluate(expression, data, Object.class);
-                    if ( rawResult instanceof CharSequence ) {
-                        rawResult = new TextNode(((String)rawResult).replace("\\n", "\n"));
-                    }
-                    return objectMapper.valueToTree(rawResult);
-                } catch ( SpelEvaluationException e ) {
-                    throw new RuntimeException("Error evaluating action expression "+expression.getExpressionString(), e);
-                }
-            }
+        public void write(char[] cbuf, int off, int len) {
+            out.append(CharBuffer.wrap(cbuf, off, len));
         }
+        
+        @Override
+        public void flush() {
+            out.flush();
+        }
+        
+        @Override
+        public void close() {}
     }
     
     public static final class StepProcessingException extends RuntimeException {
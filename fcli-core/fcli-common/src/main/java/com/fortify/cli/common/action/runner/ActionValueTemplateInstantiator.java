@@ -0,0 +1,119 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import java.util.ArrayList;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fortify.cli.common.action.model.ActionValueTemplate;
+import com.fortify.cli.common.spring.expression.wrapper.TemplateExpression;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This class instantiates the contents of an {@link ActionValueTemplate}. On construction,
+ * the template contents are compiled into a tree of node factories, with each text node
+ * being represented by the {@link TemplateExpression} that was parsed when loading the
+ * action. Instantiating the template then simply builds the output nodes directly from
+ * this tree, rather than walking and deep-copying the raw template contents and looking
+ * up the {@link TemplateExpression} for every text node by property path, which is
+ * relevant as value templates are usually instantiated for every record being processed.
+ */
+final class ActionValueTemplateInstantiator {
+    private final INodeFactory rootFactory;
+
+    ActionValueTemplateInstantiator(ActionValueTemplate valueTemplate) {
+        this.rootFactory = compile(valueTemplate, "", valueTemplate.getContents());
+    }
+
+    /**
+     * Instantiate the value template, using the given function to evaluate
+     * each {@link TemplateExpression} to a {@link JsonNode}.
+     */
+    final JsonNode instantiate(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+        return rootFactory.create(expressionEvaluator);
+    }
+
+    /**
+     * Compile the given template node, generating property paths in the same format
+     * as {@link ActionValueTemplate} uses for caching {@link TemplateExpression}
+     * instances in {@link ActionValueTemplate#getValueExpressions()}.
+     */
+    private static final INodeFactory compile(ActionValueTemplate valueTemplate, String path, JsonNode node) {
+        if ( node instanceof ObjectNode ) {
+            var names = new ArrayList<String>();
+            var factories = new ArrayList<INodeFactory>();
+            node.fields().forEachRemaining(e->{
+                names.add(e.getKey());
+                factories.add(compile(valueTemplate, appendPath(path, e.getKey()), e.getValue()));
+            });
+            return new ObjectNodeFactory(names.toArray(String[]::new), factories.toArray(INodeFactory[]::new));
+        } else if ( node instanceof ArrayNode ) {
+            var factories = new ArrayList<INodeFactory>();
+            for ( int i = 0 ; i < node.size() ; i++ ) {
+                factories.add(compile(valueTemplate, appendPath(path, i+""), node.get(i)));
+            }
+            return new ArrayNodeFactory(factories.toArray(INodeFactory[]::new));
+        } else if ( node instanceof TextNode ) {
+            var expression = valueTemplate.getValueExpressions().get(path);
+            if ( expression==null ) { throw new RuntimeException("No expression for "+path); }
+            return evaluator->evaluator.apply(expression);
+        } else {
+            // Other value nodes are immutable, so we can reuse the original node
+            return evaluator->node;
+        }
+    }
+
+    private static final String appendPath(String parent, String entry) {
+        return String.format("%s[%s]", parent, entry);
+    }
+
+    @FunctionalInterface
+    private static interface INodeFactory {
+        JsonNode create(Function<TemplateExpression, JsonNode> expressionEvaluator);
+    }
+
+    @RequiredArgsConstructor
+    private static final class ObjectNodeFactory implements INodeFactory {
+        private final String[] names;
+        private final INodeFactory[] factories;
+
+        @Override
+        public JsonNode create(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+            var result = JsonNodeFactory.instance.objectNode();
+            for ( int i = 0 ; i < names.length ; i++ ) {
+                result.set(names[i], factories[i].create(expressionEvaluator));
+            }
+            return result;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class ArrayNodeFactory implements INodeFactory {
+        private final INodeFactory[] factories;
+
+        @Override
+        public JsonNode create(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+            var result = JsonNodeFactory.instance.arrayNode(factories.length);
+            for ( var factory : factories ) {
+                result.add(factory.create(expressionEvaluator));
+            }
+            return result;
+        }
+    }
+}
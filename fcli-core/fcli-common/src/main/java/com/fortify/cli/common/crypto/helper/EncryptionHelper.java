@@ -12,28 +12,108 @@
  *******************************************************************************/
 package com.fortify.cli.common.crypto.helper;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
 import org.jasypt.iv.RandomIvGenerator;
 
+import com.fortify.cli.common.crypto.helper.impl.SegmentedAeadInputStream;
+import com.fortify.cli.common.crypto.helper.impl.SegmentedAeadOutputStream;
 import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.common.util.StringUtils;
 
-import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
 
 public class EncryptionHelper {
-    private static final StandardPBEStringEncryptor encryptor = createAES256TextEncryptor();
+    /** Environment variable for writing encrypted data in the format used by older fcli versions */
+    public static final String ENVNAME_LEGACY_FORMAT = "FCLI_ENCRYPT_LEGACY_FORMAT";
+    private static final String AEAD_PREFIX = "{fcli:aes-gcm:v1}";
+    private static final byte[] AEAD_PREFIX_BYTES = AEAD_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final int AEAD_IV_LENGTH = 12;
+    private static final int AEAD_TAG_LENGTH_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    /**
+     * Encrypt the given string using AES-GCM with a random IV, using the encryption
+     * key that is derived only once per process. The returned string consists of a 
+     * format version prefix followed by the Base64-encoded IV and ciphertext. If the
+     * legacy format has been enabled through {@value #ENVNAME_LEGACY_FORMAT}, the 
+     * string is encrypted in the format used by older fcli versions instead.
+     */
+    @SneakyThrows
     public static final String encrypt(String source) {
         if ( source==null ) { return null; }
-        return encryptor.encrypt(source);
+        if ( isLegacyFormatEnabled() ) { return LegacyEncryptorHolder.ENCRYPTOR.encrypt(source); }
+        var iv = new byte[AEAD_IV_LENGTH];
+        RANDOM.nextBytes(iv);
+        var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, KeyHolder.KEY, new GCMParameterSpec(AEAD_TAG_LENGTH_BITS, iv));
+        cipher.updateAAD(AEAD_PREFIX_BYTES);
+        var ciphertext = cipher.doFinal(source.getBytes(StandardCharsets.UTF_8));
+        var result = new byte[iv.length+ciphertext.length];
+        System.arraycopy(iv, 0, result, 0, iv.length);
+        System.arraycopy(ciphertext, 0, result, iv.length, ciphertext.length);
+        return AEAD_PREFIX+Base64.getEncoder().encodeToString(result);
     }
 
+    /**
+     * Decrypt the given string, which may have been encrypted either by
+     * {@link #encrypt(String)} or by older fcli versions.
+     */
+    @SneakyThrows
     public static final String decrypt(String source) {
         if ( source==null ) { return null; }
-        return encryptor.decrypt(source);
+        if ( isLegacyFormat(source) ) { return LegacyEncryptorHolder.ENCRYPTOR.decrypt(source); }
+        var data = Base64.getDecoder().decode(source.substring(AEAD_PREFIX.length()));
+        if ( data.length<AEAD_IV_LENGTH ) { throw new IllegalArgumentException("Encrypted data is truncated"); }
+        var cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, KeyHolder.KEY, new GCMParameterSpec(AEAD_TAG_LENGTH_BITS, data, 0, AEAD_IV_LENGTH));
+        cipher.updateAAD(AEAD_PREFIX_BYTES);
+        return new String(cipher.doFinal(data, AEAD_IV_LENGTH, data.length-AEAD_IV_LENGTH), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Check whether the given encrypted string was encrypted by older fcli versions,
+     * allowing callers to re-encrypt such data in the current format.
+     */
+    public static final boolean isLegacyFormat(String encrypted) {
+        return encrypted!=null && !encrypted.startsWith(AEAD_PREFIX);
+    }
+    
+    /**
+     * Check whether the given encrypted string should be re-encrypted in the current
+     * format, which is the case if it was encrypted by older fcli versions, unless the 
+     * legacy format has been enabled through {@value #ENVNAME_LEGACY_FORMAT}.
+     */
+    public static final boolean isReEncryptionRequired(String encrypted) {
+        return isLegacyFormat(encrypted) && !isLegacyFormatEnabled();
+    }
+    
+    /**
+     * Check whether the format used by older fcli versions should be used for
+     * encrypting data, allowing such data to be read by older fcli versions.
+     */
+    public static final boolean isLegacyFormatEnabled() {
+        return EnvHelper.asBoolean(EnvHelper.env(ENVNAME_LEGACY_FORMAT));
+    }
+    
+    private static final class LegacyEncryptorHolder {
+        private static final StandardPBEStringEncryptor ENCRYPTOR = createAES256TextEncryptor();
     }
     
     private static final StandardPBEStringEncryptor createAES256TextEncryptor() {
@@ -50,16 +130,81 @@ public class EncryptionHelper {
         return userPassword+"ds$%YTjdwaf#$47672dfdsGVFDa";
     }
     
-    @RequiredArgsConstructor
-    // TODO Can we optimize this to not buffer the full contents before encrypting and writing the output?
-    public static final class EncryptWriter extends StringWriter {
-        private final Writer originalWriter;
+    /**
+     * Return an {@link OutputStream} that encrypts all data written to it, writing
+     * encrypted segments to the given {@link OutputStream} as data arrives. The
+     * encryption key is derived only once per process. If the legacy format has been
+     * enabled through {@value #ENVNAME_LEGACY_FORMAT}, all data is collected in memory
+     * and written as a single legacy-encrypted string when the stream is closed.
+     */
+    public static final OutputStream encryptingOutputStream(OutputStream out) throws IOException {
+        return isLegacyFormatEnabled() 
+                ? new LegacyEncryptingOutputStream(out)
+                : new SegmentedAeadOutputStream(out, KeyHolder.KEY);
+    }
+    
+    private static final class LegacyEncryptingOutputStream extends ByteArrayOutputStream {
+        private final OutputStream out;
+        private boolean closed = false;
+        
+        private LegacyEncryptingOutputStream(OutputStream out) {
+            this.out = out;
+        }
         
         @Override
         public void close() throws IOException {
-            originalWriter.write(encrypt(getBuffer().toString()));
-            originalWriter.flush();
-            originalWriter.close();
+            if ( !closed ) {
+                closed = true;
+                try ( out ) {
+                    out.write(LegacyEncryptorHolder.ENCRYPTOR.encrypt(toString(StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Return an {@link InputStream} that decrypts the data from the given {@link InputStream}.
+     * Data written through {@link #encryptingOutputStream(OutputStream)} is decrypted on the
+     * fly; for compatibility with data encrypted by older fcli versions, any other data is 
+     * read fully and decrypted through {@link #decrypt(String)}.
+     */
+    public static final InputStream decryptingInputStream(InputStream in) throws IOException {
+        var bis = new BufferedInputStream(in);
+        var magicLength = SegmentedAeadOutputStream.getMagicLength();
+        bis.mark(magicLength);
+        var magic = bis.readNBytes(magicLength);
+        bis.reset();
+        if ( SegmentedAeadOutputStream.hasMagic(magic, magic.length) ) {
+            return new SegmentedAeadInputStream(bis, KeyHolder.KEY);
+        }
+        try ( bis ) {
+            var decrypted = decrypt(new String(bis.readAllBytes(), StandardCharsets.UTF_8));
+            return new ByteArrayInputStream(decrypted==null ? new byte[0] : decrypted.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+    
+    /**
+     * Holder for the AES encryption key, lazily derived from the encryption password 
+     * on first use. As the key is derived only once per process, a fixed salt is used; 
+     * uniqueness of the AES-GCM nonces is guaranteed by the random (prefix of the) IV
+     * generated for every encrypted string or stream. The number of iterations matches
+     * the per-call key derivation cost of the legacy Jasypt-based encryption, so deriving
+     * the key once per process never costs more than decrypting a single legacy string.
+     */
+    private static final class KeyHolder {
+        private static final byte[] SALT = "fcli-segmented-aead-v1".getBytes(StandardCharsets.UTF_8);
+        private static final int ITERATIONS = 1000;
+        private static final SecretKey KEY = deriveKey();
+        
+        @SneakyThrows
+        private static final SecretKey deriveKey() {
+            var spec = new PBEKeySpec(getEncryptPassword().toCharArray(), SALT, ITERATIONS, 256);
+            try {
+                var keyBytes = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+                return new SecretKeySpec(keyBytes, "AES");
+            } finally {
+                spec.clearPassword();
+            }
         }
     }
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.crypto.helper.impl;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/**
+ * {@link InputStream} that decrypts data written by {@link SegmentedAeadOutputStream},
+ * decrypting and authenticating a single segment at a time. An {@link IOException}
+ * is thrown if any segment fails authentication, or if the underlying stream ends
+ * before the final segment has been read.
+ */
+public final class SegmentedAeadInputStream extends InputStream {
+    private static final int MAX_CIPHERTEXT_LENGTH = SegmentedAeadOutputStream.SEGMENT_SIZE+SegmentedAeadOutputStream.TAG_LENGTH_BITS/8;
+    private final DataInputStream in;
+    private final SecretKey key;
+    private final Cipher cipher;
+    private final byte[] header = new byte[SegmentedAeadOutputStream.HEADER_LENGTH];
+    private final byte[] ciphertext = new byte[MAX_CIPHERTEXT_LENGTH];
+    private byte[] plaintext = new byte[0];
+    private int position = 0;
+    private int segment = 0;
+    private boolean finalSegmentRead = false;
+
+    public SegmentedAeadInputStream(InputStream in, SecretKey key) throws IOException {
+        this.in = new DataInputStream(in);
+        this.key = key;
+        this.cipher = createCipher();
+        try {
+            this.in.readFully(header);
+        } catch ( EOFException e ) {
+            throw new IOException("Encrypted data is truncated", e);
+        }
+        if ( !SegmentedAeadOutputStream.hasMagic(header, header.length) ) {
+            throw new IOException("Input is not in the expected encrypted format");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        var b = new byte[1];
+        return read(b, 0, 1)==-1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ( len==0 ) { return 0; }
+        while ( position==plaintext.length ) {
+            if ( !readSegment() ) { return -1; }
+        }
+        int count = Math.min(len, plaintext.length-position);
+        System.arraycopy(plaintext, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return plaintext.length-position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readSegment() throws IOException {
+        if ( finalSegmentRead ) { return false; }
+        boolean isFinal;
+        int length;
+        try {
+            isFinal = in.readBoolean();
+            length = in.readInt();
+            if ( length<0 || length>MAX_CIPHERTEXT_LENGTH ) {
+                throw new IOException("Invalid encrypted segment length: "+length);
+            }
+            in.readFully(ciphertext, 0, length);
+        } catch ( EOFException e ) {
+            throw new IOException("Encrypted data is truncated", e);
+        }
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, nonce(header, segment, isFinal));
+            cipher.updateAAD(header);
+            plaintext = cipher.doFinal(ciphertext, 0, length);
+        } catch ( GeneralSecurityException e ) {
+            throw new IOException("Error decrypting data; data may have been modified or encryption key may have changed", e);
+        }
+        position = 0;
+        segment++;
+        finalSegmentRead = isFinal;
+        return true;
+    }
+
+    static final Cipher createCipher() throws IOException {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch ( GeneralSecurityException e ) {
+            throw new IOException("AES/GCM cipher not available", e);
+        }
+    }
+
+    static final GCMParameterSpec nonce(byte[] header, int segment, boolean isFinal) {
+        var nonce = new byte[12];
+        System.arraycopy(header, SegmentedAeadOutputStream.MAGIC.length, nonce, 0, SegmentedAeadOutputStream.NONCE_PREFIX_LENGTH);
+        nonce[7] = (byte)(segment >>> 24);
+        nonce[8] = (byte)(segment >>> 16);
+        nonce[9] = (byte)(segment >>> 8);
+        nonce[10] = (byte)segment;
+        nonce[11] = (byte)(isFinal ? 1 : 0);
+        return new GCMParameterSpec(SegmentedAeadOutputStream.TAG_LENGTH_BITS, nonce);
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.crypto.helper.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+
+/**
+ * {@link OutputStream} that encrypts all data written to it using AES-GCM, writing
+ * encrypted data to the underlying stream in segments of {@value #SEGMENT_SIZE} bytes
+ * as data arrives, rather than buffering all data until the stream is closed. The
+ * resulting format is as follows:
+ * <pre>
+ * header:  magic (4 bytes) | nonce prefix (7 bytes)
+ * segment: final flag (1 byte) | ciphertext length (4 bytes) | ciphertext + GCM tag
+ * </pre>
+ * The 12-byte GCM nonce for each segment consists of the random nonce prefix, the
+ * segment number, and the final flag, and the header is passed as additional
+ * authenticated data. As such, any truncation, re-ordering or modification of
+ * segments will be detected by {@link SegmentedAeadInputStream}.
+ */
+public final class SegmentedAeadOutputStream extends OutputStream {
+    static final byte[] MAGIC = { 0x00, 'F', 'C', 0x01 };
+    static final int NONCE_PREFIX_LENGTH = 7;
+    static final int HEADER_LENGTH = MAGIC.length + NONCE_PREFIX_LENGTH;
+    static final int SEGMENT_SIZE = 64*1024;
+    static final int TAG_LENGTH_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private final DataOutputStream out;
+    private final SecretKey key;
+    private final Cipher cipher;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private final byte[] buffer = new byte[SEGMENT_SIZE];
+    private int bufferLength = 0;
+    private int segment = 0;
+    private boolean closed = false;
+
+    public SegmentedAeadOutputStream(OutputStream out, SecretKey key) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.key = key;
+        this.cipher = SegmentedAeadInputStream.createCipher();
+        System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+        var noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        RANDOM.nextBytes(noncePrefix);
+        System.arraycopy(noncePrefix, 0, header, MAGIC.length, NONCE_PREFIX_LENGTH);
+        this.out.write(header);
+    }
+
+    /**
+     * Check whether the given bytes start with the magic bytes that identify
+     * data written by this class.
+     */
+    public static final boolean hasMagic(byte[] bytes, int length) {
+        if ( length<MAGIC.length ) { return false; }
+        for ( int i = 0 ; i < MAGIC.length ; i++ ) {
+            if ( bytes[i]!=MAGIC[i] ) { return false; }
+        }
+        return true;
+    }
+
+    public static final int getMagicLength() {
+        return MAGIC.length;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte)b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if ( closed ) { throw new IOException("Stream closed"); }
+        while ( len>0 ) {
+            // Only write a full segment once more data arrives, such that
+            // the final segment, written on close, is never empty unless
+            // no data has been written at all.
+            if ( bufferLength==SEGMENT_SIZE ) { writeSegment(false); }
+            int count = Math.min(len, SEGMENT_SIZE-bufferLength);
+            System.arraycopy(b, off, buffer, bufferLength, count);
+            bufferLength += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if ( !closed ) {
+            try {
+                writeSegment(true);
+                out.flush();
+            } finally {
+                closed = true;
+                out.close();
+            }
+        }
+    }
+
+    private void writeSegment(boolean isFinal) throws IOException {
+        if ( segment==-1 ) { throw new IOException("Maximum number of segments exceeded"); }
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, SegmentedAeadInputStream.nonce(header, segment, isFinal));
+            cipher.updateAAD(header);
+            var ciphertext = cipher.doFinal(buffer, 0, bufferLength);
+            out.writeBoolean(isFinal);
+            out.writeInt(ciphertext.length);
+            out.write(ciphertext);
+        } catch ( GeneralSecurityException e ) {
+            throw new IOException("Error encrypting data", e);
+        }
+        segment++;
+        bufferLength = 0;
+    }
+}
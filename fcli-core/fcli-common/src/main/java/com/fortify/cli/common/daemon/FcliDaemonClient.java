@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.json.JsonHelper;
+
+/**
+ * Fcli daemon client, forwarding command arguments, standard input, output and
+ * error, and exit code between the current process and a running fcli daemon.
+ */
+public final class FcliDaemonClient {
+    private static final Logger LOG = LoggerFactory.getLogger(FcliDaemonClient.class);
+    private FcliDaemonClient() {}
+
+    /**
+     * Try to run the given fcli command in a running fcli daemon. If no daemon is
+     * running or the daemon rejects the request, for example because the daemon was
+     * started from a different working directory or with different environment
+     * variables, or because the daemon is busy running another command, this method 
+     * returns null and the caller should run the command itself. Otherwise, the exit
+     * code of the command is returned.
+     */
+    public static final Integer tryRun(String[] args) {
+        return tryRun(args, System.in, System.out, System.err);
+    }
+    
+    static final Integer tryRun(String[] args, InputStream stdin, PrintStream stdout, PrintStream stderr) {
+        if ( FcliDaemonHelper.isDaemonCommand(args) ) { return null; }
+        try ( var channel = tryConnect() ) {
+            if ( channel==null ) { return null; }
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            FcliDaemonProtocol.writeRequest(out, FcliDaemonProtocol.REQUEST_RUN, FcliDaemonHelper.getContextFingerprint(), args);
+            var frameType = in.readByte();
+            if ( frameType==FcliDaemonProtocol.FRAME_REJECTED ) {
+                LOG.debug("Fcli daemon rejected request: {}", FcliDaemonProtocol.readString(in));
+                return null;
+            }
+            return processFrames(frameType, in, out, stdin, stdout, stderr);
+        } catch ( IOException e ) {
+            // We don't fall back to running the command in-process, as the command
+            // may already have been (partially) executed by the daemon.
+            stderr.println("Error communicating with fcli daemon: "+e.getMessage());
+            LOG.debug("Error communicating with fcli daemon", e);
+            return 1;
+        }
+    }
+
+    /**
+     * Get status information from the running fcli daemon, or null if no
+     * daemon is running.
+     */
+    public static final JsonNode getStatus() throws IOException {
+        try ( var channel = tryConnect() ) {
+            if ( channel==null ) { return null; }
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            FcliDaemonProtocol.writeRequest(out, FcliDaemonProtocol.REQUEST_STATUS, "", new String[] {});
+            expectFrame(in, FcliDaemonProtocol.FRAME_STATUS);
+            return JsonHelper.getObjectMapper().readTree(FcliDaemonProtocol.readString(in));
+        }
+    }
+
+    /**
+     * Request the running fcli daemon to stop, returning false if no
+     * daemon is running.
+     */
+    public static final boolean stop() throws IOException {
+        try ( var channel = tryConnect() ) {
+            if ( channel==null ) { return false; }
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            FcliDaemonProtocol.writeRequest(out, FcliDaemonProtocol.REQUEST_STOP, "", new String[] {});
+            expectFrame(in, FcliDaemonProtocol.FRAME_EXIT);
+            in.readInt();
+            return true;
+        }
+    }
+
+    private static final SocketChannel tryConnect() {
+        var socketPath = FcliDaemonHelper.getSocketPath();
+        if ( !Files.exists(socketPath) ) { return null; }
+        try {
+            return SocketChannel.open(UnixDomainSocketAddress.of(socketPath));
+        } catch ( IOException | UnsupportedOperationException e ) {
+            LOG.debug("Unable to connect to fcli daemon on {}", socketPath, e);
+            return null;
+        }
+    }
+
+    private static final void expectFrame(DataInputStream in, byte expectedFrameType) throws IOException {
+        var frameType = in.readByte();
+        if ( frameType!=expectedFrameType ) {
+            throw new IOException("Unexpected fcli daemon response frame type: "+frameType);
+        }
+    }
+
+    private static final int processFrames(byte frameType, DataInputStream in, DataOutputStream out, InputStream stdin, PrintStream stdout, PrintStream stderr) throws IOException {
+        while ( true ) {
+            switch ( frameType ) {
+            case FcliDaemonProtocol.FRAME_STDOUT:
+                write(stdout, FcliDaemonProtocol.readBytes(in));
+                break;
+            case FcliDaemonProtocol.FRAME_STDERR:
+                write(stderr, FcliDaemonProtocol.readBytes(in));
+                break;
+            case FcliDaemonProtocol.FRAME_STDIN_REQUEST:
+                forwardStdin(in.readInt(), out, stdin);
+                break;
+            case FcliDaemonProtocol.FRAME_EXIT:
+                return in.readInt();
+            default:
+                throw new IOException("Unexpected fcli daemon response frame type: "+frameType);
+            }
+            frameType = in.readByte();
+        }
+    }
+
+    private static final void forwardStdin(int maxLength, DataOutputStream out, InputStream stdin) throws IOException {
+        var buffer = new byte[maxLength];
+        var length = stdin.read(buffer, 0, maxLength);
+        out.writeInt(length);
+        if ( length>0 ) { out.write(buffer, 0, length); }
+        out.flush();
+    }
+
+    private static final void write(PrintStream ps, byte[] bytes) {
+        ps.write(bytes, 0, bytes.length);
+        ps.flush();
+    }
+}
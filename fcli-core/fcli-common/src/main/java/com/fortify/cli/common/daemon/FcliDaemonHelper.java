@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.FcliBuildPropertiesHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.SneakyThrows;
+
+/**
+ * Helper methods for the optional fcli daemon, which runs fcli commands on behalf of
+ * fcli client processes, allowing JVM state, session descriptors and HTTP connection
+ * pools to be reused across fcli invocations.
+ */
+public final class FcliDaemonHelper {
+    public static final String ENVNAME_DAEMON = "FCLI_DAEMON";
+    // Environment variables maintained by the shell itself, which may differ between
+    // shell invocations but are never used by fcli or any actions
+    private static final Set<String> IGNORED_ENV_NAMES = Set.of("_", "SHLVL", "OLDPWD");
+    private static volatile Supplier<FcliDaemonServer.ICommandRunner> commandRunnerFactory;
+    private FcliDaemonHelper() {}
+
+    /**
+     * Register the factory used to create the {@link FcliDaemonServer.ICommandRunner}
+     * for running fcli commands in the daemon; this is called by the fcli main class.
+     */
+    public static final void setCommandRunnerFactory(Supplier<FcliDaemonServer.ICommandRunner> factory) {
+        commandRunnerFactory = factory;
+    }
+
+    public static final FcliDaemonServer createServer(Duration idleTimeout) {
+        if ( commandRunnerFactory==null ) {
+            throw new IllegalStateException("Fcli daemon not supported in this context");
+        }
+        return new FcliDaemonServer(commandRunnerFactory.get(), idleTimeout);
+    }
+
+    /**
+     * Check whether fcli commands should be forwarded to a running fcli daemon, as
+     * configured through the FCLI_DAEMON environment variable.
+     */
+    public static final boolean isClientEnabled() {
+        return Boolean.TRUE.equals(EnvHelper.asBoolean(EnvHelper.env(ENVNAME_DAEMON)));
+    }
+
+    public static final Path getSocketPath() {
+        return FcliDataHelper.getFcliStatePath().resolve("daemon").resolve("fcli.sock");
+    }
+
+    /**
+     * Get a fingerprint of the client context that may affect fcli behavior, like fcli
+     * version, working directory and environment variables. As fcli commands and actions
+     * may access arbitrary environment variables, for example through --env-prefix or
+     * SpEL expressions, the fingerprint covers the full environment. The daemon only runs
+     * commands for clients with the same fingerprint as the daemon itself.
+     */
+    static final String getContextFingerprint() {
+        Map<String, String> context = new TreeMap<>();
+        context.put("fcli.version", FcliBuildPropertiesHelper.getFcliVersion());
+        context.put("user.dir", Path.of("").toAbsolutePath().toString());
+        System.getenv().entrySet().stream()
+            .filter(e->!IGNORED_ENV_NAMES.contains(e.getKey()))
+            .forEach(e->context.put("env."+e.getKey(), e.getValue()));
+        System.getProperties().stringPropertyNames().stream()
+            .filter(n->n.startsWith("fcli.env."))
+            .forEach(n->context.put("sys."+n, System.getProperty(n)));
+        return sha256(context.toString());
+    }
+
+    /**
+     * Get a fingerprint of the fcli configuration and session data that is used for
+     * configuring HTTP connections; if this fingerprint changes, any cached connections
+     * must be discarded.
+     */
+    static final String getConnectionConfigFingerprint() {
+        return getDirFingerprint(FcliDataHelper.getFcliConfigPath(), FcliDataHelper.getFcliStatePath().resolve("sessions"));
+    }
+
+    /**
+     * Get a fingerprint of the trust store configuration. Java caches the default SSL
+     * context on first use, so if this fingerprint changes, the daemon must be restarted.
+     */
+    static final String getTrustStoreConfigFingerprint() {
+        return getDirFingerprint(FcliDataHelper.getFcliConfigPath().resolve("ssl"));
+    }
+
+    @SneakyThrows
+    private static final String getDirFingerprint(Path... dirs) {
+        var sb = new StringBuilder();
+        for ( var dir : dirs ) {
+            if ( Files.isDirectory(dir) ) {
+                try ( Stream<Path> paths = Files.walk(dir) ) {
+                    paths.filter(Files::isRegularFile).sorted().forEach(p->sb.append(getFileFingerprint(p)));
+                }
+            }
+        }
+        return sha256(sb.toString());
+    }
+
+    private static final String getFileFingerprint(Path path) {
+        try {
+            return path+":"+Files.getLastModifiedTime(path).toMillis()+":"+Files.size(path)+"\n";
+        } catch ( IOException e ) {
+            return path+":?\n";
+        }
+    }
+
+    @SneakyThrows
+    private static final String sha256(String s) {
+        var digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        var sb = new StringBuilder();
+        for ( byte b : digest ) { sb.append(String.format("%02x", b)); }
+        return sb.toString();
+    }
+
+    static final boolean isDaemonCommand(String[] args) {
+        int offset = args.length>0 && "fcli".equalsIgnoreCase(args[0]) ? 1 : 0;
+        return args.length>offset+1 && "util".equals(args[offset]) && "daemon".equals(args[offset+1]);
+    }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and helper methods for the wire protocol between fcli daemon client and
+ * server. A client sends a single request consisting of protocol version, request
+ * type, client fingerprint and command arguments, after which the server sends
+ * frames consisting of a frame type byte followed by a frame-specific payload,
+ * until either an {@link #FRAME_EXIT} or {@link #FRAME_REJECTED} frame is sent.
+ * Standard input is only forwarded on demand; whenever the command running in the
+ * daemon reads from standard input, the server sends a {@link #FRAME_STDIN_REQUEST}
+ * frame, to which the client replies with a chunk of its own standard input.
+ */
+final class FcliDaemonProtocol {
+    static final int VERSION = 1;
+    static final String REQUEST_RUN = "run";
+    static final String REQUEST_STATUS = "status";
+    static final String REQUEST_STOP = "stop";
+    /** Payload: byte array */
+    static final byte FRAME_STDOUT = 1;
+    /** Payload: byte array */
+    static final byte FRAME_STDERR = 2;
+    /** Payload: int max length; client replies with byte array, or length -1 on EOF */
+    static final byte FRAME_STDIN_REQUEST = 3;
+    /** Payload: int exit code */
+    static final byte FRAME_EXIT = 4;
+    /** Payload: string reason; client should fall back to running the command itself */
+    static final byte FRAME_REJECTED = 5;
+    /** Payload: string status information */
+    static final byte FRAME_STATUS = 6;
+    private static final int MAX_LENGTH = 16*1024*1024;
+    private FcliDaemonProtocol() {}
+
+    static final void writeString(DataOutputStream out, String s) throws IOException {
+        writeBytes(out, s.getBytes(StandardCharsets.UTF_8), 0, -1);
+    }
+
+    static final String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the given bytes prefixed by their length; if len is -1, all bytes
+     * starting at the given offset are written.
+     */
+    static final void writeBytes(DataOutputStream out, byte[] b, int off, int len) throws IOException {
+        if ( len==-1 ) { len = b.length-off; }
+        out.writeInt(len);
+        out.write(b, off, len);
+    }
+
+    static final byte[] readBytes(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if ( length<0 || length>MAX_LENGTH ) {
+            throw new IOException("Invalid fcli daemon frame length: "+length);
+        }
+        var result = new byte[length];
+        in.readFully(result);
+        return result;
+    }
+
+    static final void writeRequest(DataOutputStream out, String type, String fingerprint, String[] args) throws IOException {
+        out.writeInt(VERSION);
+        writeString(out, type);
+        writeString(out, fingerprint);
+        out.writeInt(args.length);
+        for ( var arg : args ) { writeString(out, arg); }
+        out.flush();
+    }
+
+    static final void writeFrame(DataOutputStream out, byte type, String payload) throws IOException {
+        out.writeByte(type);
+        writeString(out, payload);
+        out.flush();
+    }
+
+    static final void writeFrame(DataOutputStream out, byte type, int payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(payload);
+        out.flush();
+    }
+}
@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.rest.unirest.GenericUnirestFactory;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fcli daemon server, accepting requests from {@link FcliDaemonClient} instances on a
+ * Unix domain socket. Requests are handled concurrently, but as standard input, output
+ * and error are redirected to the client for the duration of a command, commands are 
+ * run one at a time using the {@link ICommandRunner} passed to the constructor. Run 
+ * requests received while another command is running are rejected, causing the client
+ * to run the command itself rather than waiting for a potentially long-running command
+ * like a wait-for command or interactive prompt. As opposed to regular fcli invocations, 
+ * session-scoped {@link GenericUnirestFactory} instances are kept open between commands, 
+ * such that connection pools and TLS sessions can be reused; these instances are shut
+ * down whenever fcli configuration or session data changes. As Java caches the default
+ * SSL context, the daemon stops if trust store configuration changes. The daemon also
+ * stops after the configured idle timeout.
+ */
+public final class FcliDaemonServer {
+    private static final Logger LOG = LoggerFactory.getLogger(FcliDaemonServer.class);
+    private final ICommandRunner commandRunner;
+    @Getter private final Duration idleTimeout;
+    @Getter private final Path socketPath = FcliDaemonHelper.getSocketPath();
+    private final String contextFingerprint = FcliDaemonHelper.getContextFingerprint();
+    private final String trustStoreConfigFingerprint = FcliDaemonHelper.getTrustStoreConfigFingerprint();
+    private final Instant startTime = Instant.now();
+    private final ExecutorService requestExecutor = Executors.newCachedThreadPool(FcliDaemonServer::newRequestThread);
+    private final ReentrantLock commandLock = new ReentrantLock();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicLong commandCount = new AtomicLong();
+    private String connectionConfigFingerprint = FcliDaemonHelper.getConnectionConfigFingerprint();
+    private volatile long lastActivity = System.nanoTime();
+    private volatile boolean stopRequested = false;
+    private volatile Selector selector;
+
+    @FunctionalInterface
+    public static interface ICommandRunner {
+        int run(String[] args);
+    }
+
+    FcliDaemonServer(ICommandRunner commandRunner, Duration idleTimeout) {
+        this.commandRunner = commandRunner;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Run the daemon in the current thread until either a stop request is
+     * received, the idle timeout expires, or trust store configuration changes.
+     * Before returning, this method waits for any running command to complete.
+     */
+    public final void run() throws IOException {
+        prepareSocketPath();
+        try ( var serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+              var selector = Selector.open() ) {
+            this.selector = selector;
+            serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            LOG.debug("Fcli daemon listening on {}", socketPath);
+            while ( !stopRequested ) {
+                var remainingMillis = activeRequests.get()>0 
+                        ? idleTimeout.toMillis() 
+                        : idleTimeout.toMillis()-Duration.ofNanos(System.nanoTime()-lastActivity).toMillis();
+                if ( remainingMillis<=0 ) {
+                    LOG.debug("Stopping fcli daemon after {} of inactivity", idleTimeout);
+                    break;
+                }
+                if ( selector.select(remainingMillis)>0 ) {
+                    selector.selectedKeys().clear();
+                    var channel = serverChannel.accept();
+                    if ( channel!=null ) { submitRequest(channel); }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+            awaitRequests();
+            GenericUnirestFactory.shutdown();
+        }
+    }
+    
+    private final void submitRequest(SocketChannel channel) {
+        activeRequests.incrementAndGet();
+        requestExecutor.execute(()->{
+            try ( channel ) {
+                channel.configureBlocking(true);
+                handleRequest(channel);
+            } catch ( IOException e ) {
+                LOG.debug("Error handling fcli daemon request", e);
+            } finally {
+                lastActivity = System.nanoTime();
+                activeRequests.decrementAndGet();
+            }
+        });
+    }
+    
+    private final void awaitRequests() {
+        requestExecutor.shutdown();
+        try {
+            if ( !requestExecutor.awaitTermination(1, TimeUnit.MINUTES) ) {
+                LOG.debug("Fcli daemon requests still running after 1 minute, interrupting");
+                requestExecutor.shutdownNow();
+            }
+        } catch ( InterruptedException e ) {
+            requestExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private final void requestStop() {
+        stopRequested = true;
+        var selector = this.selector;
+        if ( selector!=null ) { selector.wakeup(); }
+    }
+    
+    private static final Thread newRequestThread(Runnable r) {
+        var thread = new Thread(r, "fcli-daemon-request");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final void prepareSocketPath() throws IOException {
+        var dir = socketPath.getParent();
+        Files.createDirectories(dir);
+        if ( FileSystems.getDefault().supportedFileAttributeViews().contains("posix") ) {
+            Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwx------"));
+        }
+        if ( Files.exists(socketPath) ) {
+            try ( var channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath)) ) {
+                throw new IllegalStateException("Fcli daemon already running on "+socketPath);
+            } catch ( IOException e ) {
+                LOG.debug("Removing stale fcli daemon socket {}", socketPath);
+                Files.delete(socketPath);
+            }
+        }
+    }
+
+    private final void handleRequest(SocketChannel channel) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        var version = in.readInt();
+        if ( version!=FcliDaemonProtocol.VERSION ) {
+            reject(out, "Unsupported protocol version: "+version);
+            return;
+        }
+        var type = FcliDaemonProtocol.readString(in);
+        var fingerprint = FcliDaemonProtocol.readString(in);
+        var args = new String[in.readInt()];
+        for ( int i = 0 ; i < args.length ; i++ ) {
+            args[i] = FcliDaemonProtocol.readString(in);
+        }
+        switch ( type ) {
+        case FcliDaemonProtocol.REQUEST_STATUS:
+            FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_STATUS, getStatus());
+            break;
+        case FcliDaemonProtocol.REQUEST_STOP:
+            requestStop();
+            FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_EXIT, 0);
+            break;
+        case FcliDaemonProtocol.REQUEST_RUN:
+            runCommand(in, out, fingerprint, args);
+            break;
+        default:
+            reject(out, "Unknown request type: "+type);
+        }
+    }
+
+    private final void runCommand(DataInputStream in, DataOutputStream out, String fingerprint, String[] args) throws IOException {
+        if ( !contextFingerprint.equals(fingerprint) ) {
+            reject(out, "Client working directory, environment or fcli version differs from fcli daemon");
+        } else if ( stopRequested ) {
+            reject(out, "Fcli daemon is stopping");
+        } else if ( !commandLock.tryLock() ) {
+            reject(out, "Fcli daemon is busy running another command");
+        } else {
+            try {
+                runCommandLocked(in, out, args);
+            } finally {
+                commandLock.unlock();
+            }
+        }
+    }
+    
+    private final void runCommandLocked(DataInputStream in, DataOutputStream out, String[] args) throws IOException {
+        if ( !trustStoreConfigFingerprint.equals(FcliDaemonHelper.getTrustStoreConfigFingerprint()) ) {
+            requestStop();
+            reject(out, "Trust store configuration has changed; stopping fcli daemon");
+        } else {
+            refreshConnections();
+            var exitCode = runRedirected(in, out, args);
+            commandCount.incrementAndGet();
+            refreshConnections();
+            FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_EXIT, exitCode);
+        }
+    }
+
+    private final int runRedirected(DataInputStream in, DataOutputStream out, String[] args) {
+        var orgIn = System.in;
+        var orgOut = System.out;
+        var orgErr = System.err;
+        var stdout = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, FcliDaemonProtocol.FRAME_STDOUT)), true);
+        var stderr = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, FcliDaemonProtocol.FRAME_STDERR)), true);
+        try {
+            System.setIn(new FrameInputStream(in, out, ()->{ stdout.flush(); stderr.flush(); }));
+            System.setOut(stdout);
+            System.setErr(stderr);
+            return commandRunner.run(args);
+        } catch ( Throwable t ) {
+            t.printStackTrace(stderr);
+            return 1;
+        } finally {
+            stdout.flush();
+            stderr.flush();
+            System.setIn(orgIn);
+            System.setOut(orgOut);
+            System.setErr(orgErr);
+        }
+    }
+
+    private final void refreshConnections() {
+        var currentFingerprint = FcliDaemonHelper.getConnectionConfigFingerprint();
+        if ( !currentFingerprint.equals(connectionConfigFingerprint) ) {
+            LOG.debug("Fcli configuration or session data changed, shutting down cached connections");
+            GenericUnirestFactory.shutdown();
+            connectionConfigFingerprint = currentFingerprint;
+        }
+    }
+
+    private final String getStatus() {
+        var result = JsonHelper.getObjectMapper().createObjectNode()
+                .put("pid", ProcessHandle.current().pid())
+                .put("socket", socketPath.toString())
+                .put("started", startTime.toString())
+                .put("idleTimeout", idleTimeout.toString())
+                .put("commandCount", commandCount.get())
+                .put("busy", commandLock.isLocked());
+        return result.toString();
+    }
+
+    private static final void reject(DataOutputStream out, String reason) throws IOException {
+        LOG.debug("Rejecting fcli daemon request: {}", reason);
+        FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_REJECTED, reason);
+    }
+
+    /**
+     * {@link OutputStream} that sends all data written to it as frames of
+     * the given type. Writes are synchronized on the underlying stream, as
+     * stdout and stderr frames may be written by different threads.
+     */
+    @RequiredArgsConstructor
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte frameType;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if ( len>0 ) {
+                synchronized (out) {
+                    out.writeByte(frameType);
+                    FcliDaemonProtocol.writeBytes(out, b, off, len);
+                    out.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link InputStream} that requests standard input data from the client
+     * whenever data is read. Closing this stream has no effect, as the client
+     * connection is managed by the server.
+     */
+    @RequiredArgsConstructor
+    private static final class FrameInputStream extends InputStream {
+        private static final int MAX_CHUNK_SIZE = 64*1024;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final Runnable flushOutput;
+        private boolean eof = false;
+
+        @Override
+        public int read() throws IOException {
+            var b = new byte[1];
+            return read(b, 0, 1)==-1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if ( len==0 ) { return 0; }
+            if ( eof ) { return -1; }
+            // Make sure that any prompts are shown before we wait for input
+            flushOutput.run();
+            synchronized (out) {
+                FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_STDIN_REQUEST, Math.min(len, MAX_CHUNK_SIZE));
+            }
+            var length = in.readInt();
+            if ( length<0 ) {
+                eof = true;
+                return -1;
+            }
+            if ( length>len ) {
+                throw new IOException("Invalid fcli daemon stdin frame length: "+length);
+            }
+            in.readFully(b, off, length);
+            return length;
+        }
+    }
+}
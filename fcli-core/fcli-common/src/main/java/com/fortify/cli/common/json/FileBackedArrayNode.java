@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.json;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * {@link ArrayNode} implementation that stores its elements in a temporary file in
+ * Smile (binary JSON) format rather than in memory, allowing for building very large
+ * arrays without requiring all elements to be kept on the heap. Elements are written
+ * to the file as they are appended, and read back one at a time whenever this array
+ * is iterated over or serialized, for example when writing the array (or a JSON
+ * document containing this array) through a {@link JsonGenerator}.
+ *
+ * Note that {@link #get(int)} needs to read all preceding elements, elements returned
+ * by this array are not connected to the underlying file (so modifying them has no
+ * effect), and modifying or removing existing elements is not supported. Callers are
+ * responsible for calling {@link #close()} to delete the temporary file once this
+ * array is no longer needed. Iterators returned by {@link #elements()} implement 
+ * {@link Closeable}; callers that may stop iterating before reaching the last element
+ * should close the iterator to release the underlying file handle. Any iterators that
+ * are still open are closed when this array is closed.
+ */
+public final class FileBackedArrayNode extends ArrayNode implements Closeable {
+    private static final long serialVersionUID = 1L;
+    private static final ObjectMapper smileObjectMapper = new ObjectMapper(new SmileFactory())
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private final transient Path file;
+    private final transient JsonGenerator generator;
+    private final transient Set<FileIterator> openIterators = ConcurrentHashMap.newKeySet();
+    private int size = 0;
+    private boolean closed = false;
+
+    private FileBackedArrayNode() throws IOException {
+        super(JsonNodeFactory.instance);
+        this.file = Files.createTempFile("fcli-array-", ".smile");
+        this.file.toFile().deleteOnExit();
+        this.generator = smileObjectMapper.createGenerator(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    /**
+     * Create a new {@link FileBackedArrayNode} containing all elements
+     * of the given source array.
+     */
+    public static final FileBackedArrayNode copyOf(ArrayNode source) {
+        try {
+            var result = new FileBackedArrayNode();
+            result.addAll(source);
+            return result;
+        } catch ( IOException e ) {
+            throw new UncheckedIOException("Error creating temporary file for array data", e);
+        }
+    }
+
+    @Override
+    protected ArrayNode _add(JsonNode node) {
+        checkNotClosed();
+        try {
+            smileObjectMapper.writeTree(generator, node);
+            size++;
+        } catch ( IOException e ) {
+            throw new UncheckedIOException("Error writing array data to "+file, e);
+        }
+        return this;
+    }
+
+    @Override
+    public ArrayNode addAll(ArrayNode other) {
+        other.elements().forEachRemaining(this::add);
+        return this;
+    }
+
+    @Override
+    public ArrayNode addAll(Collection<? extends JsonNode> nodes) {
+        nodes.forEach(this::add);
+        return this;
+    }
+
+    @Override
+    public ArrayNode addArray() {
+        throw unsupported();
+    }
+
+    @Override
+    public ObjectNode addObject() {
+        throw unsupported();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size==0;
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider serializers) {
+        return size==0;
+    }
+
+    @Override
+    public Iterator<JsonNode> elements() {
+        return fileIterator();
+    }
+    
+    private FileIterator fileIterator() {
+        checkNotClosed();
+        try {
+            generator.flush();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException("Error writing array data to "+file, e);
+        }
+        return new FileIterator(size);
+    }
+
+    @Override
+    public JsonNode get(int index) {
+        if ( index<0 || index>=size ) { return null; }
+        try ( var iterator = fileIterator() ) {
+            for ( int i = 0 ; i < index ; i++ ) { iterator.next(); }
+            return iterator.next();
+        }
+    }
+
+    @Override
+    public JsonNode path(int index) {
+        var result = get(index);
+        return result==null ? MissingNode.getInstance() : result;
+    }
+
+    @Override
+    public JsonNode required(int index) {
+        var result = get(index);
+        return result!=null ? result
+            : _reportRequiredViolation("No value at index #%d [0, %d) of `ArrayNode`", index, size);
+    }
+
+    @Override
+    public JsonNode findValue(String fieldName) {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) {
+                var value = iterator.next().findValue(fieldName);
+                if ( value!=null ) { return value; }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<JsonNode> findValues(String fieldName, List<JsonNode> foundSoFar) {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) { foundSoFar = iterator.next().findValues(fieldName, foundSoFar); }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) { foundSoFar = iterator.next().findValuesAsText(fieldName, foundSoFar); }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public ObjectNode findParent(String fieldName) {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) {
+                var parent = iterator.next().findParent(fieldName);
+                if ( parent!=null ) { return (ObjectNode)parent; }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<JsonNode> findParents(String fieldName, List<JsonNode> foundSoFar) {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) { foundSoFar = iterator.next().findParents(fieldName, foundSoFar); }
+        }
+        return foundSoFar;
+    }
+
+    @Override
+    public void serialize(JsonGenerator g, SerializerProvider provider) throws IOException {
+        g.writeStartArray(this, size);
+        serializeElements(g, provider);
+        g.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator g, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        WritableTypeId typeIdDef = typeSer.writeTypePrefix(g, typeSer.typeId(this, JsonToken.START_ARRAY));
+        serializeElements(g, provider);
+        typeSer.writeTypeSuffix(g, typeIdDef);
+    }
+
+    private void serializeElements(JsonGenerator g, SerializerProvider provider) throws IOException {
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) { iterator.next().serialize(g, provider); }
+        }
+    }
+
+    /**
+     * Return a regular, in-memory {@link ArrayNode} containing deep
+     * copies of all elements of this array.
+     */
+    @Override
+    public ArrayNode deepCopy() {
+        var result = arrayNode(size);
+        try ( var iterator = fileIterator() ) {
+            while ( iterator.hasNext() ) { result.add(iterator.next().deepCopy()); }
+        }
+        return result;
+    }
+
+    @Override
+    public JsonNode set(int index, JsonNode value) {
+        throw unsupported();
+    }
+
+    @Override
+    protected ArrayNode _set(int index, JsonNode node) {
+        throw unsupported();
+    }
+
+    @Override
+    protected ArrayNode _insert(int index, JsonNode node) {
+        throw unsupported();
+    }
+
+    @Override
+    public JsonNode remove(int index) {
+        throw unsupported();
+    }
+
+    @Override
+    public ArrayNode removeAll() {
+        throw unsupported();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this==o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @Override
+    public void close() {
+        if ( !closed ) {
+            closed = true;
+            List.copyOf(openIterators).forEach(FileIterator::close);
+            try {
+                generator.close();
+                Files.deleteIfExists(file);
+            } catch ( IOException e ) {
+                throw new UncheckedIOException("Error deleting temporary file "+file, e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of iterators currently holding an open file handle,
+     * for testing purposes.
+     */
+    final int getOpenIteratorCount() {
+        return openIterators.size();
+    }
+
+    private void checkNotClosed() {
+        if ( closed ) { throw new IllegalStateException("File-backed array has already been closed"); }
+    }
+
+    private static final UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("File-backed arrays only support appending new elements");
+    }
+
+    /**
+     * Iterator that reads the given number of elements from the underlying file,
+     * automatically closing the file once all elements have been read. Callers
+     * that stop iterating early should explicitly close this iterator.
+     */
+    private final class FileIterator implements Iterator<JsonNode>, Closeable {
+        private final int count;
+        private int index = 0;
+        private MappingIterator<JsonNode> values;
+
+        private FileIterator(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index<count;
+        }
+
+        @Override
+        public JsonNode next() {
+            if ( !hasNext() ) { throw new NoSuchElementException(); }
+            try {
+                if ( values==null ) {
+                    values = smileObjectMapper.readerFor(JsonNode.class)
+                            .readValues(new BufferedInputStream(Files.newInputStream(file)));
+                    openIterators.add(this);
+                }
+                var result = values.nextValue();
+                if ( ++index==count ) { close(); }
+                return result;
+            } catch ( IOException e ) {
+                close();
+                throw new UncheckedIOException("Error reading array data from "+file, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            // Once closed, this iterator doesn't return any further elements
+            index = count;
+            if ( values!=null ) {
+                try {
+                    values.close();
+                } catch ( IOException e ) {
+                    throw new UncheckedIOException("Error closing "+file, e);
+                } finally {
+                    values = null;
+                    openIterators.remove(this);
+                }
+            }
+        }
+    }
+}
@@ -12,9 +12,14 @@
  *******************************************************************************/
 package com.fortify.cli.common.json;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -72,8 +77,26 @@ public class JsonHelper {
         return () -> iterator;
     }
     
+    /**
+     * Stream the elements of the given array. If the array iterator holds any resources,
+     * like for {@link FileBackedArrayNode}, these are released when the returned stream
+     * is closed, so callers should close the stream if it may not be fully consumed, for
+     * example when using short-circuiting operations like {@link Stream#allMatch}.
+     */
     public static final Stream<JsonNode> stream(ArrayNode arrayNode) {
-        return StreamSupport.stream(iterable(arrayNode).spliterator(), false);
+        Iterator<JsonNode> iterator = arrayNode.iterator();
+        var stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        return iterator instanceof Closeable 
+                ? stream.onClose(()->close((Closeable)iterator)) 
+                : stream;
+    }
+    
+    private static final void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     public static final ObjectNode shallowCopy(ObjectNode node) {
@@ -189,6 +189,11 @@ public class OutputHelperMixins {
     }
 
 
+    public static class Stop extends TableNoQuery {
+        public static final String CMD_NAME = "stop";
+    }
+
+
     public static class Pause extends TableNoQuery {
         public static final String CMD_NAME = "pause";
     }
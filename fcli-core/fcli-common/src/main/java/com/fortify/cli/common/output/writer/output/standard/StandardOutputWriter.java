@@ -170,15 +170,14 @@ public class StandardOutputWriter implements IOutputWriter {
     /**
      * Write records returned by the given, potentially paged {@link HttpRequest}
      * to the given {@link IRecordWriter}, invoking the given {@link INextPageUrlProducer} 
-     * to retrieve all pages
+     * to retrieve all pages. Records are written as soon as each page has been loaded,
+     * rather than collecting all pages in memory first.
      * @param recordWriter
      * @param httpRequest
      * @param nextPageUrlProducer
      */
     private final void writeRecords(IRecordWriter recordWriter, HttpRequest<?> httpRequest, INextPageUrlProducer nextPageUrlProducer) {
-        PagingHelper.pagedRequest(httpRequest, nextPageUrlProducer)
-            .ifSuccess(r->writeRecords(recordWriter, r))
-            .ifFailure(IfFailureHandler::handle); // Just in case no error interceptor was registered for this request
+        PagingHelper.processPages(httpRequest, nextPageUrlProducer, r->writePageRecords(recordWriter, r));
     }
     
     /**
@@ -190,7 +189,19 @@ public class StandardOutputWriter implements IOutputWriter {
      * @param nextPageRequestProducer
      */
     private final void writeRecords(IRecordWriter recordWriter, HttpRequest<?> initialRequest, INextPageRequestProducer nextPageRequestProducer) {
-        PagingHelper.processPages(initialRequest, nextPageRequestProducer, r->writeRecords(recordWriter, r));
+        PagingHelper.processPages(initialRequest, nextPageRequestProducer, r->writePageRecords(recordWriter, r));
+    }
+    
+    /**
+     * Write records provided by the given page response to the given {@link IRecordWriter},
+     * handling failure responses in the same way as non-paged requests.
+     * @param recordWriter
+     * @param httpResponse
+     */
+    private final void writePageRecords(IRecordWriter recordWriter, HttpResponse<JsonNode> httpResponse) {
+        httpResponse
+            .ifSuccess(r->writeRecords(recordWriter, r))
+            .ifFailure(IfFailureHandler::handle); // Just in case no error interceptor was registered for this request
     }
 
     /**
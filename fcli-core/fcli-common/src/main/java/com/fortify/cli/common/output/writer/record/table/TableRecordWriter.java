@@ -23,33 +23,62 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.output.transform.PropertyPathFormatter;
 import com.fortify.cli.common.output.writer.record.AbstractFormattedRecordWriter;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
+import com.fortify.cli.common.util.EnvHelper;
 import com.github.freva.asciitable.AsciiTable;
 import com.github.freva.asciitable.Column;
 import com.github.freva.asciitable.HorizontalAlign;
+import com.github.freva.asciitable.OverflowBehaviour;
 
 import lombok.SneakyThrows;
 
+/**
+ * This {@link AbstractFormattedRecordWriter} implementation writes records as a table.
+ * Up to {@link #sampleSize} rows are collected in memory to determine column widths;
+ * if there are no more rows, the table is written on {@link #close()} as usual. Once 
+ * the sample size has been reached, the sampled rows are written immediately using 
+ * the column widths calculated from the sample, and any subsequent rows are written 
+ * as they arrive, using the same column widths and wrapping any cell values that 
+ * exceed the sampled column width. This keeps memory usage bounded and allows users 
+ * to see results for large data sets without having to wait for all data to be loaded.  
+ * The sample size can be configured through the FCLI_TABLE_SAMPLE_SIZE environment
+ * variable; a value of 0 disables streaming, collecting all rows before writing the
+ * table.
+ */
 public class TableRecordWriter extends AbstractFormattedRecordWriter {
     public static enum TableType { HEADERS, NO_HEADERS }
+    public static final String ENVNAME_SAMPLE_SIZE = "FCLI_TABLE_SAMPLE_SIZE";
+    private static final int DEFAULT_SAMPLE_SIZE = 1000;
     private final TableType tableType;
+    private final int sampleSize;
     private String[] fields;
     private final List<String[]> rows = new ArrayList<>();
+    private Column[] streamingColumns;
     
     public TableRecordWriter(TableType tableType, RecordWriterConfig config) {
         super(config);
         this.tableType = tableType;
+        this.sampleSize = getSampleSize();
     }
 
     @Override @SneakyThrows
     public void writeFormattedRecord(ObjectNode record) {
         String[] columns = getFields(record);
         String[] row = getRow(record, columns);
-        rows.add(row);
+        if ( streamingColumns!=null ) {
+            writeStreamingRow(row);
+        } else {
+            rows.add(row);
+            if ( sampleSize>0 && rows.size()>=sampleSize ) {
+                writeSample();
+            }
+        }
     }
 
     @Override @SneakyThrows
     public void close() {
-        getWriter().write(getTable(fields, rows.toArray(new String[rows.size()][])));
+        if ( streamingColumns==null ) {
+            getWriter().write(getTable(fields, rows.toArray(new String[rows.size()][])));
+        }
     }
 
     private String getTable(String[] fields, String[][] data) {
@@ -65,6 +94,61 @@ public class TableRecordWriter extends AbstractFormattedRecordWriter {
             return AsciiTable.getTable(AsciiTable.NO_BORDERS, columnObjects, data); 
         }
     }
+    
+    /**
+     * Write the sampled rows, using column widths calculated from the sampled
+     * rows and headers, and initialize {@link #streamingColumns} with the same
+     * column widths for writing subsequent rows.
+     */
+    @SneakyThrows
+    private void writeSample() {
+        String[][] data = rows.toArray(new String[rows.size()][]);
+        Column[] sampleColumns = new Column[fields.length];
+        streamingColumns = new Column[fields.length];
+        for ( int i = 0 ; i < fields.length ; i++ ) {
+            String header = TableType.HEADERS==tableType ? getHeader(fields[i]) : null;
+            int width = getColumnWidth(header, data, i);
+            sampleColumns[i] = createFixedWidthColumn(width).header(header).headerAlign(HorizontalAlign.LEFT);
+            streamingColumns[i] = createFixedWidthColumn(width);
+        }
+        getWriter().write(AsciiTable.getTable(AsciiTable.NO_BORDERS, sampleColumns, data));
+        getWriter().flush();
+        rows.clear();
+    }
+    
+    @SneakyThrows
+    private void writeStreamingRow(String[] row) {
+        getWriter().write("\n");
+        getWriter().write(AsciiTable.getTable(AsciiTable.NO_BORDERS, streamingColumns, new String[][] {row}));
+        getWriter().flush();
+    }
+    
+    private static final Column createFixedWidthColumn(int width) {
+        return new Column()
+                .dataAlign(HorizontalAlign.LEFT)
+                .minWidth(width)
+                .maxWidth(width, OverflowBehaviour.NEWLINE);
+    }
+    
+    /**
+     * Calculate the column width for the given column index, based on the longest
+     * line in either the header or any of the data cells, plus 2 for column padding.
+     */
+    private static final int getColumnWidth(String header, String[][] data, int columnIndex) {
+        int result = getMaxLineLength(header);
+        for ( String[] row : data ) {
+            result = Math.max(result, getMaxLineLength(row[columnIndex]));
+        }
+        return result+2;
+    }
+    
+    private static final int getMaxLineLength(String s) {
+        return s==null ? 0 : s.lines().mapToInt(String::length).max().orElse(0);
+    }
+    
+    private static final int getSampleSize() {
+        return EnvHelper.envAsInteger(ENVNAME_SAMPLE_SIZE, DEFAULT_SAMPLE_SIZE);
+    }
 
     private String getHeader(String fieldName) {
         String header = getConfig().getMessageResolver().getMessageString("output.header."+fieldName);
@@ -20,27 +20,27 @@ public abstract class AbstractProgressWriterWrapper implements IProgressWriter {
     private IProgressWriter progressWriter;
     
     @Override
-    public final boolean isMultiLineSupported() {
+    public final synchronized boolean isMultiLineSupported() {
         return getProgressWriter().isMultiLineSupported();
     }
     
     @Override
-    public final void writeProgress(String message, Object... args) {
+    public final synchronized void writeProgress(String message, Object... args) {
         getProgressWriter().writeProgress(message, args);
     }
     
     @Override
-    public final void writeWarning(String message, Object... args) {
+    public final synchronized void writeWarning(String message, Object... args) {
         getProgressWriter().writeWarning(message, args);
     }
     
     @Override
-    public final void clearProgress() {
+    public final synchronized void clearProgress() {
         getProgressWriter().clearProgress();
     }
     
     @Override
-    public void close() {
+    public synchronized void close() {
         getProgressWriter().close();
     }
     
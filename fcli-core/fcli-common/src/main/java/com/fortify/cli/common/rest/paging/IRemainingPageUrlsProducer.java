@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.paging;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpResponse;
+
+/**
+ * This interface may be implemented by {@link INextPageUrlProducer} implementations
+ * that are able to calculate the URLs for all remaining pages based on the first
+ * response, for example based on offset, limit and total count properties. This 
+ * allows {@link PagingHelper} to load the remaining pages concurrently, while still 
+ * passing the responses to the page consumer in the original page order.
+ */
+public interface IRemainingPageUrlsProducer {
+    /**
+     * Return the URLs for all pages following the page represented by the given
+     * response, or null if remaining page URLs cannot be determined, in which case
+     * pages will be loaded sequentially through {@link INextPageUrlProducer}.
+     */
+    List<String> getRemainingPageUrls(HttpRequest<?> originalRequest, HttpResponse<? extends JsonNode> firstPageResponse);
+    
+    /**
+     * Return the maximum number of pages to be loaded concurrently; values smaller 
+     * than 2 disable concurrent page loading.
+     */
+    int getMaxConcurrentPageRequests();
+}
@@ -12,9 +12,18 @@
  *******************************************************************************/
 package com.fortify.cli.common.rest.paging;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.util.ConcurrencyHelper;
 
 import kong.unirest.Header;
 import kong.unirest.HttpRequest;
@@ -31,7 +40,8 @@ public class PagingHelper {
      * has been loaded (for example for streaming output), it may be better to handle paging manually using
      * {@link INextPageRequestProducer}. An {@link INextPageUrlProducer} instance can be converted to an
      * {@link INextPageRequestProducer} instance using the {@link #asNextPageRequestProducer(UnirestInstance, INextPageUrlProducer)}
-     * method. 
+     * method. If no {@link UnirestInstance} is available, the {@link #processPages(HttpRequest, INextPageUrlProducer, Consumer)}
+     * method can be used to process each page as soon as it has been loaded.
      * @param request
      * @param nextPageUrlProducer
      * @return
@@ -63,20 +73,107 @@ public class PagingHelper {
         return unirest==null || nextPageUrlProducer==null ? null : new NextPageRequestProducer(unirest, nextPageUrlProducer);
     }
     
+    /**
+     * Process all pages for the given initial request, passing each response to the given
+     * consumer as soon as it has been loaded. If the given {@link UnirestInstance} is null,
+     * this method falls back to {@link #processPages(HttpRequest, INextPageUrlProducer, Consumer)}.
+     * @param unirest
+     * @param initialRequest
+     * @param nextPageUrlProducer
+     * @param consumer
+     */
     public static final void processPages(UnirestInstance unirest, HttpRequest<?> initialRequest, INextPageUrlProducer nextPageUrlProducer, Consumer<HttpResponse<JsonNode>> consumer) {
-        var nextPageRequestProducer = asNextPageRequestProducer(unirest, nextPageUrlProducer);
-        if ( nextPageRequestProducer==null ) {
-            throw new IllegalStateException("Cannot process pages without a valid NextPageRequestProducer");
+        if ( nextPageUrlProducer==null ) {
+            throw new IllegalStateException("Cannot process pages without a valid NextPageUrlProducer");
+        }
+        if ( unirest==null ) {
+            processPages(initialRequest, nextPageUrlProducer, consumer);
+        } else {
+            processPages(initialRequest, asNextPageRequestProducer(unirest, nextPageUrlProducer), consumer);
         }
-        processPages(initialRequest, nextPageRequestProducer, consumer);
+    }
+    
+    /**
+     * Process all pages for the given initial request, passing each response to the given
+     * consumer as soon as it has been loaded, without requiring a {@link UnirestInstance}.
+     * Like {@link #pagedRequest(HttpRequest, INextPageUrlProducer)}, this method uses 
+     * {@link HttpRequest#asPaged(java.util.function.Function, java.util.function.Function)}
+     * to re-issue the given request for every page URL, but the Unirest {@link PagedList}
+     * only retains a body-less copy (status and headers) of each response, such that memory 
+     * usage is bounded by the size of a single page rather than the full result set.
+     * @param initialRequest
+     * @param nextPageUrlProducer
+     * @param consumer
+     */
+    public static final void processPages(HttpRequest<?> initialRequest, INextPageUrlProducer nextPageUrlProducer, Consumer<HttpResponse<JsonNode>> consumer) {
+        var nextPageUrl = new AtomicReference<String>();
+        initialRequest.asPaged(request->{
+            HttpResponse<JsonNode> response = request.asObject(JsonNode.class);
+            consumer.accept(response);
+            nextPageUrl.set(nextPageUrlProducer.getNextPageUrl(request, response));
+            return response.map(body->null);
+        }, response->nextPageUrl.getAndSet(null));
     }
 
+    /**
+     * Process all pages for the given initial request, passing each response to the
+     * given consumer in page order. If the given {@link INextPageRequestProducer} was
+     * created from an {@link INextPageUrlProducer} that also implements 
+     * {@link IRemainingPageUrlsProducer}, all pages following the first page will be 
+     * loaded concurrently, with the number of in-flight (and buffered) pages bounded by 
+     * {@link IRemainingPageUrlsProducer#getMaxConcurrentPageRequests()}. Otherwise, 
+     * pages will be loaded sequentially.
+     * @param initialRequest
+     * @param nextPageRequestProducer
+     * @param consumer
+     */
     public static final void processPages(HttpRequest<?> initialRequest, INextPageRequestProducer nextPageRequestProducer, Consumer<HttpResponse<JsonNode>> consumer) {
-        var currentRequest = initialRequest;
-        while ( currentRequest!=null ) {
-           HttpResponse<JsonNode> response = currentRequest.asObject(JsonNode.class);
-           consumer.accept(response);
-           currentRequest = nextPageRequestProducer.getNextPageRequest(initialRequest, response);
+        HttpResponse<JsonNode> response = initialRequest.asObject(JsonNode.class);
+        consumer.accept(response);
+        var remainingPageRequests = getRemainingPageRequests(initialRequest, nextPageRequestProducer, response);
+        if ( remainingPageRequests!=null ) {
+            var maxConcurrentRequests = ((NextPageRequestProducer)nextPageRequestProducer).getMaxConcurrentPageRequests();
+            processPagesConcurrently(remainingPageRequests, maxConcurrentRequests, consumer);
+        } else {
+            var currentRequest = nextPageRequestProducer.getNextPageRequest(initialRequest, response);
+            while ( currentRequest!=null ) {
+               response = currentRequest.asObject(JsonNode.class);
+               consumer.accept(response);
+               currentRequest = nextPageRequestProducer.getNextPageRequest(initialRequest, response);
+            }
+        }
+    }
+    
+    private static final List<HttpRequest<?>> getRemainingPageRequests(HttpRequest<?> initialRequest, INextPageRequestProducer nextPageRequestProducer, HttpResponse<JsonNode> firstPageResponse) {
+        return nextPageRequestProducer instanceof NextPageRequestProducer 
+                ? ((NextPageRequestProducer)nextPageRequestProducer).getRemainingPageRequests(initialRequest, firstPageResponse)
+                : null;
+    }
+    
+    /**
+     * Load the given page requests using a bounded thread pool, passing the responses
+     * to the given consumer in the same order as the given list of requests. At most
+     * maxConcurrentRequests pages are either being loaded or waiting to be consumed, 
+     * so memory usage is bounded independent of the total number of pages. Any 
+     * exception thrown while loading a page is re-thrown on the calling thread, after 
+     * cancelling all outstanding requests. Note that product-specific retry handling,
+     * like FoD rate limit handling, is performed by the underlying HTTP client on the 
+     * worker thread that executes the rate-limited request. 
+     */
+    private static final void processPagesConcurrently(List<HttpRequest<?>> requests, int maxConcurrentRequests, Consumer<HttpResponse<JsonNode>> consumer) {
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentRequests);
+        Deque<Future<HttpResponse<JsonNode>>> pending = new ArrayDeque<>(maxConcurrentRequests);
+        var iterator = requests.iterator();
+        try {
+            while ( iterator.hasNext() || !pending.isEmpty() ) {
+                while ( iterator.hasNext() && pending.size()<maxConcurrentRequests ) {
+                    var request = iterator.next();
+                    pending.add(executor.submit(()->request.asObject(JsonNode.class)));
+                }
+                consumer.accept(ConcurrencyHelper.getResult(pending.remove()));
+            }
+        } finally {
+            executor.shutdownNow();
         }
     }
     
@@ -91,6 +188,25 @@ public class PagingHelper {
             // TODO Any more request attributes to be copied from original request?
             return nextPageUrl==null ? null : nextPageRequest(request, nextPageUrl); 
         }
+        
+        /**
+         * Return requests for all remaining pages if our {@link INextPageUrlProducer}
+         * implements {@link IRemainingPageUrlsProducer} and allows for concurrent
+         * requests, otherwise return null.
+         */
+        public List<HttpRequest<?>> getRemainingPageRequests(HttpRequest<?> request, HttpResponse<? extends JsonNode> firstPageResponse) {
+            if ( getMaxConcurrentPageRequests()<2 ) { return null; }
+            var remainingPageUrls = ((IRemainingPageUrlsProducer)nextPageUrlProducer).getRemainingPageUrls(request, firstPageResponse);
+            return remainingPageUrls==null ? null : remainingPageUrls.stream()
+                    .<HttpRequest<?>>map(url->nextPageRequest(request, url))
+                    .collect(Collectors.toList());
+        }
+        
+        public int getMaxConcurrentPageRequests() {
+            return nextPageUrlProducer instanceof IRemainingPageUrlsProducer
+                    ? ((IRemainingPageUrlsProducer)nextPageUrlProducer).getMaxConcurrentPageRequests()
+                    : 1;
+        }
 
         private HttpRequest<?> nextPageRequest(HttpRequest<?> originalRequest, String nextPageUrl) {
             HttpRequest<?> result = unirest.request(originalRequest.getHttpMethod().name(), nextPageUrl)
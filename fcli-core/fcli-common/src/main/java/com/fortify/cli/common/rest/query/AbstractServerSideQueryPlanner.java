@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorMatches;
+
+import com.fortify.cli.common.spring.expression.AbstractSpelNodeVisitor;
+import com.fortify.cli.common.spring.expression.SpelNodeHelper;
+import com.fortify.cli.common.util.JavaHelper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Base class for planning which parts of a client-side query expression can be
+ * pushed down to a server-side query parameter. The top-level conjuncts of the
+ * given expression are visited one by one; each conjunct is decomposed into a
+ * disjunction of {@link ServerSideQueryPredicate} instances, which is then passed
+ * to {@link #render(List)} to translate it into the product-specific query grammar.
+ * Conjuncts that cannot be decomposed or rendered are kept as residual expressions.
+ * 
+ * As the full query expression is always evaluated client-side on the returned
+ * records, server-side queries only need to be at least as broad as the original
+ * expression; rendered queries must never exclude any records that would match
+ * the original expression.
+ */
+public abstract class AbstractServerSideQueryPlanner extends AbstractSpelNodeVisitor {
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractServerSideQueryPlanner.class);
+    // This should match any characters/sequences that have a special meaning in regex (apart from '|'), 
+    // unless they have been escaped.
+    private static final Pattern SPECIAL_REGEX_CHAR_PATTERN = Pattern.compile("(?<!\\\\)(?:\\\\\\\\)*[\\[\\].+*?^$(){}]|(?<=\\\\)[\\d\\w]");
+    private final List<String> pushedDown = new ArrayList<>();
+    private final List<String> residual = new ArrayList<>();
+    
+    protected AbstractServerSideQueryPlanner(Expression expression) {
+        super(expression);
+    }
+    
+    /**
+     * Visit the expression passed in the constructor, log the resulting plan, and
+     * return the server-side query parameter value for all conjuncts that could be
+     * pushed down, or null if none of the conjuncts could be pushed down.
+     */
+    public final String plan() {
+        visit();
+        var result = pushedDown.isEmpty() ? null : join(pushedDown);
+        LOG.debug("Server-side query plan for {}: pushed down: {}, residual: {}", getRootExpressionString(), result, residual);
+        return result;
+    }
+    
+    @Override
+    protected final void visit(SpelNode node) {
+        LOG.trace("Visiting node: "+node);
+        if ( node instanceof OpAnd ) {
+            visitChildren(node);
+        } else {
+            var disjuncts = new ArrayList<ServerSideQueryPredicate>();
+            var query = collectDisjuncts(node, disjuncts) ? render(disjuncts) : Optional.<String>empty();
+            query.ifPresentOrElse(pushedDown::add, ()->residual.add(node.toStringAST()));
+        }
+    }
+    
+    /**
+     * Render the given disjunction of predicates in the product-specific query grammar,
+     * returning an empty {@link Optional} if the disjunction (or any of its predicates)
+     * is not supported.
+     */
+    protected abstract Optional<String> render(List<ServerSideQueryPredicate> disjuncts);
+    
+    /**
+     * Join the given rendered conjuncts into a single query parameter value.
+     */
+    protected abstract String join(List<String> conjuncts);
+    
+    private final boolean collectDisjuncts(SpelNode node, List<ServerSideQueryPredicate> result) {
+        if ( node instanceof OpOr ) {
+            return SpelNodeHelper.allChildrenMatch(node, child->collectDisjuncts(child, result));
+        }
+        var predicate = eq(node).or(()->in(node)).or(()->matches(node));
+        predicate.ifPresent(result::add);
+        return predicate.isPresent();
+    }
+    
+    private static final Optional<ServerSideQueryPredicate> eq(SpelNode node) {
+        return JavaHelper.as(node, OpEQ.class).flatMap(opEq->{
+            var propertyPath = SpelNodeHelper.operand(opEq, SpelNodeHelper::qualifiedPropertyName);
+            var literalString = SpelNodeHelper.operand(opEq, SpelNodeHelper::literalString);
+            return propertyPath.flatMap(p->literalString.map(v->new ServerSideQueryPredicate(p, List.of(v))));
+        });
+    }
+    
+    private static final Optional<ServerSideQueryPredicate> in(SpelNode node) {
+        // Matches {'value1', 'value2'}.contains(property)
+        return JavaHelper.as(node, CompoundExpression.class)
+            .filter(ce->ce.getChildCount()==2)
+            .flatMap(ce->JavaHelper.as(ce.getChild(0), InlineList.class).flatMap(list->
+                JavaHelper.as(ce.getChild(1), MethodReference.class)
+                    .filter(mr->mr.getName().equals("contains") && mr.getChildCount()==1)
+                    .flatMap(mr->SpelNodeHelper.qualifiedPropertyName(mr.getChild(0)))
+                    .flatMap(p->SpelNodeHelper.collectChildren(list, Literal.class, SpelNodeHelper::literalStringValue, Collectors.toList())
+                            .map(v->new ServerSideQueryPredicate(p, v)))));
+    }
+    
+    private static final Optional<ServerSideQueryPredicate> matches(SpelNode node) {
+        // Matches property matches 'value1|value2', as long as the regex doesn't contain
+        // any special characters, in which case this is equivalent to an in-predicate.
+        return JavaHelper.as(node, OperatorMatches.class).flatMap(opMatches->{
+            var propertyPath = SpelNodeHelper.operand(opMatches, SpelNodeHelper::qualifiedPropertyName);
+            var literalString = SpelNodeHelper.operand(opMatches, SpelNodeHelper::literalString)
+                    .filter(s->!SPECIAL_REGEX_CHAR_PATTERN.matcher(s).find());
+            return propertyPath.flatMap(p->literalString.map(s->
+                new ServerSideQueryPredicate(p, Arrays.asList(s.replaceAll("\\\\", "").split("\\|")))));
+        });
+    }
+    
+    /**
+     * Predicate describing that the value of the property identified by the 
+     * given property path must be equal to any of the given values.
+     */
+    @RequiredArgsConstructor @Getter
+    public static final class ServerSideQueryPredicate {
+        private final String propertyPath;
+        private final List<String> values;
+        
+        /**
+         * Return the common property path for all given predicates,
+         * or an empty {@link Optional} if not all predicates reference
+         * the same property.
+         */
+        public static final Optional<String> commonPropertyPath(List<ServerSideQueryPredicate> predicates) {
+            var propertyPaths = predicates.stream().map(ServerSideQueryPredicate::getPropertyPath).distinct().toList();
+            return propertyPaths.size()==1 ? Optional.of(propertyPaths.get(0)) : Optional.empty();
+        }
+        
+        /**
+         * Return all values of all given predicates.
+         */
+        public static final List<String> allValues(List<ServerSideQueryPredicate> predicates) {
+            return predicates.stream().flatMap(p->p.getValues().stream()).toList();
+        }
+    }
+}
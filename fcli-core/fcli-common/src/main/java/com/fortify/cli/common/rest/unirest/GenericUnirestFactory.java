@@ -12,6 +12,7 @@
  *******************************************************************************/
 package com.fortify.cli.common.rest.unirest;
 
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
@@ -28,6 +29,7 @@ import kong.unirest.jackson.JacksonObjectMapper;
 public final class GenericUnirestFactory {
     private static final Logger LOG = LoggerFactory.getLogger(GenericUnirestFactory.class);
     private static final ConcurrentMap<String, UnirestInstance> instances = new ConcurrentHashMap<>();
+    private static final Set<String> sessionInstanceKeys = ConcurrentHashMap.newKeySet();
     
     /**
      * Create a new {@link UnirestInstance}. Callers are responsible for closing the
@@ -67,11 +69,35 @@ public final class GenericUnirestFactory {
         return instance;
     }
     
+    /**
+     * Get a {@link UnirestInstance} for the given key, like {@link #getUnirestInstance(String, Consumer)}.
+     * The given configurer may only use session data, fcli configuration and environment
+     * variables to configure the instance, and the key must uniquely identify the session.
+     * Such instances are not shut down by {@link #shutdownCommandInstances()}, allowing them
+     * to be reused across fcli invocations within a single process, for as long as session
+     * data and fcli configuration doesn't change.
+     */
+    public static final UnirestInstance getSessionUnirestInstance(String key, Consumer<UnirestInstance> configurer) {
+        var instance = getUnirestInstance(key, configurer);
+        sessionInstanceKeys.add(key);
+        return instance;
+    }
+    
     public static final void shutdown() {
         instances.keySet().stream().forEach(GenericUnirestFactory::shutdown);
     }
     
+    /**
+     * Shut down all instances that were not created through {@link #getSessionUnirestInstance(String, Consumer)},
+     * as these may have been configured based on command-specific data like URLs or 
+     * authentication headers.
+     */
+    public static final void shutdownCommandInstances() {
+        instances.keySet().stream().filter(k->!sessionInstanceKeys.contains(k)).forEach(GenericUnirestFactory::shutdown);
+    }
+    
     public static final void shutdown(String key) {
+        sessionInstanceKeys.remove(key);
         UnirestInstance instance = instances.remove(key);
         if ( instance!=null ) {
             try {
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.unirest.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.util.StringUtils;
+
+import kong.unirest.Config;
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpRequestSummary;
+import kong.unirest.HttpResponse;
+import kong.unirest.Interceptor;
+import kong.unirest.UnirestInstance;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * This class allows for configuring a {@link UnirestInstance} to throttle requests
+ * based on rate limit response headers, like the <code>X-RateLimit-Remaining</code> 
+ * and <code>X-RateLimit-Reset</code> headers returned by GitHub, or the 
+ * <code>RateLimit-Remaining</code> and <code>RateLimit-Reset</code> headers 
+ * returned by GitLab. Once the number of remaining requests drops to the
+ * configured minimum, any new requests will be delayed until the rate limit
+ * is reset. The minimum should be at least equal to the number of requests
+ * that may be executed concurrently, to avoid concurrent requests exceeding 
+ * the rate limit.
+ */
+public final class UnirestRateLimitConfigurer {
+    private static final Logger LOG = LoggerFactory.getLogger(UnirestRateLimitConfigurer.class);
+    private UnirestRateLimitConfigurer() {}
+    
+    /**
+     * Configure the given {@link UnirestInstance} to throttle requests based on the
+     * given response headers. The reset header is expected to contain the rate limit 
+     * reset time in seconds since the epoch. Responses that don't contain both headers 
+     * are ignored, so this is a no-op if the server doesn't apply any rate limits.
+     */
+    public static final void configure(UnirestInstance unirest, String remainingHeader, String resetHeader, int minRemaining) {
+        unirest.config().interceptor(new RateLimitInterceptor(remainingHeader, resetHeader, Math.max(1, minRemaining)));
+    }
+    
+    @RequiredArgsConstructor
+    private static final class RateLimitInterceptor implements Interceptor {
+        private static final long RESET_MARGIN_MILLIS = 1000;
+        private final String remainingHeader;
+        private final String resetHeader;
+        private final int minRemaining;
+        private long remaining = Long.MAX_VALUE;
+        private long resetEpochMillis = 0;
+        
+        @Override
+        public void onRequest(HttpRequest<?> request, Config config) {
+            waitForRateLimitReset();
+        }
+        
+        @Override
+        public void onResponse(HttpResponse<?> response, HttpRequestSummary requestSummary, Config config) {
+            var headers = response.getHeaders();
+            var remainingValue = headers.getFirst(remainingHeader);
+            var resetValue = headers.getFirst(resetHeader);
+            if ( StringUtils.isNotBlank(remainingValue) && StringUtils.isNotBlank(resetValue) ) {
+                try {
+                    update(Long.parseLong(remainingValue.trim()), Long.parseLong(resetValue.trim())*1000);
+                } catch ( NumberFormatException e ) {
+                    LOG.debug("Ignoring unexpected rate limit header values: {}={}, {}={}", remainingHeader, remainingValue, resetHeader, resetValue);
+                }
+            }
+        }
+        
+        /**
+         * Update the rate limit state. Responses for concurrent requests may be 
+         * received out of order, so for any given rate limit window, we keep the 
+         * lowest number of remaining requests. 
+         */
+        private synchronized void update(long remaining, long resetEpochMillis) {
+            if ( resetEpochMillis>this.resetEpochMillis ) {
+                this.resetEpochMillis = resetEpochMillis;
+                this.remaining = remaining;
+            } else if ( resetEpochMillis==this.resetEpochMillis ) {
+                this.remaining = Math.min(this.remaining, remaining);
+            }
+        }
+        
+        @SneakyThrows
+        private synchronized void waitForRateLimitReset() {
+            long waitMillis;
+            while ( remaining<=minRemaining && (waitMillis = resetEpochMillis+RESET_MARGIN_MILLIS-System.currentTimeMillis())>0 ) {
+                LOG.info("Rate limit almost exceeded, waiting {} seconds for rate limit reset", waitMillis/1000);
+                wait(waitMillis);
+            }
+        }
+    }
+}
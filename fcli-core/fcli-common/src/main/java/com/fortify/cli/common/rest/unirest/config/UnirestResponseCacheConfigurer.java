@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.unirest.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+import com.fortify.cli.common.util.StringUtils;
+
+import kong.unirest.BasicResponse;
+import kong.unirest.Cache;
+import kong.unirest.Config;
+import kong.unirest.Headers;
+import kong.unirest.HttpMethod;
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpRequestSummary;
+import kong.unirest.HttpResponse;
+import kong.unirest.HttpResponseSummary;
+import kong.unirest.RawResponse;
+import kong.unirest.UnirestInstance;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * This class allows for configuring an opt-in, persistent cache for responses 
+ * of GET requests to lookup-style endpoints that return slowly changing reference
+ * data. Caching is enabled by setting the FCLI_HTTP_CACHE_TTL environment variable
+ * to the number of seconds that cached responses may be used without contacting 
+ * the server. Once expired, cached responses that provided an ETag or Last-Modified
+ * header are revalidated using a conditional request; other expired responses are
+ * simply re-fetched.<p>
+ * 
+ * Cached responses are stored encrypted in the fcli state directory, separately for
+ * each cache scope (usually identifying a single session) and request URL. Responses
+ * with an empty 'data' array are never cached, such that for example an entity that
+ * didn't exist yet during an earlier lookup will be found once it has been created.
+ * As non-GET requests may modify server-side data, the full cache scope is cleared
+ * whenever such a request is sent through the configured {@link UnirestInstance}, 
+ * unless the request is identified as read-only by the configured predicate, like
+ * SSC bulk requests that only contain GET requests.
+ */
+public final class UnirestResponseCacheConfigurer {
+    private static final Logger LOG = LoggerFactory.getLogger(UnirestResponseCacheConfigurer.class);
+    public static final String ENVNAME_TTL = "FCLI_HTTP_CACHE_TTL";
+    private static final ThreadLocal<Boolean> conditionalRequestInProgress = ThreadLocal.withInitial(()->false);
+    private UnirestResponseCacheConfigurer() {}
+    
+    /**
+     * Return whether the current thread is executing a conditional request issued
+     * by the response cache, allowing {@link UnirestUnexpectedHttpResponseConfigurer}
+     * to accept 304 Not Modified responses for such requests only. 
+     */
+    static final boolean isConditionalRequestInProgress() {
+        return conditionalRequestInProgress.get();
+    }
+    
+    /**
+     * Enable response caching for GET requests on the given {@link UnirestInstance}
+     * for which the full request URL matches any of the given patterns, if caching 
+     * has been enabled through the FCLI_HTTP_CACHE_TTL environment variable.
+     * @param unirest {@link UnirestInstance} to configure
+     * @param cacheScope Unique identifier for the cache scope, like session type, name and creation date
+     * @param cacheableUrlPatterns Patterns identifying cacheable requests
+     * @param readOnlyRequestPredicate Predicate identifying non-GET requests that don't modify server-side data
+     */
+    public static final void configure(UnirestInstance unirest, String cacheScope, Collection<Pattern> cacheableUrlPatterns, Predicate<HttpRequest<?>> readOnlyRequestPredicate) {
+        long ttlSeconds = getTtlSeconds();
+        if ( ttlSeconds>0 && cacheableUrlPatterns!=null && !cacheableUrlPatterns.isEmpty() ) {
+            var cache = new PersistentResponseCache(unirest.config(), getCacheDir(cacheScope), cacheableUrlPatterns, readOnlyRequestPredicate, Duration.ofSeconds(ttlSeconds));
+            unirest.config().cacheResponses(Cache.builder().backingCache(cache).withKeyGen(cache));
+        }
+    }
+    
+    private static final long getTtlSeconds() {
+        return EnvHelper.envAsInteger(ENVNAME_TTL, 0);
+    }
+    
+    private static final Path getCacheDir(String cacheScope) {
+        return FcliDataHelper.getFcliStatePath().resolve("http-cache").resolve(sha256(cacheScope));
+    }
+    
+    @SneakyThrows
+    private static final String sha256(String s) {
+        var hash = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+    
+    /**
+     * Unirest {@link Cache} implementation, also acting as {@link Cache.KeyGenerator}
+     * to allow for identifying cacheable requests and adding conditional request headers
+     * before the request is sent.
+     */
+    @RequiredArgsConstructor
+    private static final class PersistentResponseCache implements Cache, Cache.KeyGenerator {
+        private final Config config;
+        private final Path cacheDir;
+        private final Collection<Pattern> cacheableUrlPatterns;
+        private final Predicate<HttpRequest<?>> readOnlyRequestPredicate;
+        private final Duration ttl;
+        
+        @Override
+        public Key apply(HttpRequest request, Boolean isAsync, Class<?> responseType) {
+            var url = request.getUrl();
+            var method = request.getHttpMethod();
+            if ( method!=HttpMethod.GET && method!=HttpMethod.HEAD && method!=HttpMethod.OPTIONS 
+                    && !readOnlyRequestPredicate.test(request) ) {
+                clear();
+            }
+            if ( Boolean.TRUE.equals(isAsync) || method!=HttpMethod.GET 
+                    || responseType==null || !JsonNode.class.isAssignableFrom(responseType)
+                    || cacheableUrlPatterns.stream().noneMatch(p->p.matcher(url).find()) ) {
+                return new CacheKey(null, null, responseType, null, null, false);
+            }
+            var path = cacheDir.resolve(sha256(url));
+            var entry = readEntry(path);
+            var conditional = false;
+            if ( entry!=null && !responseType.isInstance(entry.get("body")) ) {
+                entry = null;
+            } else if ( entry!=null && !isFresh(entry) ) {
+                conditional = addConditionalHeaders(request, entry);
+            }
+            return new CacheKey(url, path, responseType, entry, request.toSummary(), conditional);
+        }
+        
+        private void clear() {
+            if ( FcliDataHelper.exists(cacheDir) ) {
+                LOG.debug("Clearing response cache {} after non-GET request", cacheDir);
+                FcliDataHelper.deleteDir(cacheDir, false);
+            }
+        }
+        
+        @Override @SuppressWarnings({ "unchecked", "rawtypes" })
+        public <T> HttpResponse get(Key key, Supplier<HttpResponse<T>> fetcher) {
+            var cacheKey = (CacheKey)key;
+            if ( cacheKey.path==null ) { return fetcher.get(); }
+            var entry = cacheKey.entry;
+            if ( entry!=null && isFresh(entry) ) {
+                LOG.debug("Using cached response for {}", cacheKey.url);
+                return toResponse(entry, cacheKey);
+            }
+            var response = fetch(cacheKey, fetcher);
+            if ( response.getStatus()==304 && cacheKey.conditional ) {
+                LOG.debug("Revalidated cached response for {}", cacheKey.url);
+                entry.put("storedAt", Instant.now().toEpochMilli());
+                writeEntry(cacheKey.path, entry);
+                return toResponse(entry, cacheKey);
+            } else if ( response.getStatus()==200 && isCacheableBody(response.getBody()) ) {
+                writeEntry(cacheKey.path, createEntry(cacheKey.url, response));
+            }
+            return response;
+        }
+        
+        private static final <T> HttpResponse<T> fetch(CacheKey cacheKey, Supplier<HttpResponse<T>> fetcher) {
+            if ( !cacheKey.conditional ) { return fetcher.get(); }
+            conditionalRequestInProgress.set(true);
+            try {
+                return fetcher.get();
+            } finally {
+                conditionalRequestInProgress.set(false);
+            }
+        }
+        
+        @Override
+        public <T> CompletableFuture getAsync(Key key, Supplier<CompletableFuture<HttpResponse<T>>> fetcher) {
+            return fetcher.get();
+        }
+        
+        private boolean isFresh(ObjectNode entry) {
+            var storedAt = Instant.ofEpochMilli(entry.path("storedAt").asLong());
+            return storedAt.plus(ttl).isAfter(Instant.now());
+        }
+        
+        /**
+         * Add conditional request headers based on the given cache entry,
+         * returning whether any conditional request headers were added.
+         */
+        private static final boolean addConditionalHeaders(HttpRequest<?> request, ObjectNode entry) {
+            var etag = entry.path("etag").textValue();
+            var lastModified = entry.path("lastModified").textValue();
+            if ( StringUtils.isNotBlank(etag) ) { request.header("If-None-Match", etag); }
+            if ( StringUtils.isNotBlank(lastModified) ) { request.header("If-Modified-Since", lastModified); }
+            return StringUtils.isNotBlank(etag) || StringUtils.isNotBlank(lastModified);
+        }
+        
+        private static final boolean isCacheableBody(Object body) {
+            if ( !(body instanceof JsonNode) ) { return false; }
+            var data = ((JsonNode)body).get("data");
+            return data==null || !data.isArray() || data.size()>0;
+        }
+        
+        private static final ObjectNode createEntry(String url, HttpResponse<?> response) {
+            var entry = JsonHelper.getObjectMapper().createObjectNode();
+            entry.put("url", url);
+            entry.put("storedAt", Instant.now().toEpochMilli());
+            entry.put("etag", response.getHeaders().getFirst("ETag"));
+            entry.put("lastModified", response.getHeaders().getFirst("Last-Modified"));
+            entry.set("body", (JsonNode)response.getBody());
+            return entry;
+        }
+        
+        @SuppressWarnings("rawtypes")
+        private HttpResponse toResponse(ObjectNode entry, CacheKey cacheKey) {
+            var body = entry.get("body");
+            return new BasicResponse<>(new CachedRawResponse(config, body, cacheKey.requestSummary), cacheKey.responseType.cast(body));
+        }
+        
+        private static final ObjectNode readEntry(Path path) {
+            try {
+                return !FcliDataHelper.isReadable(path) ? null 
+                        : JsonHelper.jsonStringToValue(FcliDataHelper.readSecuredFile(path, false), ObjectNode.class);
+            } catch ( Exception e ) {
+                LOG.debug("Ignoring unreadable cache entry "+path, e);
+                return null;
+            }
+        }
+        
+        private static final void writeEntry(Path path, ObjectNode entry) {
+            FcliDataHelper.saveSecuredFile(path, entry, false);
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class CacheKey implements Cache.Key {
+        private final String url;
+        private final Path path;
+        private final Class<?> responseType;
+        private final ObjectNode entry;
+        private final HttpRequestSummary requestSummary;
+        private final boolean conditional;
+        private final Instant time = Instant.now();
+        
+        @Override
+        public Instant getTime() {
+            return time;
+        }
+    }
+    
+    /**
+     * {@link RawResponse} implementation representing a cached JSON response body,
+     * also acting as {@link HttpResponseSummary} for this cached response.
+     */
+    private static final class CachedRawResponse implements RawResponse, HttpResponseSummary {
+        private final Config config;
+        private final byte[] content;
+        private final HttpRequestSummary requestSummary;
+        
+        private CachedRawResponse(Config config, JsonNode body, HttpRequestSummary requestSummary) {
+            this.config = config;
+            this.content = body.toString().getBytes(StandardCharsets.UTF_8);
+            this.requestSummary = requestSummary;
+        }
+        
+        @Override public int getStatus() { return 200; }
+        @Override public String getStatusText() { return "OK"; }
+        @Override public Headers getHeaders() {
+            var headers = new Headers();
+            headers.add("Content-Type", getContentType());
+            return headers;
+        }
+        @Override public InputStream getContent() { return new ByteArrayInputStream(content); }
+        @Override public byte[] getContentAsBytes() { return content; }
+        @Override public String getContentAsString() { return new String(content, StandardCharsets.UTF_8); }
+        @Override public String getContentAsString(String charset) { return getContentAsString(); }
+        @Override public InputStreamReader getContentReader() { return new InputStreamReader(getContent(), StandardCharsets.UTF_8); }
+        @Override public boolean hasContent() { return true; }
+        @Override public String getContentType() { return "application/json"; }
+        @Override public String getEncoding() { return StandardCharsets.UTF_8.name(); }
+        @Override public Config getConfig() { return config; }
+        @Override public HttpResponseSummary toSummary() { return this; }
+        @Override public HttpRequestSummary getRequestSummary() { return requestSummary; }
+        @Override public String asString() {
+            return String.format("HTTP %d %s (cached)\nContent-Type: %s\n\n%s", getStatus(), getStatusText(), getContentType(), getContentAsString());
+        }
+    }
+}
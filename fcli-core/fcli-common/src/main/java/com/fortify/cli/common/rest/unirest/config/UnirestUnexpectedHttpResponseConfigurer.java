@@ -32,11 +32,17 @@ public class UnirestUnexpectedHttpResponseConfigurer implements Interceptor {
         
         @Override
         public void onResponse(HttpResponse<?> response, HttpRequestSummary requestSummary, Config config) {
-            if ( !response.isSuccess() ) {
+            // 304 Not Modified responses to conditional requests issued by the
+            // response cache are handled by UnirestResponseCacheConfigurer.
+            if ( !response.isSuccess() && !isCacheRevalidation(response) ) {
                 throw new UnexpectedHttpResponseException(response, requestSummary);
             }
         }
         
+        private static final boolean isCacheRevalidation(HttpResponse<?> response) {
+            return response.getStatus()==304 && UnirestResponseCacheConfigurer.isConditionalRequestInProgress();
+        }
+        
         @Override
         public HttpResponse<?> onFail(Exception e, HttpRequestSummary request, Config config) throws UnirestException {
             throw (e instanceof UnirestException) ? (UnirestException)e : new UnirestException(e); 
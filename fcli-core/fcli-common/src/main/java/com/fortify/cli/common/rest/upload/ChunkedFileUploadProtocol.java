@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.fortify.cli.common.util.ConcurrencyHelper;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * {@link IFileUploadProtocol} implementation that uploads a file in chunks of the 
+ * configured size, with every chunk being uploaded by the configured {@link IChunkUploader}.
+ * All chunks except the final one are uploaded using at most {@link #maxConcurrentChunks}
+ * concurrent requests, with failed chunk requests being retried individually. Once all
+ * other chunks have been uploaded, the final chunk is uploaded, and the response for this
+ * final chunk is returned. As the final chunk usually triggers server-side processing, 
+ * like starting a scan, it can't safely be repeated and is thus never retried. If a {@link ChunkedUploadState} is configured, chunks that were 
+ * already uploaded by a previous invocation are skipped. Only chunks that are currently
+ * being uploaded are kept in memory.
+ */
+@Builder
+public final class ChunkedFileUploadProtocol<R> implements IFileUploadProtocol<R> {
+    /** Chunk size in bytes */
+    private final int chunkSize;
+    /** Maximum number of non-final chunks to be uploaded concurrently */
+    @Builder.Default private final int maxConcurrentChunks = 1;
+    /** Maximum number of attempts for every non-final chunk, see {@link FileUploadContext#execute(int, String, java.util.function.Supplier)} */
+    @Builder.Default private final int maxAttempts = 3;
+    /** Optional upload state for resuming previously failed uploads */
+    private final ChunkedUploadState state;
+    /** Uploader for individual chunks */
+    private final IChunkUploader<R> chunkUploader;
+    
+    @Override
+    public R upload(FileUploadContext context) {
+        var length = context.getLength();
+        int chunkCount = (int)Math.max(1, (length+chunkSize-1)/chunkSize);
+        var pendingChunks = IntStream.range(0, chunkCount-1)
+                .filter(i->state==null || !state.isCompleted(i))
+                .boxed().collect(Collectors.toList());
+        context.setCompletedBytes((long)(chunkCount-1-pendingChunks.size())*chunkSize);
+        ConcurrencyHelper.mapConcurrently(pendingChunks, maxConcurrentChunks, i->uploadChunk(context, i, false));
+        try {
+            return uploadChunk(context, chunkCount-1, true);
+        } finally {
+            // If the final chunk fails, the server may have discarded previous chunks,
+            // so next invocation should start from scratch
+            if ( state!=null ) { state.delete(); }
+        }
+    }
+    
+    @SneakyThrows
+    private R uploadChunk(FileUploadContext context, int index, boolean last) {
+        long offset = (long)index*chunkSize;
+        int length = (int)Math.min(chunkSize, context.getLength()-offset);
+        var chunk = new FileChunk(index, offset, context.read(offset, length), last);
+        var result = context.execute(last ? 1 : maxAttempts, "chunk "+index, ()->chunkUploader.upload(chunk));
+        if ( !last && state!=null ) { state.completed(index); }
+        context.addCompletedBytes(length);
+        return result;
+    }
+    
+    @FunctionalInterface
+    public static interface IChunkUploader<R> {
+        /**
+         * Upload the given chunk, returning the product response. This method
+         * may be invoked concurrently for different chunks, and may be invoked
+         * multiple times for the same non-final chunk if a previous attempt failed.
+         */
+        R upload(FileChunk chunk);
+    }
+    
+    @RequiredArgsConstructor @Getter
+    public static final class FileChunk {
+        /** Zero-based chunk index */
+        private final int index;
+        /** Offset of this chunk within the file */
+        private final long offset;
+        /** Chunk contents */
+        private final byte[] contents;
+        /** Whether this is the final chunk */
+        private final boolean last;
+    }
+}
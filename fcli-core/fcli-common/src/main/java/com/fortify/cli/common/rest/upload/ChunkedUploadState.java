@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class keeps track of the chunks uploaded by {@link ChunkedFileUploadProtocol} in
+ * a file in the fcli state directory, allowing a failed upload to be resumed by a
+ * subsequent fcli invocation. To keep the state file small, we store the number of 
+ * chunks that have been completed sequentially, and the indexes of any other completed
+ * chunks, which may be completed out of order when uploading chunks concurrently. State 
+ * files are identified by the given upload id (for example the upload URL), file path,
+ * size and last modified date, and chunk size, and are ignored if they're older than 
+ * {@link #MAX_AGE}.
+ */
+public final class ChunkedUploadState {
+    private static final Logger LOG = LoggerFactory.getLogger(ChunkedUploadState.class);
+    private static final Duration MAX_AGE = Duration.ofHours(24);
+    private final Path path;
+    private int sequentialCount = 0;
+    private final SortedSet<Integer> completed = new TreeSet<>();
+    
+    private ChunkedUploadState(Path path) {
+        this.path = path;
+    }
+    
+    /**
+     * Load the upload state for the given upload id, file and chunk size, returning
+     * an empty upload state if no previous upload state is available.
+     */
+    public static final ChunkedUploadState load(String uploadId, File file, int chunkSize) {
+        var id = String.join("|", uploadId, file.getAbsolutePath(), 
+                String.valueOf(file.length()), String.valueOf(file.lastModified()), String.valueOf(chunkSize));
+        var result = new ChunkedUploadState(FcliDataHelper.getFcliStatePath().resolve("uploads").resolve(sha256(id)+".json"));
+        var contents = readContents(result.path);
+        if ( contents!=null && Instant.ofEpochMilli(contents.path("savedAt").asLong()).plus(MAX_AGE).isAfter(Instant.now()) ) {
+            result.sequentialCount = contents.path("sequentialCount").asInt();
+            contents.path("completed").forEach(n->result.completed.add(n.asInt()));
+            LOG.debug("Resuming upload of {} from chunk {}", file.getName(), result.sequentialCount);
+        }
+        return result;
+    }
+    
+    final synchronized boolean isCompleted(int index) {
+        return index<sequentialCount || completed.contains(index);
+    }
+    
+    final synchronized void completed(int index) {
+        completed.add(index);
+        while ( completed.remove(sequentialCount) ) { sequentialCount++; }
+        var contents = JsonHelper.getObjectMapper().createObjectNode()
+                .put("savedAt", Instant.now().toEpochMilli())
+                .put("sequentialCount", sequentialCount);
+        completed.forEach(contents.putArray("completed")::add);
+        FcliDataHelper.saveFile(path, contents, false);
+    }
+    
+    final synchronized void delete() {
+        if ( FcliDataHelper.exists(path) ) {
+            FcliDataHelper.deleteFile(path, false);
+        }
+    }
+    
+    private static final ObjectNode readContents(Path path) {
+        try {
+            return !FcliDataHelper.isReadable(path) ? null : FcliDataHelper.readFile(path, ObjectNode.class, false);
+        } catch ( Exception e ) {
+            LOG.debug("Ignoring unreadable upload state "+path, e);
+            return null;
+        }
+    }
+    
+    @SneakyThrows
+    private static final String sha256(String s) {
+        var hash = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.progress.helper.IProgressWriter;
+import com.fortify.cli.common.rest.unirest.UnexpectedHttpResponseException;
+
+import kong.unirest.ProgressMonitor;
+import kong.unirest.UnirestException;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+/**
+ * This class provides {@link IFileUploadProtocol} implementations with access to the
+ * file being uploaded, and with methods for reading file contents, executing upload 
+ * requests with bounded retry, and keeping track of upload progress and throughput.
+ * File contents are read through a {@link FileChannel} using positional reads, such
+ * that protocols can read different parts of the file concurrently. For contents that
+ * are generated while uploading rather than read from a file, {@link #getFile()} returns
+ * null and {@link #getLength()} returns -1.
+ */
+public final class FileUploadContext implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(FileUploadContext.class);
+    @Getter private final String name;
+    @Getter private final File file;
+    @Getter private final long length;
+    private final FileChannel channel;
+    private final IProgressWriter progressWriter;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong completedBytes = new AtomicLong();
+    private final AtomicInteger retryCount = new AtomicInteger();
+    
+    FileUploadContext(File file, IProgressWriter progressWriter) throws IOException {
+        this.name = file.getName();
+        this.file = file;
+        this.progressWriter = progressWriter;
+        this.length = file.length();
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+    
+    FileUploadContext(String name, IProgressWriter progressWriter) {
+        this.name = name;
+        this.file = null;
+        this.progressWriter = progressWriter;
+        this.length = -1;
+        this.channel = null;
+    }
+    
+    /**
+     * Read the given number of bytes starting at the given offset. 
+     */
+    public final byte[] read(long offset, int length) throws IOException {
+        if ( channel==null ) {
+            throw new IllegalStateException("Upload contents for "+name+" can't be read from file");
+        }
+        var buffer = ByteBuffer.allocate(length);
+        while ( buffer.hasRemaining() ) {
+            if ( channel.read(buffer, offset+buffer.position())<0 ) {
+                throw new IOException("Unexpected end of file while reading "+file.getPath());
+            }
+        }
+        return buffer.array();
+    }
+    
+    /**
+     * Execute the given request, retrying the request up to the given maximum number 
+     * of attempts if it fails due to a connection error or server error. Protocols 
+     * should only pass a maximum number of attempts larger than 1 for requests that 
+     * can safely be repeated. Note that rate-limited requests may already be retried
+     * by product-specific Unirest configuration.  
+     */
+    @SneakyThrows
+    public final <T> T execute(int maxAttempts, String description, Supplier<T> request) {
+        for ( int attempt=1 ;; attempt++ ) {
+            try {
+                return request.get();
+            } catch ( UnirestException e ) {
+                if ( attempt>=maxAttempts || !isRetryable(e) ) { throw e; }
+                retryCount.incrementAndGet();
+                LOG.debug("Retrying {} for {} after error", description, name, e);
+                Thread.sleep(attempt*1000L);
+            }
+        }
+    }
+    
+    /**
+     * Add the given number of bytes to the number of bytes uploaded so far. 
+     */
+    public final void addCompletedBytes(long bytes) {
+        updateProgress(completedBytes.addAndGet(bytes));
+    }
+    
+    /**
+     * Set the number of bytes uploaded so far. 
+     */
+    public final void setCompletedBytes(long bytes) {
+        completedBytes.set(bytes);
+        updateProgress(bytes);
+    }
+    
+    /**
+     * Get a Unirest {@link ProgressMonitor} that updates the number of bytes 
+     * uploaded so far, for protocols that upload the full file in a single request.
+     */
+    public final ProgressMonitor asProgressMonitor() {
+        return (field, fileName, bytesWritten, totalBytes)->setCompletedBytes(bytesWritten);
+    }
+    
+    /**
+     * Wrap the given {@link InputStream} such that the number of bytes uploaded so far
+     * is updated whenever data is read from the stream, for protocols that upload 
+     * generated contents through a stream.
+     */
+    public final InputStream monitor(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                var result = super.read();
+                if ( result>=0 ) { addCompletedBytes(1); }
+                return result;
+            }
+            
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                var result = super.read(b, off, len);
+                if ( result>0 ) { addCompletedBytes(result); }
+                return result;
+            }
+        };
+    }
+    
+    /**
+     * Get the average upload throughput since this context was created. 
+     */
+    public final double getBytesPerSecond() {
+        var nanos = Math.max(1, System.nanoTime()-startNanos);
+        return completedBytes.get()*1e9/nanos;
+    }
+    
+    private synchronized void updateProgress(long bytes) {
+        var mbPerSecond = getBytesPerSecond()/(1024*1024);
+        progressWriter.writeProgress(length<0 
+                ? String.format("\rUpload %s: %d bytes complete (%.1f MB/s)", name, bytes, mbPerSecond)
+                : String.format("\rUpload %s: %d of %d bytes complete (%.1f MB/s)", name, bytes, length, mbPerSecond));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        progressWriter.clearProgress();
+        if ( channel!=null ) { channel.close(); }
+        LOG.debug("Uploaded {} bytes of {} in {} ({} bytes/s, {} retries)", completedBytes.get(), name, 
+                Duration.ofNanos(System.nanoTime()-startNanos), Math.round(getBytesPerSecond()), retryCount.get());
+    }
+    
+    /**
+     * Connection errors and server errors are retried; other unexpected
+     * responses, like 400 Bad Request, will likely fail again on retry.
+     */
+    private static final boolean isRetryable(UnirestException e) {
+        return !(e instanceof UnexpectedHttpResponseException) 
+                || ((UnexpectedHttpResponseException)e).getStatus()>=500;
+    }
+}
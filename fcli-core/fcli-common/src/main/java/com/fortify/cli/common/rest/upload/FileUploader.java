@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fortify.cli.common.progress.helper.IProgressWriter;
+import com.fortify.cli.common.progress.helper.ProgressWriterType;
+
+/**
+ * This class provides the entry point for uploading files through an
+ * {@link IFileUploadProtocol}, taking care of common functionality like 
+ * checking whether the file is readable, opening and closing the file, 
+ * and reporting upload progress and throughput through {@link FileUploadContext}.
+ * Contents that are generated while uploading, rather than read from an
+ * existing file, can be uploaded through {@link #uploadContents(String, IFileUploadProtocol, IProgressWriter)}.
+ */
+public final class FileUploader {
+    private FileUploader() {}
+    
+    /**
+     * Upload the given file using the given {@link IFileUploadProtocol}, 
+     * returning the product response for the upload. Upload progress is 
+     * reported through an {@link ProgressWriterType#auto} progress writer;
+     * commands that provide a --progress option should use 
+     * {@link #upload(File, IFileUploadProtocol, IProgressWriter)} instead. 
+     */
+    public static final <R> R upload(File file, IFileUploadProtocol<R> protocol) {
+        try ( var progressWriter = ProgressWriterType.auto.create() ) {
+            return upload(file, protocol, progressWriter);
+        }
+    }
+    
+    /**
+     * Upload the given file using the given {@link IFileUploadProtocol}, 
+     * returning the product response for the upload. Upload progress is 
+     * reported through the given {@link IProgressWriter}, which remains 
+     * owned by the caller.
+     */
+    public static final <R> R upload(File file, IFileUploadProtocol<R> protocol, IProgressWriter progressWriter) {
+        if ( !file.exists() || !file.canRead() ) {
+            throw new IllegalArgumentException("Could not read file: " + file.getPath());
+        }
+        try ( var context = new FileUploadContext(file, progressWriter) ) {
+            return protocol.upload(context);
+        } catch ( IOException e ) {
+            throw new RuntimeException("Error uploading file "+file.getPath(), e);
+        }
+    }
+    
+    /**
+     * Upload contents that are generated by the given {@link IFileUploadProtocol}
+     * while uploading, like a {@link MultipartFileUploadProtocol} configured with
+     * a content supplier, returning the product response for the upload. The given
+     * name is used for progress and log messages. Upload progress is reported 
+     * through the given {@link IProgressWriter}, which remains owned by the caller.
+     */
+    public static final <R> R uploadContents(String name, IFileUploadProtocol<R> protocol, IProgressWriter progressWriter) {
+        try ( var context = new FileUploadContext(name, progressWriter) ) {
+            return protocol.upload(context);
+        } catch ( IOException e ) {
+            throw new RuntimeException("Error uploading "+name, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.IOException;
+
+/**
+ * This interface represents a product-specific protocol for uploading a file, for 
+ * example through a single multipart request as implemented by {@link MultipartFileUploadProtocol},
+ * or through multiple requests each containing a chunk of the file, as implemented by
+ * {@link ChunkedFileUploadProtocol}. Implementations are invoked by {@link FileUploader},
+ * and should use the given {@link FileUploadContext} for reading file contents, executing
+ * requests with retry, and reporting upload progress. 
+ */
+@FunctionalInterface
+public interface IFileUploadProtocol<R> {
+    /**
+     * Upload the file represented by the given {@link FileUploadContext},
+     * returning the product response for the upload. 
+     */
+    R upload(FileUploadContext context) throws IOException;
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import kong.unirest.ContentType;
+import kong.unirest.HttpRequestWithBody;
+import kong.unirest.HttpResponse;
+import kong.unirest.MultipartBody;
+import lombok.Builder;
+import lombok.SneakyThrows;
+
+/**
+ * {@link IFileUploadProtocol} implementation that uploads the full file as a field in a
+ * single multipart request. File contents are streamed from the file while the request
+ * is being sent, so files are never loaded into memory. As most products don't allow
+ * such requests to be safely repeated, for example because a repeated SSC artifact 
+ * upload would result in a duplicate artifact, requests are not retried by default.
+ * If a {@link #contentSupplier} is configured, the contents returned by that supplier 
+ * are uploaded instead of the file contents, allowing contents like zip archives to be 
+ * generated while uploading; such requests are never retried, as the contents can only 
+ * be read once. 
+ */
+@Builder
+public final class MultipartFileUploadProtocol<R> implements IFileUploadProtocol<R> {
+    /** Supplier for the request to which the multipart body will be added, invoked for every attempt */
+    private final Supplier<HttpRequestWithBody> requestSupplier;
+    /** Multipart field name for the file contents */
+    @Builder.Default private final String fieldName = "file";
+    /** Content type for the file field, or null to use the Unirest default */
+    private final String contentType;
+    /** Optional supplier for generated contents to be uploaded instead of the file contents */
+    private final IContentSupplier contentSupplier;
+    /** Function for adding any additional fields to the multipart body */
+    @Builder.Default private final UnaryOperator<MultipartBody> bodyUpdater = UnaryOperator.identity();
+    /** Function for executing the request, for example b->b.asObject(JsonNode.class) */
+    private final Function<MultipartBody, HttpResponse<R>> responseFunction;
+    /** Maximum number of attempts, see {@link FileUploadContext#execute(int, String, Supplier)}; ignored if {@link #contentSupplier} is configured */
+    @Builder.Default private final int maxAttempts = 1;
+    
+    @Override
+    public R upload(FileUploadContext context) {
+        if ( contentSupplier!=null ) {
+            return context.execute(1, "multipart upload", ()->uploadContents(context));
+        }
+        return context.execute(maxAttempts, "multipart upload", ()->{
+            var body = requestSupplier.get().multiPartContent();
+            body = contentType==null 
+                    ? body.field(fieldName, context.getFile())
+                    : body.field(fieldName, context.getFile(), contentType);
+            body = bodyUpdater.apply(body.uploadMonitor(context.asProgressMonitor()));
+            return responseFunction.apply(body).getBody();
+        });
+    }
+    
+    @SneakyThrows
+    private R uploadContents(FileUploadContext context) {
+        try ( var in = contentSupplier.get() ) {
+            var body = requestSupplier.get().multiPartContent()
+                    .field(fieldName, context.monitor(in), 
+                            contentType==null ? ContentType.APPLICATION_OCTET_STREAM : ContentType.create(contentType), 
+                            context.getName());
+            return responseFunction.apply(bodyUpdater.apply(body)).getBody();
+        }
+    }
+    
+    @FunctionalInterface
+    public static interface IContentSupplier {
+        /**
+         * Get an {@link InputStream} providing the contents to be uploaded; 
+         * the returned stream will be closed once the upload has completed.
+         */
+        InputStream get() throws IOException;
+    }
+}
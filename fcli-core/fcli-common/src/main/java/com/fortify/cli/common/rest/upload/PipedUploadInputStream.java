@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+
+/**
+ * {@link InputStream} implementation that returns the data written by the given 
+ * {@link IContentWriter}, which is invoked on a background thread. This allows for 
+ * generating upload contents, like zip archives, while the request is being sent, 
+ * rather than first writing the contents to a temporary file. As the total length 
+ * is unknown up front, Unirest will send request bodies containing this stream
+ * using chunked transfer encoding. Any exception thrown by the content writer is
+ * rethrown from the read methods once all data written so far has been consumed, 
+ * and closing this stream before all data has been read causes the content writer
+ * to fail with a 'Pipe closed' exception. Note that requests using this stream
+ * can't be retried, as the contents can only be read once.  
+ */
+public final class PipedUploadInputStream extends InputStream {
+    private static final int BUFFER_SIZE = 1024*1024;
+    private final PipedInputStream in;
+    private final Thread writerThread;
+    private volatile Throwable writerError;
+    
+    public PipedUploadInputStream(String name, IContentWriter contentWriter) throws IOException {
+        this.in = new PipedInputStream(BUFFER_SIZE);
+        var out = new PipedOutputStream(in);
+        this.writerThread = new Thread(()->write(contentWriter, out), name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    
+    private void write(IContentWriter contentWriter, PipedOutputStream out) {
+        try {
+            contentWriter.write(out);
+        } catch ( Throwable t ) {
+            // Record the error before closing the pipe, to make
+            // sure that the reader doesn't see a regular EOF
+            writerError = t;
+        } finally {
+            try { out.close(); } catch ( IOException e ) { /* Ignore, reader will see EOF or error */ }
+        }
+    }
+    
+    @Override
+    public int read() throws IOException {
+        return checkResult(in.read());
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        return checkResult(in.read(b, off, len));
+    }
+    
+    @Override
+    public int available() throws IOException {
+        return in.available();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    private int checkResult(int result) throws IOException {
+        if ( result<0 ) {
+            try {
+                writerThread.join();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+            if ( writerError!=null ) {
+                throw new IOException("Error generating upload contents", writerError);
+            }
+        }
+        return result;
+    }
+    
+    @FunctionalInterface
+    public static interface IContentWriter {
+        /**
+         * Write the upload contents to the given {@link OutputStream}. 
+         * Implementations don't need to close the given stream.
+         */
+        void write(OutputStream out) throws IOException;
+    }
+}
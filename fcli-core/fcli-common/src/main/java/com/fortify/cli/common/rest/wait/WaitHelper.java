@@ -21,6 +21,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -33,6 +34,7 @@ import com.fortify.cli.common.rest.wait.WaitType.AnyOrAll;
 import com.fortify.cli.common.rest.wait.WaitType.LoopType;
 import com.fortify.cli.common.util.DateTimePeriodHelper;
 import com.fortify.cli.common.util.DateTimePeriodHelper.Period;
+import com.fortify.cli.common.util.StringUtils;
 
 import kong.unirest.UnirestInstance;
 import lombok.Builder;
@@ -41,22 +43,28 @@ import lombok.Getter;
 @Builder
 public class WaitHelper {
     private static final DateTimePeriodHelper periodHelper = DateTimePeriodHelper.byRange(Period.SECONDS, Period.DAYS);
+    private static final double INTERVAL_BACKOFF_FACTOR = 1.5;
     private final Function<UnirestInstance, Collection<JsonNode>> recordsSupplier;
+    private final Collection<String> recordIds;
+    private final BiFunction<UnirestInstance, String, JsonNode> recordByIdSupplier;
     private final Function<JsonNode, String> currentState;
     private final Function<JsonNode, JsonNode> recordTransformer;
     private final String[] knownStates;
     private final String[] failureStates;
+    private final Set<String> finalStates;
     private final Set<String> matchStates;
     @Builder.Default private final WaitUnknownStateRequestedAction onUnknownStateRequested = WaitUnknownStateRequestedAction.fail;
     @Builder.Default private final WaitUnknownOrFailureStateAction onFailureState = WaitUnknownOrFailureStateAction.fail;
     @Builder.Default private final WaitUnknownOrFailureStateAction onUnknownState = WaitUnknownOrFailureStateAction.fail;
     @Builder.Default private final WaitTimeoutAction onTimeout = WaitTimeoutAction.fail;
     private final String intervalPeriod;
+    private final String maxIntervalPeriod;
     private final String timeoutPeriod;
     private final IWaitHelperProgressMonitor progressMonitor;
     private final Consumer<Map<ObjectNode, WaitStatus>> onFinish; 
     private final WaitType waitType;
     @Getter private final Map<ObjectNode, WaitStatus> result = new LinkedHashMap<>(); 
+    private final Map<String, ObjectNode> recordsById = new LinkedHashMap<>();
     
     public static final ArrayNode plainRecordsAsArrayNode(Map<ObjectNode, WaitStatus> recordsWithWaitStatus) {
         return recordsWithWaitStatus.keySet().stream().collect(JsonHelper.arrayNodeCollector());
@@ -80,22 +88,28 @@ public class WaitHelper {
         if ( result.size()>0 ) {
             throw new RuntimeException("Only one of the public wait methods may be invoked with a non-empty set of states");
         }
-        long intervalMillis = periodHelper.parsePeriodToMillis(intervalPeriod);
+        long minIntervalMillis = periodHelper.parsePeriodToMillis(intervalPeriod);
+        long maxIntervalMillis = StringUtils.isBlank(maxIntervalPeriod) 
+                ? minIntervalMillis 
+                : Math.max(minIntervalMillis, periodHelper.parsePeriodToMillis(maxIntervalPeriod));
+        long intervalMillis = minIntervalMillis;
         OffsetDateTime timeout = periodHelper.getCurrentOffsetDateTimePlusPeriod(timeoutPeriod);
-        Map<ObjectNode, String> recordsWithCurrentState = getRecordsWithCurrentState(unirest);
+        Map<ObjectNode, String> recordsWithCurrentState = getRecordsWithCurrentState(unirest, null);
         Map<ObjectNode, WaitStatus> recordsWithWaitStatus = evaluator.getWaitStatuses(recordsWithCurrentState);
         updateProgress(recordsWithWaitStatus);
         try {
             boolean continueWait = true;
             while ( timeout.isAfter(OffsetDateTime.now()) && (continueWait = continueWait(recordsWithWaitStatus, anyOrAll)) ) {
-                try {
-                    Thread.sleep(intervalMillis);
-                } catch (InterruptedException e) {
-                    throw new RuntimeException("Wait operation interrupted", e);
-                }
-                recordsWithCurrentState = getRecordsWithCurrentState(unirest);
+                sleep(Math.min(intervalMillis, millisUntil(timeout)));
+                var previousStates = new ArrayList<>(recordsWithCurrentState.values());
+                recordsWithCurrentState = getRecordsWithCurrentState(unirest, recordsWithWaitStatus);
                 recordsWithWaitStatus = evaluator.getWaitStatuses(recordsWithCurrentState);
                 updateProgress(recordsWithWaitStatus);
+                // Back off exponentially (up to maxIntervalMillis) while nothing changes, 
+                // and go back to polling at the configured interval on any state change.
+                intervalMillis = previousStates.equals(new ArrayList<>(recordsWithCurrentState.values()))
+                        ? Math.min(maxIntervalMillis, (long)(intervalMillis*INTERVAL_BACKOFF_FACTOR))
+                        : minIntervalMillis;
             }
             if ( continueWait && onTimeout==WaitTimeoutAction.fail ) {
                 recordsWithWaitStatus.replaceAll((k,v)->v!=WaitStatus.WAITING ? v : WaitStatus.TIMEOUT);
@@ -110,6 +124,18 @@ public class WaitHelper {
         }
     }
     
+    private static final void sleep(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Wait operation interrupted", e);
+        }
+    }
+    
+    private static final long millisUntil(OffsetDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli()-System.currentTimeMillis();
+    }
+    
     public <T> T getResult(Function<Map<ObjectNode, WaitStatus>, T> f) {
         return f.apply(result);
     }
@@ -134,7 +160,10 @@ public class WaitHelper {
         }
     }
     
-    private final Map<ObjectNode, String> getRecordsWithCurrentState(UnirestInstance unirest) {
+    private final Map<ObjectNode, String> getRecordsWithCurrentState(UnirestInstance unirest, Map<ObjectNode, WaitStatus> previousWaitStatuses) {
+        if ( recordIds!=null && recordByIdSupplier!=null ) {
+            return getRecordsByIdWithCurrentState(unirest, previousWaitStatuses);
+        }
         if ( recordsSupplier==null ) {
             throw new RuntimeException("No records supplier has been configured");
         }
@@ -148,20 +177,65 @@ public class WaitHelper {
         }
         return nodesWithStatus;
     }
+    
+    /**
+     * Load the records for all configured record id's on the first invocation, and
+     * subsequently only reload records for which the wait status may still change,
+     * as determined by {@link #isRepollRequired(ObjectNode, WaitStatus)}.
+     */
+    private final Map<ObjectNode, String> getRecordsByIdWithCurrentState(UnirestInstance unirest, Map<ObjectNode, WaitStatus> previousWaitStatuses) {
+        Map<ObjectNode, String> nodesWithStatus = new LinkedHashMap<>();
+        for ( String id : recordIds ) {
+            var record = recordsById.get(id);
+            if ( record==null || previousWaitStatuses==null || isRepollRequired(record, previousWaitStatuses.get(record)) ) {
+                record = transformRecord(recordByIdSupplier.apply(unirest, id));
+                recordsById.put(id, record);
+            }
+            nodesWithStatus.put(record, currentState.apply(record));
+        }
+        return nodesWithStatus;
+    }
+    
+    /**
+     * Check whether the given record needs to be reloaded. Records in one of the configured
+     * final states will never change state, so these are not reloaded. Otherwise, records 
+     * are reloaded unless their wait status is final for the configured wait type and 
+     * failure/unknown state actions; for example, records in a failure state may still 
+     * reach one of the requested states if --on-failure-state is set to wait, and any 
+     * record that matched the requested states may stop matching while waiting for all 
+     * other records to match.
+     */
+    private final boolean isRepollRequired(ObjectNode record, WaitStatus previousWaitStatus) {
+        if ( finalStates!=null && finalStates.contains(currentState.apply(record)) ) {
+            return false;
+        }
+        if ( previousWaitStatus==null ) { return true; }
+        switch (previousWaitStatus) {
+        case FAILURE_STATE_DETECTED: return onFailureState==WaitUnknownOrFailureStateAction.wait;
+        case UNKNOWN_STATE_DETECTED: return onUnknownState==WaitUnknownOrFailureStateAction.wait;
+        case WAIT_COMPLETE: return waitType.getAnyOrAll()==AnyOrAll.all_match;
+        case TIMEOUT: return false;
+        default: return true;
+        }
+    }
 
     private void addNodesWithStatus(Map<ObjectNode, String> nodesWithStatus, ArrayNode nodes) {
         nodes.forEach(node->addNodeWithStatus(nodesWithStatus, node));
     }
 
     private final void addNodeWithStatus(Map<ObjectNode, String> nodesWithStatus, JsonNode node) {
+        var record = transformRecord(node);
+        nodesWithStatus.put(record, currentState.apply(record));
+    }
+    
+    private final ObjectNode transformRecord(JsonNode node) {
         if ( recordTransformer!=null ) {
             node = recordTransformer.apply(node);
         }
         if ( !(node instanceof ObjectNode) ) {
             throw new RuntimeException("Cannot process node of type "+node.getClass().getName()+"; please report a bug");
         }
-        String status = currentState.apply(node);
-        nodesWithStatus.put((ObjectNode)node, status);
+        return (ObjectNode)node;
     }
     
     private final void updateProgress(Map<ObjectNode, WaitStatus> recordsWithWaitStatus) {
@@ -257,11 +331,33 @@ public class WaitHelper {
             return recordsSupplier(u->Collections.singletonList(recordSupplier.apply(u)));
         }
         
+        /**
+         * Configure the id's of the records to wait for, together with a function for 
+         * loading a single record by id. As opposed to {@link #recordsSupplier(Function)},
+         * this allows for not re-polling records for which the wait status can no longer 
+         * change, in particular records that are in one of the {@link #finalStates(String...)}.
+         */
+        public WaitHelperBuilder recordsById(Collection<String> recordIds, BiFunction<UnirestInstance, String, JsonNode> recordByIdSupplier) {
+            this.recordIds = recordIds;
+            this.recordByIdSupplier = recordByIdSupplier;
+            return this;
+        }
+        
         public WaitHelperBuilder failureStates(String... failureStates) {
             this.failureStates = failureStates;
             return this;
         }
         
+        /**
+         * Configure the states that records will never leave once reached, like
+         * completed or canceled states, allowing such records to be skipped when 
+         * re-polling records configured through {@link #recordsById(Collection, BiFunction)}.
+         */
+        public WaitHelperBuilder finalStates(String... finalStates) {
+            this.finalStates = finalStates==null ? null : Set.of(finalStates);
+            return this;
+        }
+        
         public WaitHelperBuilder knownStates(String... knownStates) {
             this.knownStates = knownStates;
             return this;
@@ -279,6 +375,7 @@ public class WaitHelper {
          */
         public WaitHelperBuilder controlProperties(IWaitHelperControlProperties controlProperties) {
             return intervalPeriod(controlProperties.getIntervalPeriod())
+                    .maxIntervalPeriod(controlProperties.getMaxIntervalPeriod())
                     .onFailureState(controlProperties.getOnFailureState())
                     .onTimeout(controlProperties.getOnTimeout())
                     .onUnknownState(controlProperties.getOnUnknownState())
@@ -12,10 +12,16 @@
  *******************************************************************************/
 package com.fortify.cli.common.session.cli.mixin;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import com.fortify.cli.common.rest.unirest.GenericUnirestFactory;
 import com.fortify.cli.common.rest.unirest.IUnirestInstanceSupplier;
+import com.fortify.cli.common.rest.unirest.config.UnirestResponseCacheConfigurer;
 import com.fortify.cli.common.session.helper.ISessionDescriptor;
 
+import kong.unirest.HttpRequest;
 import kong.unirest.UnirestInstance;
 
 public abstract class AbstractSessionUnirestInstanceSupplierMixin<D extends ISessionDescriptor> 
@@ -26,9 +32,37 @@ public abstract class AbstractSessionUnirestInstanceSupplierMixin<D extends ISes
     public UnirestInstance getUnirestInstance() {
         D sessionDescriptor = getSessionDescriptor();
         String key = this.getClass().getName()+"/"+getSessionName();
-        return GenericUnirestFactory.getUnirestInstance(key, 
-                u->configure(u, sessionDescriptor));
+        return GenericUnirestFactory.getSessionUnirestInstance(key, u->{
+                configure(u, sessionDescriptor);
+                UnirestResponseCacheConfigurer.configure(u, getResponseCacheScope(key, sessionDescriptor), getCacheableUrlPatterns(), this::isReadOnlyRequest);
+            });
     }
     
     protected abstract void configure(UnirestInstance unirest, D sessionDescriptor);
+    
+    /**
+     * Return the patterns identifying GET requests to lookup-style endpoints that 
+     * may be cached if response caching has been enabled. By default, no requests
+     * are cached.
+     */
+    protected Collection<Pattern> getCacheableUrlPatterns() {
+        return List.of();
+    }
+    
+    /**
+     * Return whether the given non-GET request is known not to modify any 
+     * server-side data, in which case the response cache doesn't need to be
+     * cleared when sending this request. By default, all non-GET requests
+     * are considered to potentially modify data.
+     */
+    protected boolean isReadOnlyRequest(HttpRequest<?> request) {
+        return false;
+    }
+    
+    private static final String getResponseCacheScope(String key, ISessionDescriptor sessionDescriptor) {
+        // Include session creation date, such that cached responses from a previous
+        // login session (potentially for a different user) are never used
+        var createdDate = sessionDescriptor.getCreatedDate();
+        return createdDate==null ? key : key+"/"+createdDate.getTime();
+    }
 }
@@ -42,11 +42,12 @@ public abstract class AbstractSessionHelper<T extends ISessionDescriptor> {
         Path sessionDescriptorPath = getSessionDescriptorPath(sessionName);
         checkSessionExists(sessionName, failIfUnavailable);
         try {
-            String sessionDescriptorJson = FcliDataHelper.readSecuredFile(sessionDescriptorPath, failIfUnavailable);
-            T sessionDescriptor = sessionDescriptorJson==null ? null : objectMapper.readValue(sessionDescriptorJson, getSessionDescriptorType());
+            T sessionDescriptor = SessionDescriptorCache.get(sessionDescriptorPath, getSessionDescriptorType(), 
+                    ()->readSessionDescriptor(sessionDescriptorPath, failIfUnavailable));
             checkNonExpiredSessionAvailable(sessionName, failIfUnavailable, sessionDescriptor);
             return sessionDescriptor;
         } catch ( Exception e ) {
+            SessionDescriptorCache.invalidate(sessionDescriptorPath);
             FcliDataHelper.deleteFile(sessionDescriptorPath, false);
             conditionalThrow(failIfUnavailable, ()->new IllegalStateException("Error reading session descriptor, please try logging in again", e));
             LOG.warn("Error reading session descriptor from {}; session descriptor has been deleted", sessionDescriptorPath);
@@ -54,16 +55,26 @@ public abstract class AbstractSessionHelper<T extends ISessionDescriptor> {
             return null;
         }
     }
+    
+    @SneakyThrows
+    private T readSessionDescriptor(Path sessionDescriptorPath, boolean failIfUnavailable) {
+        String sessionDescriptorJson = FcliDataHelper.readSecuredFile(sessionDescriptorPath, failIfUnavailable);
+        return sessionDescriptorJson==null ? null : objectMapper.readValue(sessionDescriptorJson, getSessionDescriptorType());
+    }
 
     @SneakyThrows // TODO Do we want to use SneakyThrows? 
     public final void save(String sessionName, T sessionDescriptor) {
         String sessionDescriptorJson = objectMapper.writeValueAsString(sessionDescriptor);
-        FcliDataHelper.saveSecuredFile(getSessionDescriptorPath(sessionName), sessionDescriptorJson, true);
+        Path sessionDescriptorPath = getSessionDescriptorPath(sessionName);
+        SessionDescriptorCache.invalidate(sessionDescriptorPath);
+        FcliDataHelper.saveSecuredFile(sessionDescriptorPath, sessionDescriptorJson, true);
     }
     
     @SneakyThrows // TODO Do we want to use SneakyThrows?
     public final void destroy(String sessionName) {
-        FcliDataHelper.deleteFile(getSessionDescriptorPath(sessionName), true);
+        Path sessionDescriptorPath = getSessionDescriptorPath(sessionName);
+        SessionDescriptorCache.invalidate(sessionDescriptorPath);
+        FcliDataHelper.deleteFile(sessionDescriptorPath, true);
     }
     
     public final boolean exists(String sessionName) {
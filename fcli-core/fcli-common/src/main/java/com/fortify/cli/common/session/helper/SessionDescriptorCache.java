@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.session.helper;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process cache of decrypted and deserialized session descriptors, keyed by
+ * session descriptor path. Cached descriptors are only returned if the last 
+ * modified time of the session descriptor file hasn't changed since the 
+ * descriptor was cached, such that changes made by other fcli processes are 
+ * picked up. This avoids having to decrypt and parse session descriptors over
+ * and over again, for example when an action runs many fcli commands.
+ */
+public final class SessionDescriptorCache {
+    private static final Map<Path, CachedSessionDescriptor> cache = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private SessionDescriptorCache() {}
+    
+    /**
+     * Get the cached session descriptor for the given path, or load the session
+     * descriptor using the given loader if there's no (valid) cached descriptor.
+     */
+    static final <T extends ISessionDescriptor> T get(Path path, Class<T> type, Supplier<T> loader) {
+        var lastModified = FcliDataHelper.getLastModifiedTime(path);
+        var cached = cache.get(path);
+        if ( lastModified!=null && cached!=null && lastModified.equals(cached.lastModified) && type.isInstance(cached.descriptor) ) {
+            hits.increment();
+            return type.cast(cached.descriptor);
+        }
+        misses.increment();
+        var result = loader.get();
+        if ( result==null || lastModified==null ) {
+            cache.remove(path);
+        } else {
+            cache.put(path, new CachedSessionDescriptor(lastModified, result));
+        }
+        return result;
+    }
+    
+    static final void invalidate(Path path) {
+        cache.remove(path);
+    }
+    
+    public static final long getHitCount() {
+        return hits.sum();
+    }
+    
+    public static final long getMissCount() {
+        return misses.sum();
+    }
+    
+    public static final String getStatistics() {
+        return String.format("size: %s, hits: %s, misses: %s", cache.size(), getHitCount(), getMissCount());
+    }
+    
+    @RequiredArgsConstructor
+    private static final class CachedSessionDescriptor {
+        private final FileTime lastModified;
+        private final ISessionDescriptor descriptor;
+    }
+}
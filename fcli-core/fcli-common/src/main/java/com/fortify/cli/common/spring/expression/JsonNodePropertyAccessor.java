@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.spring.expression;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypedValue;
+import org.springframework.expression.spel.support.BooleanTypedValue;
+import org.springframework.integration.json.JsonPropertyAccessor;
+import org.springframework.integration.json.JsonPropertyAccessor.JsonNodeWrapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * SpEL {@link PropertyAccessor} for reading properties from Jackson {@link JsonNode}
+ * instances, returning the same values as {@link JsonPropertyAccessor} but optimized
+ * for evaluating expressions over large record sets: object properties are looked up
+ * directly without checking whether the property name represents an array index,
+ * array indexes are parsed without intermediate boxing, and shared {@link TypedValue}
+ * instances are returned for null and boolean values. String targets (JSON documents
+ * to be parsed) are rare and handled by delegating to {@link JsonPropertyAccessor}.
+ *
+ * If requireExistingProperty is true, {@link #canRead(EvaluationContext, Object, String)}
+ * returns false if the target is an {@link ObjectNode} that doesn't contain the given
+ * property, like the accessor previously used for query expressions.
+ */
+public final class JsonNodePropertyAccessor implements PropertyAccessor {
+    private static final Class<?>[] SUPPORTED_CLASSES = { JsonNode.class, JsonNodeWrapper.class, String.class };
+    private final JsonPropertyAccessor stringTargetAccessor = new JsonPropertyAccessor();
+    private final boolean requireExistingProperty;
+
+    public JsonNodePropertyAccessor() {
+        this(false);
+    }
+
+    public JsonNodePropertyAccessor(boolean requireExistingProperty) {
+        this.requireExistingProperty = requireExistingProperty;
+    }
+
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+        return SUPPORTED_CLASSES;
+    }
+
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+        if ( target instanceof String ) {
+            return stringTargetAccessor.canRead(context, target, name);
+        }
+        var node = asJson(target);
+        if ( node.isArray() ) {
+            return parseIndex(name)>=0;
+        }
+        return !requireExistingProperty || !(target instanceof ObjectNode) || node.has(name);
+    }
+
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+        if ( target instanceof String ) {
+            return stringTargetAccessor.read(context, target, name);
+        }
+        var node = asJson(target);
+        if ( node.isArray() ) {
+            var index = parseIndex(name);
+            return index>=0 && index<node.size() ? typedValue(node.get(index)) : TypedValue.NULL;
+        }
+        return typedValue(node.get(name));
+    }
+
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) {
+        return false;
+    }
+
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue) {
+        throw new UnsupportedOperationException("Write is not supported");
+    }
+
+    private static final JsonNode asJson(Object target) {
+        return target instanceof JsonNode
+                ? (JsonNode)target
+                : ((JsonNodeWrapper<?>)target).getRealNode();
+    }
+
+    /**
+     * Parse the given property name as a non-negative int, returning -1 if the
+     * property name is not a valid array index.
+     */
+    private static final int parseIndex(String name) {
+        int length = name.length();
+        if ( length==0 || length>10 ) { return -1; }
+        long result = 0;
+        for ( int i = 0 ; i < length ; i++ ) {
+            int digit = name.charAt(i)-'0';
+            if ( digit<0 || digit>9 ) { return -1; }
+            result = result*10+digit;
+        }
+        return result>Integer.MAX_VALUE ? -1 : (int)result;
+    }
+
+    private static final TypedValue typedValue(JsonNode node) throws AccessException {
+        if ( node==null || node.isNull() ) {
+            return TypedValue.NULL;
+        } else if ( node.isTextual() ) {
+            return new TypedValue(node.textValue());
+        } else if ( node.isBoolean() ) {
+            return BooleanTypedValue.forValue(node.booleanValue());
+        } else if ( node.isNumber() ) {
+            return new TypedValue(node.numberValue());
+        }
+        return new TypedValue(JsonPropertyAccessor.wrap(node));
+    }
+}
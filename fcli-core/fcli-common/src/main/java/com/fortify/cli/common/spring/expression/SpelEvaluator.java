@@ -18,32 +18,29 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.springframework.core.convert.converter.Converter;
-import org.springframework.expression.AccessException;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
 import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.integration.json.JsonNodeWrapperToJsonNodeConverter;
-import org.springframework.integration.json.JsonPropertyAccessor;
 import org.springframework.integration.json.JsonPropertyAccessor.JsonNodeWrapper;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.util.StringUtils;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 public enum SpelEvaluator implements ISpelEvaluator {
     JSON_GENERIC(SpelEvaluator::createJsonGenericContext),
     JSON_QUERY(SpelEvaluator::createJsonQueryContext);
     
-    private static final SpelExpressionParser SPEL_PARSER = new SpelExpressionParser();
     private EvaluationContext context;
     private final Supplier<SimpleEvaluationContext> contextSupplier;
+    @Getter private final SpelExpressionCache expressionCache = new SpelExpressionCache();
     
     private SpelEvaluator(Supplier<SimpleEvaluationContext> contextSupplier) {
         this.context = contextSupplier.get();
@@ -55,7 +52,7 @@ public enum SpelEvaluator implements ISpelEvaluator {
     }
 
     public final <R> R evaluate(String expression, Object input, Class<R> returnClass) {
-        return evaluate(SPEL_PARSER.parseExpression(expression), input, returnClass);
+        return evaluate(expressionCache.get(expression), input, returnClass);
     } 
     
     public final IConfigurableSpelEvaluator copy() {
@@ -65,13 +62,14 @@ public enum SpelEvaluator implements ISpelEvaluator {
     @RequiredArgsConstructor
     private static final class ConfigurableSpelEvaluator implements IConfigurableSpelEvaluator {
         private final SimpleEvaluationContext context;
+        private final SpelExpressionCache expressionCache = new SpelExpressionCache();
         
         public final <R> R evaluate(Expression expression, Object input, Class<R> returnClass) {
             return SpelEvaluator.evaluate(context, expression, input, returnClass);
         }
 
         public final <R> R evaluate(String expression, Object input, Class<R> returnClass) {
-            return evaluate(SPEL_PARSER.parseExpression(expression), input, returnClass);
+            return evaluate(expressionCache.get(expression), input, returnClass);
         }
         
         @Override
@@ -95,7 +93,7 @@ public enum SpelEvaluator implements ISpelEvaluator {
     
     private static final SimpleEvaluationContext createJsonGenericContext() {
         SimpleEvaluationContext context = SimpleEvaluationContext
-            .forPropertyAccessors(new JsonPropertyAccessor())
+            .forPropertyAccessors(new JsonNodePropertyAccessor())
             .withConversionService(createJsonConversionService())
             .withInstanceMethods()
             .build();
@@ -106,7 +104,7 @@ public enum SpelEvaluator implements ISpelEvaluator {
     
     private static final SimpleEvaluationContext createJsonQueryContext() {
         SimpleEvaluationContext context = SimpleEvaluationContext
-            .forPropertyAccessors(new ExistingJsonPropertyAccessor())
+            .forPropertyAccessors(new JsonNodePropertyAccessor(true))
             .withConversionService(createJsonConversionService())
             .withInstanceMethods()
             .build();
@@ -140,15 +138,4 @@ public enum SpelEvaluator implements ISpelEvaluator {
             return JsonHelper.getObjectMapper().valueToTree(source);
         }
     }
-    
-    private static final class ExistingJsonPropertyAccessor extends JsonPropertyAccessor {
-        /**
-        * By default the JsonPropertyAccessor.canRead method always returns true if target is a valid JsonObject
-        * This override exists to ensure we return false in case the target object does not have a property with the provided name
-        */
-        @Override
-        public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
-            return super.canRead(context, target, name) && (!(target instanceof ObjectNode) || ((ObjectNode)target).has(name));
-        }
-    }
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.spring.expression;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.StringUtils;
+
+/**
+ * Bounded, thread-safe cache of parsed SpEL {@link Expression} instances, keyed by
+ * expression string. Least recently used expressions are evicted once the cache
+ * reaches its maximum size. Each {@link SpelEvaluator} has its own cache, such that
+ * expressions compiled to bytecode (if enabled through the FCLI_SPEL_COMPILER_MODE
+ * environment variable) are only ever evaluated against a single evaluation context.
+ */
+public final class SpelExpressionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(SpelExpressionCache.class);
+    public static final String ENVNAME_COMPILER_MODE = "FCLI_SPEL_COMPILER_MODE";
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private final SpelExpressionParser parser;
+    private final Map<String, Expression> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SpelExpressionCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SpelExpressionCache(int maxSize) {
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(getCompilerMode(), SpelExpressionCache.class.getClassLoader()));
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Return the cached {@link Expression} for the given expression string, parsing
+     * and caching the expression if not yet cached. Parse errors are not cached.
+     */
+    public final Expression get(String expression) {
+        synchronized (cache) {
+            var result = cache.get(expression);
+            if ( result!=null ) {
+                hits.increment();
+                return result;
+            }
+        }
+        misses.increment();
+        // Parse outside of synchronized block; if multiple threads parse the same
+        // expression concurrently, we just keep the last one.
+        var result = parser.parseExpression(expression);
+        synchronized (cache) {
+            cache.put(expression, result);
+        }
+        return result;
+    }
+
+    public final long getHitCount() {
+        return hits.sum();
+    }
+
+    public final long getMissCount() {
+        return misses.sum();
+    }
+
+    public final int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size: %s, hits: %s, misses: %s", size(), getHitCount(), getMissCount());
+    }
+
+    /**
+     * Get the SpEL compiler mode from the FCLI_SPEL_COMPILER_MODE environment variable,
+     * defaulting to {@link SpelCompilerMode#OFF} if not set or invalid. Compilation generates bytecode at runtime,
+     * which isn't supported on GraalVM native images, so compilation is always disabled
+     * when running as a native image.
+     */
+    private static final SpelCompilerMode getCompilerMode() {
+        var mode = EnvHelper.env(ENVNAME_COMPILER_MODE);
+        if ( StringUtils.isBlank(mode) || System.getProperty("org.graalvm.nativeimage.imagecode")!=null ) {
+            return SpelCompilerMode.OFF;
+        }
+        try {
+            return SpelCompilerMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch ( IllegalArgumentException e ) {
+            LOG.warn("Ignoring invalid {} value '{}', expected one of {}", ENVNAME_COMPILER_MODE, mode, Arrays.toString(SpelCompilerMode.values()));
+            return SpelCompilerMode.OFF;
+        }
+    }
+}
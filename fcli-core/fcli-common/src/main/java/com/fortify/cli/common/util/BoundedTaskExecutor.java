@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class allows for executing independent tasks on a bounded thread pool.
+ * The {@link #submit(Runnable)} method blocks while maxConcurrency tasks are 
+ * already running, so callers that produce tasks faster than they can be 
+ * executed don't accumulate an unbounded number of pending tasks. If 
+ * maxConcurrency is smaller than 2, tasks are executed on the calling thread.
+ * Tasks are expected to handle any exceptions themselves; if a task does throw
+ * an exception anyway, the first such exception is re-thrown by 
+ * {@link #awaitCompletion()}.
+ */
+public final class BoundedTaskExecutor implements AutoCloseable {
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final Semaphore availableThreads;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    
+    public BoundedTaskExecutor(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.executor = maxConcurrency<2 ? null : Executors.newFixedThreadPool(maxConcurrency);
+        this.availableThreads = new Semaphore(this.maxConcurrency);
+    }
+    
+    /**
+     * Submit the given task, waiting for a thread to become available if
+     * maxConcurrency tasks are already running.
+     */
+    @SneakyThrows
+    public final void submit(Runnable task) {
+        if ( executor==null ) {
+            task.run();
+        } else {
+            availableThreads.acquire();
+            try {
+                executor.execute(()->run(task));
+            } catch ( RuntimeException e ) {
+                availableThreads.release();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Wait for all submitted tasks to complete. This instance can still
+     * be used to submit new tasks after this method returns.
+     */
+    @SneakyThrows
+    public final void awaitCompletion() {
+        if ( executor!=null ) {
+            availableThreads.acquire(maxConcurrency);
+            availableThreads.release(maxConcurrency);
+        }
+        var e = failure.getAndSet(null);
+        if ( e!=null ) { throw e; }
+    }
+    
+    /**
+     * Wait for all submitted tasks to complete, and shut down the
+     * underlying thread pool.
+     */
+    @Override @SneakyThrows
+    public final void close() {
+        if ( executor!=null ) {
+            try {
+                awaitCompletion();
+            } finally {
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private final void run(Runnable task) {
+        try {
+            task.run();
+        } catch ( RuntimeException e ) {
+            failure.compareAndSet(null, e);
+        } finally {
+            availableThreads.release();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class provides utility methods for executing independent tasks on a
+ * bounded thread pool, while allowing callers to process the results in a
+ * deterministic order.
+ */
+public final class ConcurrencyHelper {
+    private ConcurrencyHelper() {}
+    
+    /**
+     * Apply the given function to each of the given inputs, using at most 
+     * maxConcurrency threads, and return the results in the same order as
+     * the given inputs. If maxConcurrency is smaller than 2 or there's only
+     * a single input, the function is applied sequentially on the current
+     * thread. If any invocation throws an exception, outstanding invocations
+     * are cancelled and the exception is re-thrown on the calling thread.
+     */
+    public static final <T,R> List<R> mapConcurrently(List<T> inputs, int maxConcurrency, Function<T,R> function) {
+        if ( maxConcurrency<2 || inputs.size()<2 ) {
+            return inputs.stream().map(function).collect(Collectors.toList());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, inputs.size()));
+        try {
+            List<Future<R>> futures = inputs.stream()
+                    .map(input->executor.submit(()->function.apply(input)))
+                    .collect(Collectors.toList());
+            List<R> result = new ArrayList<>(futures.size());
+            for ( var future : futures ) {
+                result.add(getResult(future));
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Get the result of the given {@link Future}, re-throwing the original
+     * exception rather than an {@link ExecutionException} if the task failed.
+     */
+    @SneakyThrows
+    public static final <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch ( ExecutionException e ) {
+            throw e.getCause();
+        }
+    }
+}
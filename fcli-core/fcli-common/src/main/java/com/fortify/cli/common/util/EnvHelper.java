@@ -14,7 +14,11 @@ package com.fortify.cli.common.util;
 
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public final class EnvHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(EnvHelper.class);
     private static final String PFX = "FCLI";
     private EnvHelper() {}
     
@@ -73,6 +77,24 @@ public final class EnvHelper {
         return System.getProperty(envSystemPropertyName(name), System.getenv(name));
     }
 
+    /**
+     * Get the integer value of the environment variable with the given name,
+     * returning the given default value if the environment variable is not set.
+     * Invalid values are logged as a warning and also result in the default 
+     * value being returned, as a malformed tuning variable shouldn't cause 
+     * every command that uses it to fail.
+     */
+    public static final int envAsInteger(String name, int defaultValue) {
+        var value = env(name);
+        if ( StringUtils.isBlank(value) ) { return defaultValue; }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch ( NumberFormatException e ) {
+            LOG.warn("Ignoring invalid {} value '{}', expected an integer; using default value {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
     public static String envSystemPropertyName(String envName) {
         return "fcli.env."+envName;
     }
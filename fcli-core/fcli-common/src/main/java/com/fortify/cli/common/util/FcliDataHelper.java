@@ -16,11 +16,14 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Comparator;
 import java.util.stream.Stream;
@@ -92,12 +95,21 @@ public class FcliDataHelper {
     }
     
     
+    /**
+     * Read and decrypt the given secured file. Files encrypted by older fcli versions
+     * are transparently re-encrypted in the current format, unless the legacy format
+     * has been enabled as described in {@link EncryptionHelper#isReEncryptionRequired(String)}.
+     */
     @SuppressWarnings("unchecked")
     public static final <T> T readSecuredFile(Path relativePath, Class<T> returnType, boolean failOnError) {
-        String contents = EncryptionHelper.decrypt(readFile(relativePath, failOnError));
+        String encryptedContents = readFile(relativePath, failOnError);
+        String contents = EncryptionHelper.decrypt(encryptedContents);
+        if ( contents!=null && EncryptionHelper.isReEncryptionRequired(encryptedContents) ) {
+            saveFile(relativePath, EncryptionHelper.encrypt(contents), false);
+        }
         return String.class.isAssignableFrom(returnType) 
                 ? (T)contents 
-                : JsonHelper.jsonStringToValue(readSecuredFile(relativePath, failOnError), returnType);
+                : JsonHelper.jsonStringToValue(contents, returnType);
     }
     
     public static final void saveFile(Path relativePath, Object contents, boolean failOnError) {
@@ -126,14 +138,7 @@ public class FcliDataHelper {
     private static void writeFileWithOwnerOnlyPermissions(final Path filePath, final String contents, boolean failOnError) {
         try (var fos = new FileOutputStream(filePath.toString()); var osw = new OutputStreamWriter(fos, "UTF-8"); BufferedWriter  writer = new BufferedWriter(osw); ){
             writer.write("");
-            if ( FileSystems.getDefault().supportedFileAttributeViews().contains("posix") ) {
-                Files.setPosixFilePermissions(filePath, PosixFilePermissions.fromString("rw-------"));
-            } else {
-                File file = filePath.toFile();
-                file.setExecutable(false, false);
-                file.setReadable(true, true);
-                file.setWritable(true, true);
-            }
+            setOwnerOnlyPermissions(filePath);
            writer.write(contents);
            writer.close();
         } catch ( IOException e ) {
@@ -141,6 +146,39 @@ public class FcliDataHelper {
         }
     }
     
+    /**
+     * Create (or truncate) the given file, restrict its permissions to the current 
+     * user, and return an {@link OutputStream} for writing the file contents. Parent
+     * directories are created if they don't exist yet.
+     */
+    public static final OutputStream newOutputStream(Path relativePath) throws IOException {
+        final Path filePath = resolveFcliHomePath(relativePath);
+        Files.createDirectories(filePath.getParent());
+        var os = new FileOutputStream(filePath.toString());
+        try {
+            setOwnerOnlyPermissions(filePath);
+        } catch ( IOException | RuntimeException e ) {
+            os.close();
+            throw e;
+        }
+        return os;
+    }
+    
+    public static final InputStream newInputStream(Path relativePath) throws IOException {
+        return Files.newInputStream(resolveFcliHomePath(relativePath));
+    }
+    
+    private static final void setOwnerOnlyPermissions(final Path filePath) throws IOException {
+        if ( FileSystems.getDefault().supportedFileAttributeViews().contains("posix") ) {
+            Files.setPosixFilePermissions(filePath, PosixFilePermissions.fromString("rw-------"));
+        } else {
+            File file = filePath.toFile();
+            file.setExecutable(false, false);
+            file.setReadable(true, true);
+            file.setWritable(true, true);
+        }
+    }
+    
     public static final String readFile(Path relativePath, boolean failOnError) {
         return readFile(relativePath, String.class, failOnError);
     }
@@ -210,6 +248,19 @@ public class FcliDataHelper {
         return Files.exists(filePath);
     }
     
+    /**
+     * Get the last modified time of the given file, or null if the file
+     * doesn't exist or its last modified time cannot be determined.
+     */
+    public static final FileTime getLastModifiedTime(Path relativePath) {
+        final Path filePath = resolveFcliHomePath(relativePath);
+        try {
+            return Files.getLastModifiedTime(filePath);
+        } catch ( IOException e ) {
+            return null;
+        }
+    }
+    
     public static Path resolveFcliHomePath(Path relativePath) {
         if ( relativePath.isAbsolute() && !relativePath.toAbsolutePath().startsWith(getFcliHomePath()) ) {
             throw new IllegalArgumentException(String.format("Path %s is not within fcli home directory", relativePath));
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.variable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+import com.fortify.cli.common.variable.FcliVariableHelper.VariableDescriptor;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process cache of loaded fcli variables, keyed by variable name. Cached variables
+ * are only returned if the last modified time and size of the variable contents file 
+ * haven't changed since the variable was cached, such that changes made by other fcli processes
+ * are picked up. Each cached variable also keeps an index of already resolved property
+ * paths, such that repeated references to the same variable property (for example
+ * from nested fcli commands in an action) don't need to re-read, decrypt and parse
+ * the variable contents, nor re-evaluate the property path.
+ */
+public final class FcliVariableCache {
+    private static final Map<String, CachedVariable> cache = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private FcliVariableCache() {}
+
+    /**
+     * Get the cached variable for the given variable name, or load the variable
+     * using the given loader if there's no (valid) cached variable.
+     */
+    static final CachedVariable get(String variableName, Path contentsPath, Supplier<CachedVariable> loader) {
+        var lastModified = FcliDataHelper.getLastModifiedTime(contentsPath);
+        var size = getSize(contentsPath);
+        var cached = cache.get(variableName);
+        if ( lastModified!=null && cached!=null && lastModified.equals(cached.lastModified) && size==cached.size ) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        var result = loader.get();
+        if ( result==null || lastModified==null ) {
+            cache.remove(variableName);
+        } else {
+            result.lastModified = lastModified;
+            result.size = size;
+            cache.put(variableName, result);
+        }
+        return result;
+    }
+    
+    /**
+     * Get the size of the given file, or -1 if the size cannot be determined. Together 
+     * with the last modified time, this allows for detecting most modifications that 
+     * happen within the file system timestamp granularity.
+     */
+    private static final long getSize(Path path) {
+        try {
+            return Files.size(FcliDataHelper.resolveFcliHomePath(path));
+        } catch ( IOException e ) {
+            return -1;
+        }
+    }
+
+    static final void invalidate(String variableName) {
+        cache.remove(variableName);
+    }
+
+    public static final long getHitCount() {
+        return hits.sum();
+    }
+
+    public static final long getMissCount() {
+        return misses.sum();
+    }
+
+    public static final String getStatistics() {
+        return String.format("size: %s, hits: %s, misses: %s", cache.size(), getHitCount(), getMissCount());
+    }
+
+    @RequiredArgsConstructor
+    static final class CachedVariable {
+        @Getter private final VariableDescriptor descriptor;
+        @Getter private final JsonNode contents;
+        private final Map<String, String> propertyPathIndex = new ConcurrentHashMap<>();
+        private volatile FileTime lastModified;
+        private volatile long size;
+
+        /**
+         * Resolve the given property path against the variable contents, returning
+         * the previously resolved value if this property path was resolved before.
+         */
+        final String resolve(String propertyPath) {
+            return contents==null ? null : propertyPathIndex.computeIfAbsent(propertyPath,
+                    p->JsonHelper.evaluateSpelExpression(contents, p, String.class));
+        }
+    }
+}
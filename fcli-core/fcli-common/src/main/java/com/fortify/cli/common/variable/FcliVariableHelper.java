@@ -12,26 +12,37 @@
  *******************************************************************************/
 package com.fortify.cli.common.variable;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.crypto.helper.EncryptionHelper;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.json.JsonNodeHolder;
 import com.fortify.cli.common.util.FcliDataHelper;
 import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.common.variable.FcliVariableCache.CachedVariable;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -42,7 +53,10 @@ import lombok.SneakyThrows;
 
 // TODO This class could probably use some cleanup
 public final class FcliVariableHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(FcliVariableHelper.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper smileObjectMapper = new ObjectMapper(new SmileFactory());
+    private static final long SMILE_MIN_CONTENTS_SIZE = 1024*1024;
     private static final Pattern variableNamePattern = Pattern.compile("^[a-zA-Z0-9_]+$");
     private static final Pattern variableReferencePattern = Pattern.compile("^(-{1,2}[\\-_a-zA-Z0-9]{1,}=){0,1}::([a-zA-Z0-9_]+)::(.*)$");
     private FcliVariableHelper() {}
@@ -79,19 +93,30 @@ public final class FcliVariableHelper {
         }
     }
     
-    @SneakyThrows // TODO Do we want to use SneakyThrows?
+    /**
+     * Get the contents of the given variable. As variable contents are cached within the
+     * current process, this method returns a copy of the cached contents, such that callers 
+     * can't accidentally modify the cached contents.
+     */
     public static final JsonNode getVariableContents(String variableName, boolean failIfUnavailable) {
+        CachedVariable variable = getVariable(variableName, failIfUnavailable);
+        if ( variable==null ) { return null; }
+        updateAccessed(variable.getDescriptor());
+        var contents = variable.getContents();
+        return contents==null ? null : contents.deepCopy();
+    }
+    
+    private static final CachedVariable getVariable(String variableName, boolean failIfUnavailable) {
+        return FcliVariableCache.get(variableName, getVariableContentsRelativePath(variableName), 
+                ()->loadVariable(variableName, failIfUnavailable));
+    }
+    
+    private static final CachedVariable loadVariable(String variableName, boolean failIfUnavailable) {
         VariableDescriptor descriptor = getVariableDescriptor(variableName, failIfUnavailable);
         if ( descriptor==null ) { return null; }
-        descriptor.setAccessed(new Date());
         Path variablePath = getVariableContentsPathIfExists(variableName, failIfUnavailable);
         try {
-            String variableContents = FcliDataHelper.readFile(variablePath, failIfUnavailable);
-            if ( descriptor.encrypted ) {
-                variableContents = EncryptionHelper.decrypt(variableContents);
-            }
-            saveVariableDescriptor(descriptor);
-            return variableContents==null ? null : objectMapper.readValue(variableContents, JsonNode.class);
+            return new CachedVariable(descriptor, readVariableContents(descriptor, variablePath, failIfUnavailable));
         } catch ( Exception e ) {
             FcliDataHelper.deleteDir(variablePath.getParent(), true);
             conditionalThrow(failIfUnavailable, ()->new IllegalStateException("Error reading variable descriptor or contents, data has been deleted", e));
@@ -100,9 +125,63 @@ public final class FcliVariableHelper {
         }
     }
     
+    /**
+     * Read the variable contents from the given path. Contents are parsed directly from
+     * the (decrypting) contents file input stream, and for large unencrypted variables, 
+     * the parsed contents are
+     * additionally stored in Smile (binary JSON) format. As long as the Smile file is 
+     * not older than the contents file, subsequent reads will parse the Smile file, which
+     * is significantly faster than parsing JSON text.
+     */
+    private static final JsonNode readVariableContents(VariableDescriptor descriptor, Path variablePath, boolean failIfUnavailable) throws IOException {
+        if ( !FcliDataHelper.isReadable(variablePath) ) { return null; }
+        if ( descriptor.encrypted ) {
+            try ( var is = EncryptionHelper.decryptingInputStream(FcliDataHelper.newInputStream(variablePath)) ) {
+                return objectMapper.readValue(is, JsonNode.class);
+            }
+        }
+        Path smilePath = getVariableSmileContentsRelativePath(descriptor.getName());
+        if ( isUpToDate(smilePath, variablePath) ) {
+            try ( var is = FcliDataHelper.newInputStream(smilePath) ) {
+                return smileObjectMapper.readValue(is, JsonNode.class);
+            } catch ( IOException e ) {
+                LOG.debug("Error reading "+smilePath+", falling back to "+variablePath, e);
+            }
+        }
+        JsonNode contents;
+        try ( var is = FcliDataHelper.newInputStream(variablePath) ) {
+            contents = objectMapper.readValue(is, JsonNode.class);
+        }
+        if ( Files.size(FcliDataHelper.resolveFcliHomePath(variablePath))>=SMILE_MIN_CONTENTS_SIZE ) {
+            saveSmileContents(smilePath, contents);
+        }
+        return contents;
+    }
+    
+    private static final boolean isUpToDate(Path smilePath, Path variablePath) {
+        var smileLastModified = FcliDataHelper.getLastModifiedTime(smilePath);
+        var variableLastModified = FcliDataHelper.getLastModifiedTime(variablePath);
+        return smileLastModified!=null && variableLastModified!=null && smileLastModified.compareTo(variableLastModified)>=0;
+    }
+    
+    private static final void saveSmileContents(Path smilePath, JsonNode contents) {
+        try ( var os = FcliDataHelper.newOutputStream(smilePath) ) {
+            smileObjectMapper.writeValue(os, contents);
+        } catch ( IOException e ) {
+            LOG.debug("Error writing "+smilePath, e);
+            FcliDataHelper.deleteFile(smilePath, false);
+        }
+    }
+    
+    private static final void updateAccessed(VariableDescriptor descriptor) {
+        descriptor.setAccessed(new Date());
+        saveVariableDescriptor(descriptor);
+    }
+    
     public static final VariableDescriptor save(String variableName, String defaultPropertyName, JsonNode variableContents, boolean singular, boolean encrypt) {
         checkVariableName(variableName);
         VariableDescriptor descriptor = createVariableDescriptor(variableName, defaultPropertyName, singular, encrypt);
+        invalidate(variableName);
         saveVariableContents(descriptor, variableContents);
         return saveVariableDescriptor(descriptor);
     }
@@ -111,22 +190,37 @@ public final class FcliVariableHelper {
     public static final Writer getVariableContentsWriter(String variableName, String defaultPropertyName, boolean singular, boolean encrypt) {
         checkVariableName(variableName);
         VariableDescriptor descriptor = createVariableDescriptor(variableName, defaultPropertyName, singular, encrypt);
+        invalidate(variableName);
         saveVariableDescriptor(descriptor);
-        VariableContentsWriter vcw = new VariableContentsWriter(getVariableContentsAbsolutePath(variableName).toString());
-        return encrypt ? new EncryptionHelper.EncryptWriter(vcw) : vcw;
+        return encrypt 
+                ? new OutputStreamWriter(EncryptionHelper.encryptingOutputStream(FcliDataHelper.newOutputStream(getVariableContentsRelativePath(variableName))), StandardCharsets.UTF_8)
+                : new VariableContentsWriter(getVariableContentsAbsolutePath(variableName).toString());
     }
     
+    /**
+     * Resolve all variable references in the given arguments. Each referenced variable
+     * is loaded only once, and the accessed date for each referenced variable is updated
+     * only once after all arguments have been resolved.
+     */
     public static final String[] resolveVariables(String[] args) {
-        return Stream.of(args).map(FcliVariableHelper::resolveVariable).toArray(String[]::new);
+        Map<String, VariableDescriptor> accessedVariables = new LinkedHashMap<>();
+        String[] result = Stream.of(args).map(arg->resolveVariable(arg, accessedVariables)).toArray(String[]::new);
+        accessedVariables.values().forEach(FcliVariableHelper::updateAccessed);
+        return result;
     }
     
     public static final String resolveVariable(String arg) {
+        return resolveVariables(new String[] {arg})[0];
+    }
+    
+    private static final String resolveVariable(String arg, Map<String, VariableDescriptor> accessedVariables) {
         Matcher matcher = variableReferencePattern.matcher(arg);
         if (matcher.matches()) {
             String variableName = matcher.group(2);
-            String propertyPath = getVariablePropertyPathOrDefault(variableName, matcher.group(3));
-            JsonNode contents = getVariableContents(variableName, true);
-            String value = JsonHelper.evaluateSpelExpression(contents, propertyPath, String.class);
+            CachedVariable variable = getVariable(variableName, true);
+            String propertyPath = getVariablePropertyPathOrDefault(variable.getDescriptor(), matcher.group(3));
+            String value = variable.resolve(propertyPath);
+            accessedVariables.put(variableName, variable.getDescriptor());
             if ( value==null ) {
                 throw new IllegalArgumentException(String.format("Property path '%s' for variable '%s' resolves to null", propertyPath, variableName));
             }
@@ -135,9 +229,10 @@ public final class FcliVariableHelper {
         return arg;
     }
     
-    private static final String getVariablePropertyPathOrDefault(String variableName, String propertyPath) {
+    private static final String getVariablePropertyPathOrDefault(VariableDescriptor descriptor, String propertyPath) {
+        String variableName = descriptor.getName();
         if ( StringUtils.isNotBlank(propertyPath) ) { return propertyPath; }
-        String defaultPropertyName = getVariableDescriptor(variableName, true).getDefaultPropertyName();
+        String defaultPropertyName = descriptor.getDefaultPropertyName();
         if ( StringUtils.isNotBlank(defaultPropertyName) ) { return defaultPropertyName; }
         throw new IllegalArgumentException("No property name specified for variable "+variableName+", and no default property name available");
     }
@@ -169,16 +264,20 @@ public final class FcliVariableHelper {
     
     @SneakyThrows // TODO Do we want to use SneakyThrows?
     private static void saveVariableContents(VariableDescriptor descriptor, JsonNode variableContents) {
-        String variableContentsString = objectMapper.writeValueAsString(variableContents);
+        Path variableContentsPath = getVariableContentsRelativePath(descriptor.getName());
         if ( descriptor.encrypted ) {
-            variableContentsString = EncryptionHelper.encrypt(variableContentsString);
+            try ( var os = EncryptionHelper.encryptingOutputStream(FcliDataHelper.newOutputStream(variableContentsPath)) ) {
+                objectMapper.writeValue(os, variableContents);
+            }
+        } else {
+            FcliDataHelper.saveFile(variableContentsPath, objectMapper.writeValueAsString(variableContents), true);
         }
-        FcliDataHelper.saveFile(getVariableContentsRelativePath(descriptor.getName()), variableContentsString, true);
     }
 
     @SneakyThrows // TODO Do we want to use SneakyThrows?
     public static final void delete(String variableName) {
         Path variableDirPath = getVariablePathIfExists(variableName, getVariablePath(variableName), false);
+        invalidate(variableName);
         if ( variableDirPath!=null ) {
             FcliDataHelper.deleteDir(variableDirPath, true);
         }
@@ -248,6 +347,19 @@ public final class FcliVariableHelper {
         return getVariablePath(variableName).resolve("contents.json");
     }
     
+    private static final Path getVariableSmileContentsRelativePath(String variableName) {
+        return getVariablePath(variableName).resolve("contents.smile");
+    }
+    
+    /**
+     * Remove the given variable from the in-process cache, and delete the Smile contents
+     * file, before the variable contents are being (re-)written.
+     */
+    private static final void invalidate(String variableName) {
+        FcliVariableCache.invalidate(variableName);
+        FcliDataHelper.deleteFile(getVariableSmileContentsRelativePath(variableName), false);
+    }
+    
     private static final Path getVariableContentsAbsolutePath(String variableName) {
         return FcliDataHelper.getFcliHomePath().resolve(getVariableContentsRelativePath(variableName));
     }
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.action.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fortify.cli.common.action.model.Action;
+import com.fortify.cli.common.action.model.Action.ActionMetadata;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.json.JsonHelper.JsonNodeDeepCopyWalker;
+import com.fortify.cli.common.progress.helper.ProgressWriterI18n;
+import com.fortify.cli.common.progress.helper.ProgressWriterType;
+
+public class ActionRunnerTest {
+    private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    private static final ObjectMapper yamlObjectMapper = new ObjectMapper(new YAMLFactory());
+    private static final String ISSUES_ACTION = """
+            author: Test
+            usage:
+              header: Test action
+              description: Test action
+            steps:
+              - forEach:
+                  values: ${#issues}
+                  name: issue
+                  do:
+                    - append:
+                      - name: ruleCategories
+                        property: ${issue.primaryRuleGuid}
+                        value: ${issue.issueName}
+                      - name: results
+                        valueTemplate: results
+            valueTemplates:
+              - name: results
+                contents:
+                  ruleId: ${issue.primaryRuleGuid}
+                  message:
+                    text: ${issue.issueName} in ${issue.fullFileName}
+                  level: "${issue.friority=='Critical' ? 'warning' : 'note'}"
+                  partialFingerprints:
+                    issueInstanceId: ${issue.issueInstanceId}
+                  properties: ${issue.details}
+                  locations:
+                    - physicalLocation:
+                        artifactLocation:
+                          uri: ${issue.fullFileName}
+                        region:
+                          startLine: ${issue.lineNumber}
+            """;
+
+    @Test
+    public void testAppendDoesNotModifySharedValues() throws Exception {
+        var globalData = run("""
+                author: Test
+                usage:
+                  header: Test action
+                  description: Test action
+                steps:
+                  - append:
+                    - name: list
+                      value: a
+                    - name: obj
+                      property: a
+                      value: ${1}
+                  - set:
+                    - name: listCopy
+                      value: ${list}
+                    - name: objCopy
+                      value: ${obj}
+                    - name: nested
+                      valueTemplate: nested
+                  - append:
+                    - name: list
+                      value: b
+                    - name: obj
+                      property: b
+                      value: ${2}
+                    - name: listCopy
+                      value: c
+                  - append:
+                    - name: list
+                      value: d
+                valueTemplates:
+                  - name: nested
+                    contents:
+                      list: ${list}
+                      values: [ "${obj.a}", 3 ]
+                """, null);
+        assertEquals(objectMapper.readTree("[\"a\",\"b\",\"d\"]"), globalData.get("list"));
+        assertEquals(objectMapper.readTree("[\"a\",\"c\"]"), globalData.get("listCopy"));
+        assertEquals(objectMapper.readTree("{\"a\":1,\"b\":2}"), globalData.get("obj"));
+        assertEquals(objectMapper.readTree("{\"a\":1}"), globalData.get("objCopy"));
+        assertEquals(objectMapper.readTree("{\"list\":[\"a\"],\"values\":[1,3]}"), globalData.get("nested"));
+    }
+
+    @Test
+    public void testValueTemplate() throws Exception {
+        var issues = createIssues(2);
+        var globalData = run(ISSUES_ACTION, issues);
+        var results = globalData.get("results");
+        assertEquals(2, results.size());
+        var result = results.get(1);
+        assertEquals("rule-1", result.get("ruleId").asText());
+        assertEquals("Issue 1 in src/File1.java", result.get("message").get("text").asText());
+        assertEquals("warning", result.get("level").asText());
+        assertEquals(issues.get(1).get("details"), result.get("properties"));
+        assertEquals(1, result.get("locations").get(0).get("physicalLocation").get("region").get("startLine").asInt());
+        assertEquals("Issue 0", globalData.get("ruleCategories").get("rule-0").asText());
+    }
+
+    /**
+     * Simple benchmark reporting the memory allocated while running an action that generates
+     * SARIF-like results for 50k issues, compared to the memory allocated by the deep copies
+     * that were previously made for every issue; run with -Dfcli.benchmark=true to enable.
+     */
+    @Test @EnabledIfSystemProperty(named = "fcli.benchmark", matches = "true")
+    public void benchmark() throws Exception {
+        var issues = createIssues(50000);
+        var action = loadAction(ISSUES_ACTION);
+        var templateContents = action.getValueTemplatesByName().get("results").getContents();
+        for ( int round = 0 ; round < 5 ; round++ ) {
+            var start = System.nanoTime();
+            var allocated = getAllocatedBytes();
+            run(action, issues);
+            var actionAllocated = getAllocatedBytes()-allocated;
+            var actionMillis = (System.nanoTime()-start)/1000000;
+            allocated = getAllocatedBytes();
+            for ( var issue : issues ) {
+                objectMapper.valueToTree(issue.get("details"));
+                objectMapper.valueToTree(issue.get("issueName"));
+                new JsonNodeDeepCopyWalker().walk(templateContents);
+            }
+            var copyAllocated = getAllocatedBytes()-allocated;
+            System.out.println(String.format("Round %d: action run %dms, %dMB allocated; previous per-issue deep copies %dMB allocated",
+                round, actionMillis, actionAllocated/(1024*1024), copyAllocated/(1024*1024)));
+        }
+    }
+
+    private static final ObjectNode run(String actionYaml, ArrayNode issues) throws Exception {
+        return run(loadAction(actionYaml), issues);
+    }
+
+    private static final ObjectNode run(Action action, ArrayNode issues) throws Exception {
+        try ( var runner = ActionRunner.builder()
+                .action(action)
+                .progressWriter(new ProgressWriterI18n(ProgressWriterType.none, null))
+                .build() )
+        {
+            runner.getSpelEvaluator().configure(context->context.setVariable("issues", issues));
+            runner.run(new String[] {}).call();
+            return runner.getGlobalData();
+        }
+    }
+
+    private static final Action loadAction(String actionYaml) throws Exception {
+        var action = yamlObjectMapper.readValue(actionYaml, Action.class);
+        action.postLoad(ActionMetadata.create(true));
+        return action;
+    }
+
+    private static final ArrayNode createIssues(int count) {
+        var result = objectMapper.createArrayNode();
+        for ( int i = 0 ; i < count ; i++ ) {
+            var issue = result.addObject()
+                .put("id", i)
+                .put("issueInstanceId", "instance-"+i)
+                .put("primaryRuleGuid", "rule-"+i%100)
+                .put("issueName", "Issue "+i%100)
+                .put("fullFileName", "src/File"+i%1000+".java")
+                .put("lineNumber", i%500)
+                .put("friority", i%2==0 ? "High" : "Critical");
+            issue.putObject("details")
+                .put("brief", "Brief description for issue "+i)
+                .putArray("tags").add("tag"+i%3).add("tag"+i%5);
+        }
+        return result;
+    }
+
+    private static final long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
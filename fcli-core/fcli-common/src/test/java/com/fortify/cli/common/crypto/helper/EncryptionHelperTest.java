@@ -0,0 +1,113 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.crypto.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
+import org.jasypt.iv.RandomIvGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.StringUtils;
+
+public class EncryptionHelperTest {
+    // Value generated with the legacy Jasypt-based encryption and default encryption key 
+    private static final String LEGACY_ENCRYPTED = "/mmb8rs4wdssCCwzwtGJFeG/zVKbhkOA69nGUjGYFW/2ha2KHu/HXBGsjr7vFXN/";
+    private static final String LEGACY_FORMAT_PROPERTY = EnvHelper.envSystemPropertyName(EncryptionHelper.ENVNAME_LEGACY_FORMAT);
+    
+    @AfterEach
+    public void clearLegacyFormat() {
+        System.clearProperty(LEGACY_FORMAT_PROPERTY);
+    }
+    
+    @Test
+    public void testStringRoundTrip() throws Exception {
+        var encrypted1 = EncryptionHelper.encrypt("some secret");
+        var encrypted2 = EncryptionHelper.encrypt("some secret");
+        assertFalse(EncryptionHelper.isLegacyFormat(encrypted1));
+        assertNotEquals(encrypted1, encrypted2); // Random IV
+        assertEquals("some secret", EncryptionHelper.decrypt(encrypted1));
+        assertEquals("some secret", EncryptionHelper.decrypt(encrypted2));
+    }
+    
+    @Test
+    public void testModifiedStringRejected() throws Exception {
+        var encrypted = EncryptionHelper.encrypt("some secret");
+        var modified = encrypted.substring(0, encrypted.length()-2)+(encrypted.endsWith("AA") ? "BA" : "AA");
+        assertThrows(Exception.class, ()->EncryptionHelper.decrypt(modified));
+    }
+    
+    @Test
+    public void testStreamRoundTrip() throws Exception {
+        var bos = new ByteArrayOutputStream();
+        try ( var os = EncryptionHelper.encryptingOutputStream(bos) ) {
+            os.write("some secret".getBytes(StandardCharsets.UTF_8));
+        }
+        try ( var is = EncryptionHelper.decryptingInputStream(new ByteArrayInputStream(bos.toByteArray())) ) {
+            assertEquals("some secret", new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Test
+    public void testDecryptExistingLegacyValue() throws Exception {
+        assumeDefaultEncryptKey();
+        assertTrue(EncryptionHelper.isLegacyFormat(LEGACY_ENCRYPTED));
+        assertEquals("legacy secret", EncryptionHelper.decrypt(LEGACY_ENCRYPTED));
+        try ( var is = EncryptionHelper.decryptingInputStream(new ByteArrayInputStream(LEGACY_ENCRYPTED.getBytes(StandardCharsets.UTF_8))) ) {
+            assertEquals("legacy secret", new String(is.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+    
+    @Test
+    public void testDecryptJasyptValue() throws Exception {
+        assumeDefaultEncryptKey();
+        var encryptor = new StandardPBEStringEncryptor();
+        encryptor.setAlgorithm("PBEWithHMACSHA512AndAES_256");
+        encryptor.setIvGenerator(new RandomIvGenerator());
+        encryptor.setPassword("ds$%YTjdwaf#$47672dfdsGVFDa");
+        assertEquals("some secret", EncryptionHelper.decrypt(encryptor.encrypt("some secret")));
+    }
+    
+    @Test
+    public void testLegacyFormatEnabled() throws Exception {
+        System.setProperty(LEGACY_FORMAT_PROPERTY, "true");
+        var encrypted = EncryptionHelper.encrypt("some secret");
+        assertTrue(EncryptionHelper.isLegacyFormat(encrypted));
+        assertFalse(EncryptionHelper.isReEncryptionRequired(encrypted));
+        assertEquals("some secret", EncryptionHelper.decrypt(encrypted));
+        var bos = new ByteArrayOutputStream();
+        try ( var os = EncryptionHelper.encryptingOutputStream(bos) ) {
+            os.write("some secret".getBytes(StandardCharsets.UTF_8));
+        }
+        var encryptedStream = bos.toString(StandardCharsets.UTF_8);
+        assertTrue(EncryptionHelper.isLegacyFormat(encryptedStream));
+        assertEquals("some secret", EncryptionHelper.decrypt(encryptedStream));
+        System.clearProperty(LEGACY_FORMAT_PROPERTY);
+        assertTrue(EncryptionHelper.isReEncryptionRequired(encrypted));
+    }
+    
+    private static final void assumeDefaultEncryptKey() {
+        Assumptions.assumeTrue(StringUtils.isBlank(EnvHelper.env("FCLI_ENCRYPT_KEY")), "Custom FCLI_ENCRYPT_KEY configured");
+    }
+}
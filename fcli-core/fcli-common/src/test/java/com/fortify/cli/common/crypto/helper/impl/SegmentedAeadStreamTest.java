@@ -0,0 +1,76 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.crypto.helper.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SegmentedAeadStreamTest {
+    private static final SecretKey KEY = new SecretKeySpec(new byte[32], "AES");
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, SegmentedAeadOutputStream.SEGMENT_SIZE, SegmentedAeadOutputStream.SEGMENT_SIZE+1, 300000})
+    public void testRoundTrip(int size) throws Exception {
+        var data = createData(size);
+        assertArrayEquals(data, decrypt(encrypt(data)));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, SegmentedAeadOutputStream.SEGMENT_SIZE+1})
+    public void testTruncationDetected(int size) throws Exception {
+        var encrypted = encrypt(createData(size));
+        assertThrows(IOException.class, ()->decrypt(Arrays.copyOf(encrypted, encrypted.length-1)));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(ints = {1, SegmentedAeadOutputStream.SEGMENT_SIZE+1})
+    public void testModificationDetected(int size) throws Exception {
+        var encrypted = encrypt(createData(size));
+        encrypted[encrypted.length-1] ^= 1;
+        assertThrows(IOException.class, ()->decrypt(encrypted));
+    }
+    
+    private static final byte[] createData(int size) {
+        var data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+    
+    private static final byte[] encrypt(byte[] data) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        try ( var os = new SegmentedAeadOutputStream(bos, KEY) ) {
+            // Write in two parts to verify that segments are filled across write calls
+            os.write(data, 0, data.length/2);
+            os.write(data, data.length/2, data.length-data.length/2);
+        }
+        return bos.toByteArray();
+    }
+    
+    private static final byte[] decrypt(byte[] data) throws IOException {
+        try ( var is = new SegmentedAeadInputStream(new ByteArrayInputStream(data), KEY) ) {
+            return is.readAllBytes();
+        }
+    }
+}
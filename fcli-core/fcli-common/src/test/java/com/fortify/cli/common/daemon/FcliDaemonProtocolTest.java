@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+public class FcliDaemonProtocolTest {
+    @Test
+    public void testRequestRoundTrip() throws Exception {
+        var bos = new ByteArrayOutputStream();
+        FcliDaemonProtocol.writeRequest(new DataOutputStream(bos), FcliDaemonProtocol.REQUEST_RUN, "fingerprint", new String[] {"ssc", "appversion", "list", "--q=name=='\u00e9'"});
+        var in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(FcliDaemonProtocol.VERSION, in.readInt());
+        assertEquals(FcliDaemonProtocol.REQUEST_RUN, FcliDaemonProtocol.readString(in));
+        assertEquals("fingerprint", FcliDaemonProtocol.readString(in));
+        var args = new String[in.readInt()];
+        for ( int i = 0 ; i < args.length ; i++ ) { args[i] = FcliDaemonProtocol.readString(in); }
+        assertArrayEquals(new String[] {"ssc", "appversion", "list", "--q=name=='\u00e9'"}, args);
+        assertEquals(-1, in.read());
+    }
+    
+    @Test
+    public void testFrames() throws Exception {
+        var bos = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bos);
+        FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_REJECTED, "reason");
+        FcliDaemonProtocol.writeFrame(out, FcliDaemonProtocol.FRAME_EXIT, 3);
+        var in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertEquals(FcliDaemonProtocol.FRAME_REJECTED, in.readByte());
+        assertEquals("reason", FcliDaemonProtocol.readString(in));
+        assertEquals(FcliDaemonProtocol.FRAME_EXIT, in.readByte());
+        assertEquals(3, in.readInt());
+    }
+    
+    @Test
+    public void testBytesWithOffset() throws Exception {
+        var bos = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bos);
+        FcliDaemonProtocol.writeBytes(out, new byte[] {1, 2, 3, 4}, 1, 2);
+        FcliDaemonProtocol.writeBytes(out, new byte[] {1, 2, 3, 4}, 3, -1);
+        var in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertArrayEquals(new byte[] {2, 3}, FcliDaemonProtocol.readBytes(in));
+        assertArrayEquals(new byte[] {4}, FcliDaemonProtocol.readBytes(in));
+    }
+    
+    @Test
+    public void testInvalidLengthRejected() throws Exception {
+        var bos = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bos);
+        out.writeInt(-2);
+        out.writeInt(Integer.MAX_VALUE);
+        var in = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertThrows(IOException.class, ()->FcliDaemonProtocol.readBytes(in));
+        assertThrows(IOException.class, ()->FcliDaemonProtocol.readBytes(in));
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.util.EnvHelper;
+
+public class FcliDaemonServerTest {
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final String TEST_ENV_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DAEMON_TEST");
+    private static final byte[] NO_INPUT = new byte[0];
+    @TempDir private Path dataDir;
+    private final CountDownLatch blockingCommandLatch = new CountDownLatch(1);
+    private final AtomicInteger commandCount = new AtomicInteger();
+    private Thread serverThread;
+    
+    @BeforeEach
+    public void setDataDir() {
+        System.setProperty(DATA_DIR_PROPERTY, dataDir.toString());
+    }
+    
+    @AfterEach
+    public void stopServer() throws Exception {
+        blockingCommandLatch.countDown();
+        if ( serverThread!=null ) {
+            FcliDaemonClient.stop();
+            serverThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        System.clearProperty(TEST_ENV_PROPERTY);
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+    
+    @Test
+    public void testNoDaemonRunning() throws Exception {
+        assertNull(tryRun(NO_INPUT, "echo").exitCode);
+        assertNull(FcliDaemonClient.getStatus());
+        assertFalse(FcliDaemonClient.stop());
+    }
+    
+    @Test
+    public void testRunCommand() throws Exception {
+        startServer();
+        var result = tryRun("some input\n".getBytes(StandardCharsets.UTF_8), "echo");
+        assertEquals(3, result.exitCode);
+        assertEquals("out: some input"+System.lineSeparator(), result.stdout);
+        assertEquals("err"+System.lineSeparator(), result.stderr);
+        assertEquals(1, commandCount.get());
+        assertEquals(1, FcliDaemonClient.getStatus().get("commandCount").asInt());
+    }
+    
+    @Test
+    public void testDaemonCommandNotForwarded() throws Exception {
+        startServer();
+        assertNull(tryRun(NO_INPUT, "util", "daemon", "status").exitCode);
+        assertEquals(0, commandCount.get());
+    }
+    
+    @Test
+    public void testRejectedOnEnvironmentChange() throws Exception {
+        startServer();
+        System.setProperty(TEST_ENV_PROPERTY, "changed");
+        assertNull(tryRun(NO_INPUT, "echo").exitCode);
+        assertEquals(0, commandCount.get());
+    }
+    
+    @Test
+    public void testRejectedWhileBusy() throws Exception {
+        startServer();
+        var blockingResult = CompletableFuture.supplyAsync(()->tryRun(NO_INPUT, "block"));
+        waitFor(()->FcliDaemonClient.getStatus().get("busy").asBoolean());
+        // Status requests are still handled, but other commands must be run by the client
+        assertNull(tryRun(NO_INPUT, "echo").exitCode);
+        assertEquals(1, commandCount.get());
+        blockingCommandLatch.countDown();
+        assertEquals(0, blockingResult.get(10, TimeUnit.SECONDS).exitCode);
+        assertEquals(3, tryRun(NO_INPUT, "echo").exitCode);
+    }
+    
+    @Test
+    public void testStop() throws Exception {
+        var socketPath = startServer();
+        assertNotNull(FcliDaemonClient.getStatus());
+        assertTrue(FcliDaemonClient.stop());
+        serverThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(serverThread.isAlive());
+        assertFalse(Files.exists(socketPath));
+        assertNull(tryRun(NO_INPUT, "echo").exitCode);
+    }
+    
+    private Path startServer() throws Exception {
+        var server = new FcliDaemonServer(this::runCommand, Duration.ofMinutes(1));
+        serverThread = new Thread(()->{
+            try {
+                server.run();
+            } catch ( IOException e ) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        waitFor(()->Files.exists(server.getSocketPath()));
+        return server.getSocketPath();
+    }
+    
+    private int runCommand(String[] args) {
+        commandCount.incrementAndGet();
+        try {
+            switch ( args[0] ) {
+            case "block":
+                blockingCommandLatch.await();
+                return 0;
+            default:
+                var line = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).readLine();
+                System.out.println("out: "+line);
+                System.err.println("err");
+                return 3;
+            }
+        } catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+    
+    private static final TestResult tryRun(byte[] stdin, String... args) {
+        var stdout = new ByteArrayOutputStream();
+        var stderr = new ByteArrayOutputStream();
+        var exitCode = FcliDaemonClient.tryRun(args, new ByteArrayInputStream(stdin), 
+                new PrintStream(stdout, true, StandardCharsets.UTF_8), new PrintStream(stderr, true, StandardCharsets.UTF_8));
+        return new TestResult(exitCode, stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8));
+    }
+    
+    private static final void waitFor(ICondition condition) throws Exception {
+        var deadline = System.nanoTime()+TimeUnit.SECONDS.toNanos(10);
+        while ( !condition.isSatisfied() ) {
+            if ( System.nanoTime()>deadline ) { throw new IllegalStateException("Timeout waiting for condition"); }
+            Thread.sleep(10);
+        }
+    }
+    
+    @FunctionalInterface
+    private static interface ICondition {
+        boolean isSatisfied() throws Exception;
+    }
+    
+    private record TestResult(Integer exitCode, String stdout, String stderr) {}
+}
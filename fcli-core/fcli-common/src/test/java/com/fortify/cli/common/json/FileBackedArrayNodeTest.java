@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+public class FileBackedArrayNodeTest {
+    private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+
+    @Test
+    public void testSerializationMatchesInMemoryArray() throws Exception {
+        var expected = createSampleArray(1000);
+        try ( var fileBacked = FileBackedArrayNode.copyOf(createSampleArray(10)) ) {
+            for ( int i = 10 ; i < 1000 ; i++ ) { fileBacked.add(createSampleElement(i)); }
+            var expectedDocument = objectMapper.createObjectNode().set("results", expected);
+            var actualDocument = objectMapper.createObjectNode().set("results", fileBacked);
+            assertEquals(1000, fileBacked.size());
+            assertEquals(expectedDocument.toPrettyString(), actualDocument.toPrettyString());
+            assertEquals(expected, fileBacked.deepCopy());
+        }
+    }
+
+    @Test
+    public void testElementAccess() throws Exception {
+        try ( var fileBacked = FileBackedArrayNode.copyOf(createSampleArray(100)) ) {
+            assertEquals(createSampleElement(42), fileBacked.get(42));
+            assertNull(fileBacked.get(100));
+            assertTrue(fileBacked.path(100).isMissingNode());
+            assertEquals("item 0", fileBacked.findValue("name").asText());
+            int count = 0;
+            for ( var node : fileBacked ) { assertEquals(createSampleElement(count++), node); }
+            assertEquals(100, count);
+        }
+    }
+
+    @Test
+    public void testEarlyExitClosesIterators() throws Exception {
+        try ( var fileBacked = FileBackedArrayNode.copyOf(createSampleArray(100)) ) {
+            assertEquals("item 0", fileBacked.findValue("name").asText());
+            assertEquals(createSampleElement(0), fileBacked.findParent("name"));
+            assertEquals(createSampleElement(1), fileBacked.get(1));
+            try ( var stream = JsonHelper.stream(fileBacked) ) {
+                assertFalse(stream.allMatch(node->node.get("id").asInt()<5));
+            }
+            assertEquals(0, fileBacked.getOpenIteratorCount());
+        }
+    }
+
+    @Test
+    public void testCloseClosesOpenIterators() throws Exception {
+        var fileBacked = FileBackedArrayNode.copyOf(createSampleArray(10));
+        var iterator = fileBacked.elements();
+        assertEquals(createSampleElement(0), iterator.next());
+        assertEquals(1, fileBacked.getOpenIteratorCount());
+        fileBacked.close();
+        assertEquals(0, fileBacked.getOpenIteratorCount());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testUnsupportedOperations() throws Exception {
+        var fileBacked = FileBackedArrayNode.copyOf(createSampleArray(2));
+        assertThrows(UnsupportedOperationException.class, ()->fileBacked.set(0, createSampleElement(0)));
+        assertThrows(UnsupportedOperationException.class, ()->fileBacked.insert(0, "x"));
+        assertThrows(UnsupportedOperationException.class, ()->fileBacked.remove(0));
+        assertThrows(UnsupportedOperationException.class, ()->fileBacked.addObject());
+        fileBacked.close();
+        assertThrows(IllegalStateException.class, ()->fileBacked.add("x"));
+        assertFalse(fileBacked.isEmpty());
+    }
+
+    private static ArrayNode createSampleArray(int size) {
+        var result = objectMapper.createArrayNode();
+        for ( int i = 0 ; i < size ; i++ ) { result.add(createSampleElement(i)); }
+        return result;
+    }
+
+    private static JsonNode createSampleElement(int i) {
+        var result = objectMapper.createObjectNode()
+                .put("id", i)
+                .put("name", "item "+i)
+                .put("active", i%2==0);
+        result.putArray("tags").add("tag"+i%3).add("tag"+i%5);
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.progress.helper.ProgressWriterType;
+import com.fortify.cli.common.util.EnvHelper;
+
+import kong.unirest.UnirestException;
+
+public class ChunkedFileUploadProtocolTest {
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    @TempDir Path tempDir;
+    private final Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    
+    @Test
+    public void testNonFinalChunksAreRetried() throws Exception {
+        var file = createFile(25);
+        var result = upload(file, chunk->{
+            if ( attempt(chunk)==1 && chunk.getIndex()==1 ) { throw new UnirestException("Connection reset"); }
+            return chunk.isLast() ? "done" : null;
+        });
+        assertEquals("done", result);
+        assertEquals(1, attempts.get(0).get());
+        assertEquals(2, attempts.get(1).get());
+        assertEquals(1, attempts.get(2).get());
+    }
+    
+    @Test
+    public void testFinalChunkIsNotRetried() throws Exception {
+        var file = createFile(25);
+        assertThrows(UnirestException.class, ()->upload(file, chunk->{
+            attempt(chunk);
+            if ( chunk.isLast() ) { throw new UnirestException("Read timed out"); }
+            return null;
+        }));
+        assertEquals(1, attempts.get(2).get());
+    }
+    
+    @Test
+    public void testUploadStateDeletedAfterFailedFinalChunk() throws Exception {
+        System.setProperty(DATA_DIR_PROPERTY, tempDir.resolve("fcli").toString());
+        try {
+            var file = createFile(25);
+            // Failed intermediate chunk: completed chunks are recorded for resume
+            assertThrows(UnirestException.class, ()->upload(file, ChunkedUploadState.load("test", file, 10), 1, chunk->{
+                if ( chunk.getIndex()==1 ) { throw new UnirestException("Connection reset"); }
+                return null;
+            }));
+            var state = ChunkedUploadState.load("test", file, 10);
+            assertTrue(state.isCompleted(0));
+            assertFalse(state.isCompleted(1));
+            // Failed final chunk: recorded state is discarded
+            assertThrows(UnirestException.class, ()->upload(file, state, 1, chunk->{
+                if ( chunk.isLast() ) { throw new UnirestException("Read timed out"); }
+                return null;
+            }));
+            assertFalse(ChunkedUploadState.load("test", file, 10).isCompleted(0));
+        } finally {
+            System.clearProperty(DATA_DIR_PROPERTY);
+        }
+    }
+    
+    private String upload(File file, ChunkedFileUploadProtocol.IChunkUploader<String> chunkUploader) {
+        return upload(file, null, 3, chunkUploader);
+    }
+    
+    private String upload(File file, ChunkedUploadState state, int maxAttempts, ChunkedFileUploadProtocol.IChunkUploader<String> chunkUploader) {
+        try ( var progressWriter = ProgressWriterType.none.create() ) {
+            return FileUploader.upload(file, ChunkedFileUploadProtocol.<String>builder()
+                    .chunkSize(10)
+                    .maxAttempts(maxAttempts)
+                    .state(state)
+                    .chunkUploader(chunkUploader)
+                    .build(), progressWriter);
+        }
+    }
+    
+    private int attempt(ChunkedFileUploadProtocol.FileChunk chunk) {
+        return attempts.computeIfAbsent(chunk.getIndex(), i->new AtomicInteger()).incrementAndGet();
+    }
+    
+    private File createFile(int length) throws Exception {
+        return Files.write(tempDir.resolve("upload.bin"), new byte[length]).toFile();
+    }
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.rest.upload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class PipedUploadInputStreamTest {
+    @Test
+    public void testReadWrittenContents() throws Exception {
+        var expected = createContents(3*1024*1024);
+        try ( var in = new PipedUploadInputStream("test-writer", out->out.write(expected)) ) {
+            assertArrayEquals(expected, in.readAllBytes());
+            assertEquals(-1, in.read());
+        }
+    }
+    
+    @Test
+    public void testWriterExceptionPropagatesToReader() throws Exception {
+        var contents = createContents(1024);
+        var cause = new IOException("Test writer failure");
+        try ( var in = new PipedUploadInputStream("test-writer", out->{ out.write(contents); throw cause; }) ) {
+            var buffer = new byte[contents.length];
+            assertEquals(contents.length, in.readNBytes(buffer, 0, buffer.length));
+            assertArrayEquals(contents, buffer);
+            var e = assertThrows(IOException.class, in::read);
+            assertSame(cause, e.getCause());
+        }
+    }
+    
+    @Test
+    public void testWriterRuntimeExceptionPropagatesToReader() throws Exception {
+        try ( var in = new PipedUploadInputStream("test-writer", out->{ throw new IllegalStateException("Test writer failure"); }) ) {
+            var e = assertThrows(IOException.class, in::readAllBytes);
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+    }
+    
+    @Test
+    public void testWriterTerminatesWhenReaderCloses() throws Exception {
+        var writerThread = new CompletableFuture<Thread>();
+        var writerResult = new CompletableFuture<Throwable>();
+        var in = new PipedUploadInputStream("test-writer", out->{
+            writerThread.complete(Thread.currentThread());
+            var buffer = createContents(64*1024);
+            try {
+                // Write until the reader closes the stream
+                while ( true ) { out.write(buffer); }
+            } catch ( IOException e ) {
+                writerResult.complete(e);
+                throw e;
+            }
+        });
+        assertEquals(1024, in.readNBytes(1024).length);
+        in.close();
+        var thread = writerThread.get(10, TimeUnit.SECONDS);
+        assertNotNull(writerResult.get(10, TimeUnit.SECONDS));
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(thread.isAlive());
+    }
+    
+    private static final byte[] createContents(int length) {
+        var result = new byte[length];
+        for ( int i = 0 ; i < length ; i++ ) { result[i] = (byte)(i%251); }
+        return result;
+    }
+}
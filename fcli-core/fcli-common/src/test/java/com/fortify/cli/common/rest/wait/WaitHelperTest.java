@@ -12,14 +12,100 @@
  *******************************************************************************/
 package com.fortify.cli.common.rest.wait;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.cli.common.rest.wait.WaitHelper.WaitStatus;
+import com.fortify.cli.common.rest.wait.WaitType.AnyOrAll;
+import com.fortify.cli.common.rest.wait.WaitType.LoopType;
 
 // TODO Add multithreaded tests that emulate actual state changes
 @Timeout(value = 5)
 public class WaitHelperTest {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    public void testRepollFailureStateOnFailureStateWait() {
+        var states = new StateSequences().add("1", "failed", "done");
+        var result = states.waitHelper(AnyOrAll.all_match)
+                .failureStates("failed")
+                .onFailureState(WaitUnknownOrFailureStateAction.wait)
+                .build().wait(null).getResult();
+        assertEquals(List.of(WaitStatus.WAIT_COMPLETE), new ArrayList<>(result.values()));
+        assertEquals(2, states.getPollCount("1"));
+    }
+    
+    @Test
+    public void testRepollCompletedRecordsOnAllMatch() {
+        var states = new StateSequences()
+                .add("1", "done", "running", "done")
+                .add("2", "running", "done", "done");
+        var result = states.waitHelper(AnyOrAll.all_match).build().wait(null).getResult();
+        assertEquals(List.of(WaitStatus.WAIT_COMPLETE, WaitStatus.WAIT_COMPLETE), new ArrayList<>(result.values()));
+        assertEquals(3, states.getPollCount("1"));
+        assertEquals(3, states.getPollCount("2"));
+    }
+    
+    @Test
+    public void testNoRepollForFinalStates() {
+        var states = new StateSequences()
+                .add("1", "done")
+                .add("2", "running", "done");
+        var result = states.waitHelper(AnyOrAll.all_match)
+                .finalStates("done")
+                .build().wait(null).getResult();
+        assertEquals(List.of(WaitStatus.WAIT_COMPLETE, WaitStatus.WAIT_COMPLETE), new ArrayList<>(result.values()));
+        assertEquals(1, states.getPollCount("1"));
+        assertEquals(2, states.getPollCount("2"));
+    }
+    
+    /**
+     * Supplies records with the given sequence of states for each record id, 
+     * returning the next state in the sequence each time a record is polled,
+     * or the last state once the end of the sequence has been reached.
+     */
+    private static final class StateSequences {
+        private final Map<String, List<String>> states = new LinkedHashMap<>();
+        private final Map<String, Integer> pollCounts = new LinkedHashMap<>();
+        
+        public StateSequences add(String id, String... states) {
+            this.states.put(id, Arrays.asList(states));
+            return this;
+        }
+        
+        public int getPollCount(String id) {
+            return pollCounts.getOrDefault(id, 0);
+        }
+        
+        public WaitHelper.WaitHelperBuilder waitHelper(AnyOrAll anyOrAll) {
+            return WaitHelper.builder()
+                    .recordsById(new ArrayList<>(states.keySet()), (u,id)->poll(id))
+                    .currentState(n->n.get("state").asText())
+                    .matchStates(Set.of("done"))
+                    .waitType(new WaitType(LoopType.Until, anyOrAll))
+                    .intervalPeriod("1s")
+                    .timeoutPeriod("1m");
+        }
+        
+        private JsonNode poll(String id) {
+            var sequence = states.get(id);
+            var count = pollCounts.merge(id, 1, Integer::sum);
+            return objectMapper.createObjectNode()
+                    .put("id", id)
+                    .put("state", sequence.get(Math.min(count, sequence.size())-1));
+        }
+    }
     /*
     @Test
     public void testNoRequests() {
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.spring.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.integration.json.JsonPropertyAccessor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+
+public class JsonNodePropertyAccessorTest {
+    private static final List<String> EXPRESSIONS = List.of(
+            "name", "id", "active", "score", "missing", "nested.level", "nested.tags[1]",
+            "nested.tags.0", "nested.tags.5", "nested.tags.size()", "nested.deeper.value",
+            "nested.tags.![#this+'x']", "name=='record-7' && active", "'{\"a\":{\"b\":1}}'.a.b");
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    @Test
+    public void testSameResultsAsJsonPropertyAccessor() throws Exception {
+        var legacyContext = createContext(new JsonPropertyAccessor());
+        var context = createContext(new JsonNodePropertyAccessor());
+        var record = createRecord(7);
+        for ( var expression : EXPRESSIONS ) {
+            var parsed = parser.parseExpression(expression);
+            assertEquals(String.valueOf(parsed.getValue(legacyContext, record)), String.valueOf(parsed.getValue(context, record)), expression);
+        }
+    }
+
+    @Test
+    public void testRequireExistingProperty() throws Exception {
+        var context = createContext(new JsonNodePropertyAccessor(true));
+        var expression = parser.parseExpression("missing");
+        var record = createRecord(1);
+        assertThrows(SpelEvaluationException.class, ()->expression.getValue(context, record));
+        assertEquals(1, parser.parseExpression("nested.level").getValue(context, record));
+    }
+
+    /**
+     * Simple benchmark comparing evaluation times for the original and optimized
+     * property accessors; run with -Dfcli.benchmark=true to enable.
+     */
+    @Test @EnabledIfSystemProperty(named = "fcli.benchmark", matches = "true")
+    public void benchmark() throws Exception {
+        var records = new JsonNode[10000];
+        for ( int i = 0 ; i < records.length ; i++ ) { records[i] = createRecord(i); }
+        var expression = parser.parseExpression("name=='record-7' || (active && nested.level>2 && nested.tags[1]=='b' && nested.deeper.value!=null)");
+        var legacyContext = createContext(new JsonPropertyAccessor());
+        var context = createContext(new JsonNodePropertyAccessor());
+        for ( int round = 0 ; round < 5 ; round++ ) {
+            System.out.println(String.format("Round %d: JsonPropertyAccessor %dms, JsonNodePropertyAccessor %dms", round,
+                time(legacyContext, expression, records), time(context, expression, records)));
+        }
+    }
+
+    private static final long time(EvaluationContext context, org.springframework.expression.Expression expression, JsonNode[] records) {
+        var start = System.nanoTime();
+        for ( int i = 0 ; i < 50 ; i++ ) {
+            for ( var record : records ) { expression.getValue(context, record, Boolean.class); }
+        }
+        return (System.nanoTime()-start)/1_000_000;
+    }
+
+    private static final EvaluationContext createContext(PropertyAccessor accessor) {
+        return SimpleEvaluationContext.forPropertyAccessors(accessor).withInstanceMethods().build();
+    }
+
+    private static final ObjectNode createRecord(int i) {
+        var objectMapper = JsonHelper.getObjectMapper();
+        ObjectNode record = objectMapper.createObjectNode()
+                .put("id", i)
+                .put("name", "record-"+i)
+                .put("active", i%2==0)
+                .put("score", i*1.5);
+        ArrayNode tags = objectMapper.createArrayNode().add("a").add("b").add("c");
+        ObjectNode nested = record.putObject("nested").put("level", i%5);
+        nested.set("tags", tags);
+        nested.putObject("deeper").putNull("value");
+        return record;
+    }
+}
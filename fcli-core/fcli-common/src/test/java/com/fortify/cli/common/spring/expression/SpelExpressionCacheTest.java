@@ -0,0 +1,61 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ */
+package com.fortify.cli.common.spring.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.fortify.cli.common.util.EnvHelper;
+
+public class SpelExpressionCacheTest {
+    @Test
+    public void testCacheHitsAndMisses() throws Exception {
+        var cache = new SpelExpressionCache(10);
+        var e1 = cache.get("a.b");
+        var e2 = cache.get("a.b");
+        cache.get("a.c");
+        assertSame(e1, e2);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+    
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        var cache = new SpelExpressionCache(2);
+        var a = cache.get("a");
+        cache.get("b");
+        cache.get("a"); // Make 'b' least recently used
+        cache.get("c"); // Evicts 'b'
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("a"));
+        var b = cache.get("b");
+        assertNotNull(b);
+        assertEquals(4, cache.getMissCount());
+    }
+    
+    @Test
+    public void testInvalidCompilerModeFallsBackToDefault() throws Exception {
+        var propertyName = EnvHelper.envSystemPropertyName(SpelExpressionCache.ENVNAME_COMPILER_MODE);
+        System.setProperty(propertyName, "invalid");
+        try {
+            var cache = new SpelExpressionCache(10);
+            assertNotNull(cache.get("1+1"));
+        } finally {
+            System.clearProperty(propertyName);
+        }
+    }
+}
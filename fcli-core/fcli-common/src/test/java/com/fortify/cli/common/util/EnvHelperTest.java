@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class EnvHelperTest {
+    private static final String ENVNAME = "FCLI_TEST_ENV_AS_INTEGER";
+    
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(EnvHelper.envSystemPropertyName(ENVNAME));
+    }
+    
+    @Test
+    public void testEnvAsIntegerUnset() throws Exception {
+        assertEquals(42, EnvHelper.envAsInteger(ENVNAME, 42));
+    }
+    
+    @Test
+    public void testEnvAsIntegerValid() throws Exception {
+        setEnv(" 7 ");
+        assertEquals(7, EnvHelper.envAsInteger(ENVNAME, 42));
+    }
+    
+    @Test
+    public void testEnvAsIntegerBlankOrInvalidFallsBackToDefault() throws Exception {
+        setEnv(" ");
+        assertEquals(42, EnvHelper.envAsInteger(ENVNAME, 42));
+        setEnv("ten");
+        assertEquals(42, EnvHelper.envAsInteger(ENVNAME, 42));
+        setEnv("99999999999");
+        assertEquals(42, EnvHelper.envAsInteger(ENVNAME, 42));
+    }
+    
+    private static final void setEnv(String value) {
+        System.setProperty(EnvHelper.envSystemPropertyName(ENVNAME), value);
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.crypto.helper.EncryptionHelper;
+
+public class FcliDataHelperTest {
+    // Value generated with the legacy Jasypt-based encryption and default encryption key 
+    private static final String LEGACY_ENCRYPTED = "/mmb8rs4wdssCCwzwtGJFeG/zVKbhkOA69nGUjGYFW/2ha2KHu/HXBGsjr7vFXN/";
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final String LEGACY_FORMAT_PROPERTY = EnvHelper.envSystemPropertyName(EncryptionHelper.ENVNAME_LEGACY_FORMAT);
+    private static final Path FILE = Path.of("test", "secured.txt");
+    @TempDir private Path dataDir;
+    
+    @BeforeEach
+    public void setDataDir() {
+        Assumptions.assumeTrue(StringUtils.isBlank(EnvHelper.env("FCLI_ENCRYPT_KEY")), "Custom FCLI_ENCRYPT_KEY configured");
+        System.setProperty(DATA_DIR_PROPERTY, dataDir.toString());
+    }
+    
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(DATA_DIR_PROPERTY);
+        System.clearProperty(LEGACY_FORMAT_PROPERTY);
+    }
+    
+    @Test
+    public void testLegacySecuredFileMigrated() throws Exception {
+        var relativePath = FcliDataHelper.getFcliStatePath().resolve(FILE);
+        FcliDataHelper.saveFile(relativePath, LEGACY_ENCRYPTED, true);
+        assertEquals("legacy secret", FcliDataHelper.readSecuredFile(relativePath, true));
+        var migrated = FcliDataHelper.readFile(relativePath, true);
+        assertFalse(EncryptionHelper.isLegacyFormat(migrated));
+        assertEquals("legacy secret", FcliDataHelper.readSecuredFile(relativePath, true));
+    }
+    
+    @Test
+    public void testLegacySecuredFileKeptInLegacyFormat() throws Exception {
+        System.setProperty(LEGACY_FORMAT_PROPERTY, "true");
+        var relativePath = FcliDataHelper.getFcliStatePath().resolve(FILE);
+        FcliDataHelper.saveFile(relativePath, LEGACY_ENCRYPTED, true);
+        assertEquals("legacy secret", FcliDataHelper.readSecuredFile(relativePath, true));
+        assertEquals(LEGACY_ENCRYPTED, FcliDataHelper.readFile(relativePath, true));
+        FcliDataHelper.saveSecuredFile(relativePath, "new secret", true);
+        assertTrue(EncryptionHelper.isLegacyFormat(FcliDataHelper.readFile(relativePath, true)));
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.common.variable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
+
+public class FcliVariableCacheTest {
+    private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    @TempDir private Path dataDir;
+    
+    @BeforeEach
+    public void setDataDir() {
+        System.setProperty(DATA_DIR_PROPERTY, dataDir.toString());
+    }
+    
+    @AfterEach
+    public void clearDataDir() {
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+    
+    @Test
+    public void testCacheHit() throws Exception {
+        FcliVariableHelper.save("cacheHit", "id", objectMapper.readTree("{\"id\":1}"), true, false);
+        FcliVariableHelper.getVariableContents("cacheHit", true);
+        var hits = FcliVariableCache.getHitCount();
+        var misses = FcliVariableCache.getMissCount();
+        assertEquals(objectMapper.readTree("{\"id\":1}"), FcliVariableHelper.getVariableContents("cacheHit", true));
+        assertEquals(hits+1, FcliVariableCache.getHitCount());
+        assertEquals(misses, FcliVariableCache.getMissCount());
+    }
+    
+    @Test
+    public void testInvalidationOnSave() throws Exception {
+        FcliVariableHelper.save("invalidateOnSave", "id", objectMapper.readTree("{\"id\":1}"), true, false);
+        FcliVariableHelper.getVariableContents("invalidateOnSave", true);
+        FcliVariableHelper.save("invalidateOnSave", "id", objectMapper.readTree("{\"id\":2}"), true, false);
+        assertEquals(objectMapper.readTree("{\"id\":2}"), FcliVariableHelper.getVariableContents("invalidateOnSave", true));
+    }
+    
+    @Test
+    public void testInvalidationOnExternalRewriteWithSameTimestamp() throws Exception {
+        FcliVariableHelper.save("externalRewrite", "id", objectMapper.readTree("{\"id\":1}"), true, false);
+        FcliVariableHelper.getVariableContents("externalRewrite", true);
+        // Simulate another fcli process rewriting the contents within the file system timestamp granularity
+        var contentsPath = dataDir.resolve("state/vars/externalRewrite/contents.json");
+        var lastModified = Files.getLastModifiedTime(contentsPath);
+        Files.writeString(contentsPath, "{\"id\":12345}", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(contentsPath, lastModified);
+        assertEquals(objectMapper.readTree("{\"id\":12345}"), FcliVariableHelper.getVariableContents("externalRewrite", true));
+    }
+    
+    @Test
+    public void testReturnedContentsAreCopies() throws Exception {
+        FcliVariableHelper.save("copies", "id", objectMapper.readTree("{\"id\":1}"), true, false);
+        var contents = (ObjectNode)FcliVariableHelper.getVariableContents("copies", true);
+        contents.put("id", 2);
+        assertEquals(objectMapper.readTree("{\"id\":1}"), FcliVariableHelper.getVariableContents("copies", true));
+    }
+}
@@ -14,113 +14,107 @@
 package com.fortify.cli.fod._common.rest.helper;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.Arrays;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fortify.cli.common.progress.helper.IProgressWriter;
 import com.fortify.cli.common.progress.helper.ProgressWriterType;
 import com.fortify.cli.common.rest.unirest.URIHelper;
+import com.fortify.cli.common.rest.upload.ChunkedFileUploadProtocol;
+import com.fortify.cli.common.rest.upload.ChunkedFileUploadProtocol.FileChunk;
+import com.fortify.cli.common.rest.upload.ChunkedUploadState;
+import com.fortify.cli.common.rest.upload.FileUploader;
+import com.fortify.cli.common.rest.upload.MultipartFileUploadProtocol;
+import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.fod._common.util.FoDConstants;
 
 import kong.unirest.HttpRequest;
-import kong.unirest.ProgressMonitor;
 import kong.unirest.UnirestInstance;
-import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 
-// TODO Based on some recent messages on FortifySSC, potentially we may need
-//      chunked uploads for SC DAST as well, so consider refactoring into a
-//      generic class in fcli-common.
 public final class FoDFileTransferHelper {
 
+    /** Environment variable for configuring the maximum number of concurrent fragment uploads */
+    public static final String ENVNAME_UPLOAD_THREADS = "FCLI_FOD_UPLOAD_THREADS";
+    /** Environment variable for enabling resume of previously failed chunked uploads */
+    public static final String ENVNAME_UPLOAD_RESUME = "FCLI_FOD_UPLOAD_RESUME";
     private static int chunkSize = FoDConstants.DEFAULT_CHUNK_SIZE;
     public static void setChunkSize(int chunkSize) { FoDFileTransferHelper.chunkSize = chunkSize; }
 
-    @SneakyThrows
     public static final JsonNode upload(UnirestInstance unirest, HttpRequest<?> baseRequest, File f) {
-        if (!f.exists() || !f.canRead()) {
-            throw new IllegalArgumentException("Could not read file: " + f.getPath());
-        }
-        String body = null;
-        try ( FoDProgressMonitor uploadMonitor = new FoDProgressMonitor("Upload") ) {
-            body =  unirest.request(baseRequest.getHttpMethod().name(), baseRequest.getUrl())
-                    .noCharset()
-                    .multiPartContent()
-                    .field("file", f)
-                    .uploadMonitor(uploadMonitor)
-                    .asString()
-                    .getBody();
-        } catch (Exception e) {
-            throw new RuntimeException("Error uploading file", e);
+        try ( var progressWriter = ProgressWriterType.auto.create() ) {
+            return upload(unirest, progressWriter, baseRequest, f);
         }
-        return new ObjectMapper().readTree(body);
     }
 
     @SneakyThrows
-    public static final JsonNode uploadChunked(UnirestInstance unirest, HttpRequest<?> baseRequest, File f) {
-        if (!f.exists() || !f.canRead()) {
-            throw new IllegalArgumentException("Could not read file: " + f.getPath());
-        }
-        long fileLen = f.length();
-        String lastBody = null;
-        try (var fs = new FileInputStream(f); var progressMonitor = new FoDProgressMonitor("Upload"); ) {
-            byte[] readByteArray = new byte[chunkSize];
-            byte[] sendByteArray;
-            int fragmentNumber = 0;
-            int byteCount;
-            long offset = 0;
-
-            // loop through chunks
-            while ((byteCount = fs.read(readByteArray)) != -1) {
-
-                if (byteCount < chunkSize) {
-                    sendByteArray = Arrays.copyOf(readByteArray, byteCount);
-                    fragmentNumber = -1;
-                } else {
-                    sendByteArray = readByteArray;
-                }
+    public static final JsonNode upload(UnirestInstance unirest, IProgressWriter progressWriter, HttpRequest<?> baseRequest, File f) {
+        var body = FileUploader.upload(f, MultipartFileUploadProtocol.<String>builder()
+                .requestSupplier(()->unirest.request(baseRequest.getHttpMethod().name(), baseRequest.getUrl()).noCharset())
+                .responseFunction(b->b.asString())
+                .build(), progressWriter);
+        return new ObjectMapper().readTree(body);
+    }
 
-                lastBody = unirest.request(
-                                String.valueOf(baseRequest.getHttpMethod()),
-                                getUri(baseRequest, fragmentNumber++, offset))
-                        .contentType("application/octet-stream")
-                        .header("Accept", "application/json")
-                        .body(sendByteArray)
-                        .asString()
-                        .getBody();
-                progressMonitor.accept(baseRequest.getUrl(), f.getName(), offset, fileLen);
-                offset += byteCount;
-            }
-            progressMonitor.accept(baseRequest.getUrl(), f.getName(), offset, fileLen);
-        } catch (Exception e) {
-            throw new RuntimeException("Error uploading file", e);
+    /**
+     * Upload the given file in chunks of the configured chunk size. All fragments except
+     * the final one are uploaded using at most {@value #ENVNAME_UPLOAD_THREADS} concurrent
+     * requests, with failed fragment requests being retried individually. Once all other 
+     * fragments have been uploaded, the final fragment is uploaded with fragNo=-1, and the
+     * response for this final fragment is returned. As FoD starts processing the upload once
+     * it receives the final fragment, this final request is never retried. If enabled through
+     * {@value #ENVNAME_UPLOAD_RESUME}, completed fragments are recorded in an upload state file
+     * in the fcli state directory, allowing a failed upload to be resumed by a subsequent fcli
+     * invocation for the same request URL and file. This is opt-in, as fragments uploaded by
+     * a previous invocation may no longer be available on FoD.
+     * Note that rate-limited requests are already retried by {@link FoDRetryStrategy}.
+     */
+    public static final JsonNode uploadChunked(UnirestInstance unirest, HttpRequest<?> baseRequest, File f) {
+        try ( var progressWriter = ProgressWriterType.auto.create() ) {
+            return uploadChunked(unirest, progressWriter, baseRequest, f);
         }
-
-        return new ObjectMapper().readTree(lastBody);
+    }
+    
+    /**
+     * Same as {@link #uploadChunked(UnirestInstance, HttpRequest, File)}, but reporting
+     * upload progress through the given {@link IProgressWriter}.
+     */
+    @SneakyThrows
+    public static final JsonNode uploadChunked(UnirestInstance unirest, IProgressWriter progressWriter, HttpRequest<?> baseRequest, File f) {
+        var body = FileUploader.upload(f, ChunkedFileUploadProtocol.<String>builder()
+                .chunkSize(chunkSize)
+                .maxConcurrentChunks(getUploadThreads())
+                .state(isResumeEnabled() ? ChunkedUploadState.load(baseRequest.getUrl(), f, chunkSize) : null)
+                .chunkUploader(chunk->uploadFragment(unirest, baseRequest, chunk))
+                .build(), progressWriter);
+        return new ObjectMapper().readTree(body);
+    }
+    
+    private static final String uploadFragment(UnirestInstance unirest, HttpRequest<?> baseRequest, FileChunk chunk) {
+        return unirest.request(
+                    String.valueOf(baseRequest.getHttpMethod()),
+                    getUri(baseRequest, chunk.isLast() ? -1 : chunk.getIndex(), chunk.getOffset()))
+            .contentType("application/octet-stream")
+            .header("Accept", "application/json")
+            .body(chunk.getContents())
+            .asString()
+            .getBody();
+    }
+    
+    private static final int getUploadThreads() {
+        return EnvHelper.envAsInteger(ENVNAME_UPLOAD_THREADS, 1);
+    }
+    
+    private static final boolean isResumeEnabled() {
+        return EnvHelper.asBoolean(EnvHelper.env(ENVNAME_UPLOAD_RESUME));
     }
 
-    private static final String getUri(HttpRequest<?> baseRequest, int fragmentNumber, long offset) throws URISyntaxException {
+    @SneakyThrows
+    private static final String getUri(HttpRequest<?> baseRequest, int fragmentNumber, long offset) {
         URI uri = URI.create(baseRequest.getUrl());
         uri = URIHelper.addOrReplaceParam(uri, "fragNo", fragmentNumber);
         uri = URIHelper.addOrReplaceParam(uri, "offset", offset);
         return uri.toString();
     }
-
-    @RequiredArgsConstructor
-    private static final class FoDProgressMonitor implements ProgressMonitor, AutoCloseable {
-        private final IProgressWriter progressWriter = ProgressWriterType.auto.create();
-        private final String action;
-
-        @Override
-        public void accept(String field, String fileName, Long bytesWritten, Long totalBytes) {
-            progressWriter.writeProgress(String.format("\r%s %s: %d of %d bytes complete", action, fileName, bytesWritten, totalBytes));
-        }
-        public void close() {
-            progressWriter.clearProgress();
-        }
-    }
 }
@@ -12,22 +12,53 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.rest.helper;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.rest.paging.INextPageUrlProducer;
+import com.fortify.cli.common.rest.paging.IRemainingPageUrlsProducer;
 import com.fortify.cli.common.rest.paging.PagingHelper;
 import com.fortify.cli.common.rest.unirest.URIHelper;
+import com.fortify.cli.common.util.EnvHelper;
 
 import kong.unirest.HttpRequest;
+import kong.unirest.HttpResponse;
 import kong.unirest.PagedList;
 
 public class FoDPagingHelper {
+    /** Environment variable for configuring the maximum number of concurrent page requests */
+    public static final String ENVNAME_PAGING_THREADS = "FCLI_FOD_PAGING_THREADS";
+    
     public static final PagedList<JsonNode> pagedRequest(HttpRequest<?> request) {
         return PagingHelper.pagedRequest(request, nextPageUrlProducer());
     }
+    
+    /**
+     * Return an {@link INextPageUrlProducer} for FoD offset-based paging. The returned
+     * instance also implements {@link IRemainingPageUrlsProducer}, allowing pages to be
+     * loaded concurrently if the FCLI_FOD_PAGING_THREADS environment variable is set
+     * to a value larger than 1.
+     */
     public static final INextPageUrlProducer nextPageUrlProducer() {
-        return (req,resp) -> {
+        return new FoDNextPageUrlProducer(getMaxConcurrentPageRequests());
+    }
+    
+    private static final int getMaxConcurrentPageRequests() {
+        return EnvHelper.envAsInteger(ENVNAME_PAGING_THREADS, 1);
+    }
+    
+    private static final class FoDNextPageUrlProducer implements INextPageUrlProducer, IRemainingPageUrlsProducer {
+        private final int maxConcurrentPageRequests;
+        
+        private FoDNextPageUrlProducer(int maxConcurrentPageRequests) {
+            this.maxConcurrentPageRequests = maxConcurrentPageRequests;
+        }
+        
+        @Override
+        public String getNextPageUrl(HttpRequest<?> req, HttpResponse<? extends JsonNode> resp) {
             JsonNode body = resp.getBody();
-            if ( body.has("offset") && body.has("totalCount") && body.has("limit") ) {
+            if ( hasPagingData(body) ) {
                 int offset = body.get("offset").asInt();
                 int totalCount = body.get("totalCount").asInt();
                 int limit = body.get("limit").asInt();
@@ -38,6 +69,30 @@ public class FoDPagingHelper {
                 return null;
             }
             return null;
-        };
+        }
+        
+        @Override
+        public List<String> getRemainingPageUrls(HttpRequest<?> req, HttpResponse<? extends JsonNode> resp) {
+            JsonNode body = resp.getBody();
+            if ( !hasPagingData(body) ) { return null; }
+            int offset = body.get("offset").asInt();
+            int totalCount = body.get("totalCount").asInt();
+            int limit = body.get("limit").asInt();
+            if ( limit<=0 ) { return null; }
+            List<String> result = new ArrayList<>();
+            for ( int newOffset = offset + limit; newOffset < totalCount; newOffset += limit ) {
+                result.add(URIHelper.addOrReplaceParam(req.getUrl(), "offset", newOffset));
+            }
+            return result;
+        }
+        
+        @Override
+        public int getMaxConcurrentPageRequests() {
+            return maxConcurrentPageRequests;
+        }
+        
+        private static final boolean hasPagingData(JsonNode body) {
+            return body!=null && body.has("offset") && body.has("totalCount") && body.has("limit");
+        }
     }
 }
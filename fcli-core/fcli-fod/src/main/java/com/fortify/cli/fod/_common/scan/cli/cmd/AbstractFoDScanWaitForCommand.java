@@ -44,11 +44,12 @@ public abstract class AbstractFoDScanWaitForCommand extends AbstractWaitForComma
     @Override
     protected final WaitHelperBuilder configure(UnirestInstance unirest, WaitHelperBuilder builder) {
         return builder
-                .recordsSupplier(scansResolver::getScanDescriptorJsonNodes)
+                .recordsById(Arrays.asList(scansResolver.getReleaseQualifiedScanOrIds()), scansResolver::getScanDescriptorJsonNode)
                 .recordTransformer(this::transformRecord)
                 .currentStateProperty("analysisStatusType")
                 .knownStates(FoDScanStatus.getKnownStateNames())
                 .failureStates(FoDScanStatus.getFailureStateNames())
+                .finalStates(FoDScanStatus.getFinalStateNames())
                 .matchStates(states);
     }
     
@@ -81,6 +81,10 @@ public class FoDScanResolverMixin {
         public Collection<JsonNode> getScanDescriptorJsonNodes(UnirestInstance unirest) {
             return Stream.of(getScanDescriptors(unirest)).map(FoDScanDescriptor::asJsonNode).collect(Collectors.toList());
         }
+        
+        public JsonNode getScanDescriptorJsonNode(UnirestInstance unirest, String releaseQualifiedScanOrId) {
+            return FoDScanHelper.getScanDescriptor(unirest, releaseQualifiedScanOrId, delimiterMixin.getDelimiter()).asJsonNode();
+        }
 
         public String[] getScanIds(UnirestInstance unirest) {
             return Stream.of(getScanDescriptors(unirest)).map(FoDScanDescriptor::getScanId).toArray(String[]::new);
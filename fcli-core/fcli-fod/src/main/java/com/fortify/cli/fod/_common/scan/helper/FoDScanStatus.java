@@ -51,6 +51,10 @@ public enum FoDScanStatus {
         return new FoDScanStatus[]{ Canceled };
     }
 
+    public static final FoDScanStatus[] getFinalStates() {
+        return new FoDScanStatus[]{ Completed, Canceled };
+    }
+
     public static final FoDScanStatus[] getKnownStates() {
         return FoDScanStatus.values();
     }
@@ -63,6 +67,10 @@ public enum FoDScanStatus {
         return Stream.of(getFailureStates()).map(FoDScanStatus::name).toArray(String[]::new);
     }
 
+    public static final String[] getFinalStateNames() {
+        return Stream.of(getFinalStates()).map(FoDScanStatus::name).toArray(String[]::new);
+    }
+
     public static final String[] getKnownStateNames() {
         return Stream.of(getKnownStates()).map(FoDScanStatus::name).toArray(String[]::new);
     }
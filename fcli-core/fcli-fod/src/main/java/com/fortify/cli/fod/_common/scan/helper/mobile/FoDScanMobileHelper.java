@@ -51,7 +51,7 @@ public class FoDScanMobileHelper extends FoDScanHelper {
             request = request.queryString("entitlementId", req.getEntitlementId());
         }
 
-        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, request, scanFile);
+        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, progressWriter, request, scanFile);
         FoDStartScanResponse startScanResponse = JsonHelper.treeToValue(response, FoDStartScanResponse.class);
         if (startScanResponse == null || startScanResponse.getScanId() <= 0) {
             throw new RuntimeException("Unable to retrieve scan id from response when starting Static scan.");
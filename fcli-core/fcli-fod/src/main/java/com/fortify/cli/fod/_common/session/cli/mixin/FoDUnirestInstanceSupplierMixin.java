@@ -12,6 +12,10 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.session.cli.mixin;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import com.fortify.cli.common.http.proxy.helper.ProxyHelper;
@@ -29,6 +33,10 @@ import kong.unirest.apache.ApacheClient;
 
 public final class FoDUnirestInstanceSupplierMixin extends AbstractSessionUnirestInstanceSupplierMixin<FoDSessionDescriptor>
 {   
+    private static final List<Pattern> CACHEABLE_URL_PATTERNS = List.of(
+        Pattern.compile("/api/v3/lookup-items(\\?|$)")
+    );
+    
     @Override
     protected final FoDSessionDescriptor getSessionDescriptor(String sessionName) {
         return FoDSessionHelper.instance().get(sessionName, true);
@@ -50,6 +58,11 @@ public final class FoDUnirestInstanceSupplierMixin extends AbstractSessionUnires
         unirest.config().setDefaultHeader("Authorization", authHeader);
     }
     
+    @Override
+    protected final Collection<Pattern> getCacheableUrlPatterns() {
+        return CACHEABLE_URL_PATTERNS;
+    }
+    
     private ApacheClient createClient(Config config) {
         return new ApacheClient(config, this::configureClient);
     }
@@ -36,6 +36,8 @@ public final class MspReportCreateCommand extends AbstractConfigurableReportGene
     private LocalDate reportingStartDate;
     @Option(names = {"-e","--end-date"}, required = true)
     private LocalDate reportingEndDate;
+    @Option(names = {"--resume"})
+    private boolean resume;
     
     @Override
     protected String getReportTitle() {
@@ -46,6 +48,7 @@ public final class MspReportCreateCommand extends AbstractConfigurableReportGene
     protected void updateConfig(MspReportConfig config) {
         config.setReportingStartDate(reportingStartDate);
         config.setReportingEndDate(reportingEndDate);
+        config.setResume(resume);
         config.validate();
     }
     
@@ -49,7 +49,7 @@ public final class MspReportAppCollector {
     
     
     @SneakyThrows
-    public void report(IUrlConfig urlConfig, MspReportSSCProcessedAppDescriptor descriptor) {
+    public synchronized void report(IUrlConfig urlConfig, MspReportSSCProcessedAppDescriptor descriptor) {
         totalAppCounter.increase();
         var summaryDescriptor = descriptor.getAppSummaryDescriptor();
         applicationEntitlementsConsumedCounter.increase(summaryDescriptor.getConsumedApplicationEntitlementsCounter());
@@ -167,9 +167,13 @@ public final class MspReportAppScanCollector implements AutoCloseable {
     }
 
     public void close() {
-        processedScans.stream()
-            .map(this::getProcessedScanDescriptor)
-            .forEach(this::write);
+        // Applications may be processed concurrently, so make sure that scans
+        // for different applications don't get interleaved
+        synchronized (writers) {
+            processedScans.stream()
+                .map(this::getProcessedScanDescriptor)
+                .forEach(this::write);
+        }
     }
     
     private void write(MspReportProcessedScanDescriptor descriptor) {
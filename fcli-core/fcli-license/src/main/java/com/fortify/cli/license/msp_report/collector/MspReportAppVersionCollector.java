@@ -43,7 +43,7 @@ public final class MspReportAppVersionCollector {
     private Map<MspReportProcessingStatus, Counter> countsByProcessingStatus = new HashMap<>();
     
     @SneakyThrows
-    public void report(IUrlConfig urlConfig, MspReportSSCProcessedAppVersionDescriptor descriptor) {
+    public synchronized void report(IUrlConfig urlConfig, MspReportSSCProcessedAppVersionDescriptor descriptor) {
         totalAppVersionCounter.increase();
         increaseCountByProcessingStatus(descriptor.getStatus());
         writers.appVersionsWriter().write(urlConfig, descriptor);
@@ -43,7 +43,7 @@ public final class MspReportArtifactCollector {
     private SortedMap<String, Counter> countsByStatus = new TreeMap<>();
     
     @SneakyThrows
-    public void report(IUrlConfig urlConfig, MspReportSSCAppVersionDescriptor versionDescriptor, MspReportSSCArtifactDescriptor artifactDescriptor) {
+    public synchronized void report(IUrlConfig urlConfig, MspReportSSCAppVersionDescriptor versionDescriptor, MspReportSSCArtifactDescriptor artifactDescriptor) {
         totalArtifactsCounter.increase();
         increaseCountByProcessingStatus(artifactDescriptor.getStatus());
         writers.artifactsWriter().write(urlConfig, versionDescriptor, artifactDescriptor);
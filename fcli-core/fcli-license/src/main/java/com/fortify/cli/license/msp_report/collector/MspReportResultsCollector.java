@@ -20,6 +20,7 @@ import com.fortify.cli.common.report.logger.IReportLogger;
 import com.fortify.cli.common.report.logger.ReportLogger;
 import com.fortify.cli.common.report.writer.IReportWriter;
 import com.fortify.cli.common.rest.unirest.config.IUrlConfig;
+import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.license.msp_report.cli.cmd.MspReportCreateCommand;
 import com.fortify.cli.license.msp_report.config.MspReportConfig;
 import com.fortify.cli.license.msp_report.generator.ssc.MspReportSSCAppDescriptor;
@@ -40,6 +41,7 @@ import lombok.experimental.Accessors;
  */
 @Accessors(fluent = true)
 public final class MspReportResultsCollector implements IReportResultsCollector {
+    public static final String ENVNAME_THREADS = "FCLI_MSP_REPORT_THREADS";
     @Getter private final MspReportConfig reportConfig;
     @Getter private final IProgressWriterI18n progressWriter;
     private final IReportWriter reportWriter;
@@ -47,6 +49,8 @@ public final class MspReportResultsCollector implements IReportResultsCollector
     @Getter private final MspReportAppCollector appCollector;
     @Getter private final MspReportAppVersionCollector appVersionCollector;
     @Getter private final MspReportArtifactCollector artifactCollector;
+    /** Maximum number of applications to be processed concurrently */
+    @Getter private final int maxConcurrentApps;
     
     public MspReportResultsCollector(MspReportConfig reportConfig, IReportWriter reportWriter, IProgressWriterI18n progressWriter) {
         this.reportConfig = reportConfig;
@@ -56,6 +60,11 @@ public final class MspReportResultsCollector implements IReportResultsCollector
         this.appCollector = new MspReportAppCollector(this.writers, reportWriter.summary());
         this.appVersionCollector = new MspReportAppVersionCollector(this.writers, reportWriter.summary());
         this.artifactCollector = new MspReportArtifactCollector(this.writers, reportWriter.summary());
+        this.maxConcurrentApps = getMaxConcurrentApps();
+    }
+    
+    private static final int getMaxConcurrentApps() {
+        return Math.max(1, EnvHelper.envAsInteger(ENVNAME_THREADS, 1));
     }
     
     public MspReportAppScanCollector scanCollector(IUrlConfig urlConfig, MspReportSSCAppDescriptor appDescriptor) {
@@ -35,9 +35,10 @@ public class MspReportConfig implements IReportSourceSupplierConfig<MspReportRes
     private String mspName;
     private LocalDate contractStartDate;
     private MspReportSourcesConfig sources;
-    // These two properties are set through CLI options
+    // These properties are set through CLI options
     @JsonIgnore private LocalDate reportingStartDate;
     @JsonIgnore private LocalDate reportingEndDate;
+    @JsonIgnore private boolean resume;
     
     @Override
     public Collection<IMspReportSourceConfig> getSourceConfigs() {
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.license.msp_report.generator.ssc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.crypto.helper.EncryptionHelper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+/**
+ * <p>This class manages checkpoints for successfully processed SSC applications,
+ * allowing a failed MSP report run to be resumed without having to reload data
+ * for applications that were already processed successfully. For every such
+ * application, the SSC data loaded for that application (application version 
+ * and artifact pages) is stored in the fcli state directory, separately for 
+ * every SSC instance.</p>
+ * 
+ * <p>Checkpoints only contain raw SSC data, so resumed runs process checkpointed 
+ * data in exactly the same way as data loaded from SSC, based on the current 
+ * report configuration. However, the artifact pages stored in a checkpoint
+ * depend on the reporting period, as we stop loading artifact pages once we've
+ * reached artifacts older than the reporting period. As such, we store a hash
+ * of the relevant report parameters, and refuse to resume from checkpoints that
+ * were created with different report parameters. Checkpoints are removed once 
+ * all applications for a given SSC instance have been processed successfully, 
+ * or when starting a new run that doesn't resume from previous checkpoints.</p>
+ * 
+ * <p>To avoid having to keep all data for an application in memory, pages are 
+ * written to (or read from) the encrypted checkpoint file as they are being
+ * processed. Pages are written to a temporary file, which is only renamed to
+ * the actual checkpoint file once the application has been processed successfully.</p>
+ */
+final class MspReportSSCAppCheckpoints {
+    private static final Logger LOG = LoggerFactory.getLogger(MspReportSSCAppCheckpoints.class);
+    private final Path checkpointsPath;
+    private final boolean resume;
+    
+    /**
+     * Constructor for managing checkpoints for the given SSC URL and report parameters.
+     * @param sscUrl SSC URL for which to manage checkpoints
+     * @param reportParameters String representation of all report parameters that affect checkpoint data
+     * @param resume Whether to resume from previous checkpoints
+     */
+    MspReportSSCAppCheckpoints(String sscUrl, String reportParameters, boolean resume) {
+        this.checkpointsPath = FcliDataHelper.getFcliStatePath()
+                .resolve("license").resolve("msp-report").resolve("checkpoints").resolve(sha256(sscUrl));
+        this.resume = resume;
+        var parametersPath = checkpointsPath.resolve("parameters.txt");
+        var parametersHash = sha256(reportParameters);
+        if ( !resume ) { 
+            delete(); 
+        } else if ( FcliDataHelper.exists(checkpointsPath) && !parametersHash.equals(FcliDataHelper.readFile(parametersPath, false)) ) {
+            throw new IllegalArgumentException("Checkpoints from previous run were created with different report parameters or SSC configuration; please re-run without --resume");
+        }
+        FcliDataHelper.saveFile(parametersPath, parametersHash, false);
+    }
+    
+    /**
+     * Open the checkpoint for the given application id. If resuming from previous
+     * checkpoints and a checkpoint exists for the given application, the returned 
+     * checkpoint will provide the previously stored data. Otherwise, an empty 
+     * checkpoint is returned, to which generators should add the data loaded from
+     * SSC, and which should be committed once the application has been processed
+     * successfully.
+     */
+    final MspReportSSCAppCheckpoint open(String appId) {
+        var path = checkpointsPath.resolve(appId+".json");
+        if ( resume && FcliDataHelper.exists(path) ) {
+            try {
+                return new MspReportSSCAppCheckpoint(path, true);
+            } catch ( Exception e ) {
+                LOG.warn("Ignoring unreadable checkpoint "+path, e);
+            }
+        }
+        return new MspReportSSCAppCheckpoint(path, false);
+    }
+    
+    /**
+     * Delete all checkpoints for the current SSC instance.
+     */
+    final void delete() {
+        if ( FcliDataHelper.exists(checkpointsPath) ) {
+            FcliDataHelper.deleteDir(checkpointsPath, false);
+        }
+    }
+    
+    @SneakyThrows
+    private static final String sha256(String s) {
+        var hash = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+    
+    /**
+     * Checkpoint for a single application, either providing the (transformed) 
+     * application version pages and artifact pages loaded from a previous 
+     * checkpoint, or recording these pages for a new checkpoint. Records are
+     * stored in the order in which they are loaded: all application version 
+     * pages, followed by the artifact pages for each application version.
+     */
+    static final class MspReportSSCAppCheckpoint implements AutoCloseable {
+        private static final String APP_VERSIONS = "appVersions";
+        private static final String ARTIFACTS = "artifacts";
+        private final Path path;
+        private final Path tmpPath;
+        /** True if this checkpoint was loaded from a previous run */
+        @Getter private final boolean resumed;
+        private MappingIterator<ObjectNode> records;
+        private ObjectNode nextRecord;
+        private String currentVersionId;
+        private JsonGenerator generator;
+        
+        private MspReportSSCAppCheckpoint(Path path, boolean resumed) {
+            this.path = path;
+            this.tmpPath = path.resolveSibling(path.getFileName()+".tmp");
+            this.resumed = resumed;
+            if ( resumed ) {
+                openReader();
+            } else {
+                openWriter();
+            }
+        }
+        
+        /**
+         * Get the next application version page from a resumed checkpoint,
+         * or null if there are no more application version pages.
+         */
+        final JsonNode nextAppVersionPage() {
+            return isNextRecord(APP_VERSIONS, null) ? consumeRecord() : null;
+        }
+        
+        /**
+         * Get the next artifact page for the given application version from a
+         * resumed checkpoint, or null if there are no more artifact pages for
+         * this application version. When requesting pages for another application
+         * version, any remaining pages for the previous application version are 
+         * skipped. 
+         */
+        final JsonNode nextArtifactPage(String appVersionId) {
+            if ( !appVersionId.equals(currentVersionId) ) {
+                currentVersionId = appVersionId;
+                while ( nextRecord!=null && !isNextRecord(ARTIFACTS, appVersionId) ) { consumeRecord(); }
+            }
+            return isNextRecord(ARTIFACTS, appVersionId) ? consumeRecord() : null;
+        }
+        
+        final void addAppVersionPage(JsonNode appVersions) {
+            write(APP_VERSIONS, null, appVersions);
+        }
+        
+        final void addArtifactPage(String appVersionId, JsonNode artifacts) {
+            write(ARTIFACTS, appVersionId, artifacts);
+        }
+        
+        /**
+         * Commit a new checkpoint once the application has been processed successfully.
+         * Any errors are logged rather than thrown, as failing to store a checkpoint 
+         * only means that the application will need to be reloaded on resume.
+         */
+        final void commit() {
+            if ( generator!=null ) {
+                try {
+                    generator.close();
+                    generator = null;
+                    Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+                } catch ( IOException e ) {
+                    LOG.warn("Error saving checkpoint "+path, e);
+                    discard();
+                }
+            }
+        }
+        
+        /**
+         * Close any open files, discarding any uncommitted checkpoint data.
+         */
+        @Override
+        public final void close() {
+            if ( records!=null ) {
+                try {
+                    records.close();
+                } catch ( IOException e ) {
+                    LOG.debug("Error closing checkpoint "+path, e);
+                }
+            }
+            discard();
+        }
+        
+        @SneakyThrows
+        private void openReader() {
+            this.records = JsonHelper.getObjectMapper().readerFor(ObjectNode.class)
+                    .readValues(EncryptionHelper.decryptingInputStream(FcliDataHelper.newInputStream(path)));
+            this.nextRecord = records.hasNextValue() ? records.nextValue() : null;
+        }
+        
+        private void openWriter() {
+            try {
+                this.generator = JsonHelper.getObjectMapper().createGenerator(
+                        EncryptionHelper.encryptingOutputStream(FcliDataHelper.newOutputStream(tmpPath)));
+            } catch ( IOException e ) {
+                LOG.warn("Error creating checkpoint "+path, e);
+                discard();
+            }
+        }
+        
+        private boolean isNextRecord(String type, String appVersionId) {
+            return nextRecord!=null && type.equals(nextRecord.path("type").asText()) 
+                    && (appVersionId==null || appVersionId.equals(nextRecord.path("appVersionId").asText()));
+        }
+        
+        @SneakyThrows
+        private JsonNode consumeRecord() {
+            var result = nextRecord.get("data");
+            nextRecord = records.hasNextValue() ? records.nextValue() : null;
+            return result;
+        }
+        
+        private void write(String type, String appVersionId, JsonNode data) {
+            if ( generator!=null ) {
+                var record = JsonHelper.getObjectMapper().createObjectNode().put("type", type);
+                if ( appVersionId!=null ) { record.put("appVersionId", appVersionId); }
+                record.set("data", data);
+                try {
+                    generator.writeTree(record);
+                } catch ( IOException e ) {
+                    LOG.warn("Error writing checkpoint "+path, e);
+                    discard();
+                }
+            }
+        }
+        
+        private void discard() {
+            if ( generator!=null ) {
+                try {
+                    generator.close();
+                } catch ( IOException e ) {
+                    LOG.debug("Error closing checkpoint "+tmpPath, e);
+                }
+                generator = null;
+            }
+            if ( FcliDataHelper.exists(tmpPath) ) {
+                FcliDataHelper.deleteFile(tmpPath, false);
+            }
+        }
+    }
+}
@@ -16,15 +16,21 @@ import static com.fortify.cli.license.msp_report.generator.ssc.MspReportSSCAppVe
 import static com.fortify.cli.license.msp_report.generator.ssc.MspReportSSCAppVersionAttribute.MSP_End_Customer_Name;
 import static com.fortify.cli.license.msp_report.generator.ssc.MspReportSSCAppVersionAttribute.MSP_License_Type;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.rest.paging.PagingHelper;
+import com.fortify.cli.common.util.BoundedTaskExecutor;
 import com.fortify.cli.common.util.Break;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.license.msp_report.collector.MspReportAppScanCollector;
 import com.fortify.cli.license.msp_report.collector.MspReportResultsCollector;
 import com.fortify.cli.license.msp_report.config.MspReportSSCSourceConfig;
 import com.fortify.cli.license.msp_report.generator.AbstractMspReportUnirestResultsGenerator;
+import com.fortify.cli.license.msp_report.generator.ssc.MspReportSSCAppCheckpoints.MspReportSSCAppCheckpoint;
 import com.fortify.cli.ssc._common.rest.bulk.SSCBulkEmbedder;
 import com.fortify.cli.ssc._common.rest.helper.SSCInputTransformer;
 import com.fortify.cli.ssc._common.rest.helper.SSCPagingHelper;
@@ -39,7 +45,10 @@ import kong.unirest.HttpResponse;
 import kong.unirest.UnirestInstance;
 
 /**
- * This class is responsible for loading MSP data from SSC.
+ * This class is responsible for loading MSP data from SSC. Applications may be
+ * processed concurrently, and SSC data for every successfully processed application 
+ * is stored in a checkpoint, allowing failed runs to be resumed as described in 
+ * {@link MspReportSSCAppCheckpoints}.
  * 
  * @author rsenden
  *
@@ -59,14 +68,36 @@ public class MspReportSSCResultsGenerator extends AbstractMspReportUnirestResult
     /**
      * Primary method for running the generation process. This method validates
      * required application version attributes are correctly configured, then
-     * loads all SSC application versions pages, invoking 
-     * {@link #processAppVersionPage(HttpResponse)} for each page.
+     * loads all SSC application pages, submitting every application on each
+     * page for processing. Once all applications have been processed successfully,
+     * checkpoints for the current SSC instance are deleted.
      */
     @Override
     protected void generateResults() {
         validateSSCAttributes();
-        SSCPagingHelper.pagedRequest(unirest().get("/api/v1/projects?limit=100"))
-            .forEach(this::processAppPage);
+        var reportConfig = resultsCollector().reportConfig();
+        var checkpoints = new MspReportSSCAppCheckpoints(sourceConfig().getUrl(), getCheckpointParameters(), reportConfig.isResume());
+        var anyAppFailed = new AtomicBoolean(false);
+        try ( var executor = new BoundedTaskExecutor(resultsCollector().maxConcurrentApps()) ) {
+            PagingHelper.processPages(unirest(), unirest().get("/api/v1/projects?limit=100"), SSCPagingHelper.nextPageUrlProducer(),
+                r->processAppPage(r, app->executor.submit(()->{
+                    if ( !processApp(app, checkpoints) ) { anyAppFailed.set(true); }
+                })));
+        }
+        if ( !anyAppFailed.get() ) {
+            checkpoints.delete();
+        }
+    }
+    
+    /**
+     * Get a string representation of all parameters that affect the
+     * SSC data loaded for each application, and thus the checkpoint data.
+     */
+    private String getCheckpointParameters() {
+        var reportConfig = resultsCollector().reportConfig();
+        return String.join("|", sourceConfig().getUrl(), sourceConfig().getTokenExpression(), reportConfig.getMspName(),
+                String.valueOf(reportConfig.getContractStartDate()), String.valueOf(reportConfig.getReportingStartDate()), 
+                String.valueOf(reportConfig.getReportingEndDate()));
     }
     
     /**
@@ -82,62 +113,99 @@ public class MspReportSSCResultsGenerator extends AbstractMspReportUnirestResult
             .check(false, SSCAttributeDefinitionType.TEXT);
     }
     
-    private void processAppPage(HttpResponse<JsonNode> response) {
+    private void processAppPage(HttpResponse<JsonNode> response, Consumer<JsonNode> appProcessor) {
         var apps = ((ArrayNode)SSCInputTransformer.getDataOrSelf(response.getBody()));
-        JsonHelper.stream(apps).forEach(this::processApp);
+        JsonHelper.stream(apps).forEach(appProcessor);
     }
     
-    private void processApp(JsonNode appNode) {
+    /**
+     * Process the given application, returning true if the application was
+     * processed successfully, false otherwise. The checkpoint for a successfully
+     * processed application is committed only after the application has been
+     * reported; checkpoint errors are logged by the checkpoint itself, such that
+     * they never cause the application to be reported again as failed. 
+     */
+    private boolean processApp(JsonNode appNode, MspReportSSCAppCheckpoints checkpoints) {
         var descriptor = JsonHelper.treeToValue(appNode, MspReportSSCAppDescriptor.class);
-        resultsCollector().progressWriter().writeI18nProgress("processing.app", descriptor.getName());
-        try {
-            loadVersionsForApp(descriptor);
-            descriptor.check(resultsCollector().logger());
-            var summary = processApp(descriptor);
-            var status = descriptor.getWarnCounter().getCount()>0 
-                    ? MspReportProcessingStatus.warn
-                    : MspReportProcessingStatus.success;
-            var reason = status==MspReportProcessingStatus.warn
-                    ? "Processed with warnings"
-                    : "Successfully processed";
-            resultsCollector().appCollector()
-                .report(sourceConfig(), new MspReportSSCProcessedAppDescriptor(descriptor, status, reason, summary));
-        } catch ( Exception e ) {
-            resultsCollector().logger().error("Error Processing application %s", e, descriptor.getName());
-            resultsCollector().appCollector()
-                .report(sourceConfig(), new MspReportSSCProcessedAppDescriptor(descriptor, MspReportProcessingStatus.error, e.getMessage(), new MspReportSSCAppSummaryDescriptor()));
+        try ( var checkpoint = checkpoints.open(descriptor.getId()) ) {
+            resultsCollector().progressWriter().writeI18nProgress(checkpoint.isResumed() ? "processing.app.resumed" : "processing.app", descriptor.getName());
+            MspReportSSCProcessedAppDescriptor processedAppDescriptor;
+            try {
+                loadVersionsForApp(descriptor, checkpoint);
+                descriptor.check(resultsCollector().logger());
+                var summary = processApp(descriptor, checkpoint);
+                var status = descriptor.getWarnCounter().getCount()>0 
+                        ? MspReportProcessingStatus.warn
+                        : MspReportProcessingStatus.success;
+                var reason = status==MspReportProcessingStatus.warn
+                        ? "Processed with warnings"
+                        : "Successfully processed";
+                processedAppDescriptor = new MspReportSSCProcessedAppDescriptor(descriptor, status, reason, summary);
+            } catch ( Exception e ) {
+                resultsCollector().logger().error("Error Processing application %s", e, descriptor.getName());
+                resultsCollector().appCollector()
+                    .report(sourceConfig(), new MspReportSSCProcessedAppDescriptor(descriptor, MspReportProcessingStatus.error, e.getMessage(), new MspReportSSCAppSummaryDescriptor()));
+                return false;
+            }
+            resultsCollector().appCollector().report(sourceConfig(), processedAppDescriptor);
+            checkpoint.commit();
+            return true;
         }
     }
     
-    private void loadVersionsForApp(MspReportSSCAppDescriptor descriptor) {
-        SSCPagingHelper.pagedRequest(
-            unirest().get("/api/v1/projects/{id}/versions?limit=100")
-                .routeParam("id", descriptor.getId()))
-            .forEach(r->loadAppVersionPage(descriptor, r.getBody()));
+    private void loadVersionsForApp(MspReportSSCAppDescriptor descriptor, MspReportSSCAppCheckpoint checkpoint) {
+        if ( checkpoint.isResumed() ) {
+            for ( var appVersions=checkpoint.nextAppVersionPage() ; appVersions!=null ; appVersions=checkpoint.nextAppVersionPage() ) {
+                addAppVersions(descriptor, (ArrayNode)appVersions);
+            }
+        } else {
+            PagingHelper.processPages(unirest(), 
+                unirest().get("/api/v1/projects/{id}/versions?limit=100").routeParam("id", descriptor.getId()),
+                SSCPagingHelper.nextPageUrlProducer(),
+                r->loadAppVersionPage(descriptor, checkpoint, r.getBody()));
+        }
     }
     
-    private void loadAppVersionPage(MspReportSSCAppDescriptor appDescriptor, JsonNode body) {
+    private void loadAppVersionPage(MspReportSSCAppDescriptor appDescriptor, MspReportSSCAppCheckpoint checkpoint, JsonNode body) {
         var appVersions = appVersionBulkEmbedder.transformInput(unirest(), body);
+        checkpoint.addAppVersionPage(appVersions);
+        addAppVersions(appDescriptor, appVersions);
+    }
+    
+    private void addAppVersions(MspReportSSCAppDescriptor appDescriptor, ArrayNode appVersions) {
         JsonHelper.stream(appVersions)
             .map(node->JsonHelper.treeToValue(node, MspReportSSCAppVersionDescriptor.class))
             .forEach(versionDescriptor -> appDescriptor.addVersionDescriptor(resultsCollector().logger(), versionDescriptor));
     }
 
-    private MspReportSSCAppSummaryDescriptor processApp(MspReportSSCAppDescriptor appDescriptor) {
+    private MspReportSSCAppSummaryDescriptor processApp(MspReportSSCAppDescriptor appDescriptor, MspReportSSCAppCheckpoint checkpoint) {
         try ( var scanCollector = resultsCollector().scanCollector(sourceConfig(), appDescriptor) ) {
             appDescriptor.getVersionDescriptors()
-                .forEach(versionDescriptor->processAppVersion(versionDescriptor, scanCollector));
+                .forEach(versionDescriptor->processAppVersion(versionDescriptor, scanCollector, checkpoint));
             return scanCollector.summary();
         }
     }
     
-    private void processAppVersion(MspReportSSCAppVersionDescriptor versionDescriptor, MspReportAppScanCollector scanCollector) {
+    private void processAppVersion(MspReportSSCAppVersionDescriptor versionDescriptor, MspReportAppScanCollector scanCollector, MspReportSSCAppCheckpoint checkpoint) {
         try {
+            var versionId = versionDescriptor.getVersionId();
             var continueNextPageSupplier = new SSCContinueNextPageSupplier();
-            HttpRequest<?> req = unirest().get("/api/v1/projectVersions/{pvId}/artifacts?limit=100&embed=scans")
-                    .routeParam("pvId", versionDescriptor.getVersionId());
-            SSCPagingHelper.pagedRequest(req, continueNextPageSupplier)
-                .forEach(r->processArtifactPage(r.getBody(), versionDescriptor, scanCollector, continueNextPageSupplier));
+            if ( checkpoint.isResumed() ) {
+                for ( var artifacts=checkpoint.nextArtifactPage(versionId) ; artifacts!=null ; artifacts=checkpoint.nextArtifactPage(versionId) ) {
+                    processArtifactPage(artifacts, versionDescriptor, scanCollector, continueNextPageSupplier);
+                    if ( !continueNextPageSupplier.get() ) { break; }
+                }
+            } else {
+                // Pages are processed as soon as they have been loaded, such that no further
+                // pages are requested once continueNextPageSupplier indicates that we're done.
+                HttpRequest<?> req = unirest().get("/api/v1/projectVersions/{pvId}/artifacts?limit=100&embed=scans")
+                        .routeParam("pvId", versionId);
+                PagingHelper.processPages(unirest(), req, SSCPagingHelper.nextPageUrlProducer(continueNextPageSupplier), r->{
+                    var artifacts = SSCInputTransformer.getDataOrSelf(r.getBody());
+                    checkpoint.addArtifactPage(versionId, artifacts);
+                    processArtifactPage(artifacts, versionDescriptor, scanCollector, continueNextPageSupplier);
+                });
+            }
             resultsCollector().appVersionCollector()
                 .report(sourceConfig(), new MspReportSSCProcessedAppVersionDescriptor(versionDescriptor, MspReportProcessingStatus.success, "Successfully processed"));
         } catch ( Exception e ) {
@@ -34,4 +34,11 @@ public interface INcdReportRepositoryProcessor {
      * generate commit data for every branch in the given repository. 
      */
     <R extends INcdReportRepositoryDescriptor> void processRepository(INcdReportRepoSelectorConfig repoSelectorConfig, R repoDescriptor, INcdReportBranchCommitGenerator<R> commitGenerator);
+    
+    /**
+     * Repositories may be processed asynchronously by the {@link #processRepository(INcdReportRepoSelectorConfig, INcdReportRepositoryDescriptor, INcdReportBranchCommitGenerator)}
+     * method, so results generators must call this method to wait for all repositories to
+     * have been processed before closing any resources used by their {@link INcdReportBranchCommitGenerator}.
+     */
+    void awaitCompletion();
 }
\ No newline at end of file
@@ -67,7 +67,7 @@ final class NcdReportAuthorCollector {
         this.deduplicator = new NcdReportAuthorDeduplicator(contributorConfig);
     }
 
-    NcdReportProcessedAuthorDescriptor reportAuthor(INcdReportAuthorDescriptor descriptor) {
+    synchronized NcdReportProcessedAuthorDescriptor reportAuthor(INcdReportAuthorDescriptor descriptor) {
         return processedAuthors.computeIfAbsent(descriptor, this::processAuthorDescriptor);
     }
     
@@ -13,6 +13,7 @@
 package com.fortify.cli.license.ncd_report.collector;
 
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -55,11 +56,17 @@ import lombok.Getter;
  *  <li>name: 'First Middle Last', email: 'first.last@company.com'</li>
  * </ol>
  * 
+ * <p>For de-duplication expressions that consist of property equality checks
+ * only, like the default expression, duplicates are found through an
+ * {@link NcdReportAuthorKeyIndex}. For any other expressions, the expression
+ * is evaluated against every author that was previously added.</p>
+ * 
  * @author rsenden
  *
  */
 final class NcdReportAuthorDeduplicator {
     private final Optional<Expression> dedupeExpression;
+    private final Optional<NcdReportAuthorKeyIndex> keyIndex;
     @Getter private final ConcurrentSkipListMap<NcdReportProcessedAuthorDescriptor, Set<NcdReportProcessedAuthorDescriptor>> deduplicatedAuthors = new ConcurrentSkipListMap<>(this::compareAuthorIndex);
     
     public NcdReportAuthorDeduplicator(Optional<NcdReportContributorConfig> contributorConfig) {
@@ -67,11 +74,16 @@ final class NcdReportAuthorDeduplicator {
         this.dedupeExpression = contributorConfig
                 .flatMap(NcdReportContributorConfig::getDuplicateExpression)
                 .map(parser::parseExpression);
+        this.keyIndex = dedupeExpression.flatMap(NcdReportAuthorKeyIndex::create);
     }
     
-    final void addAuthor(NcdReportProcessedAuthorDescriptor descriptor) {
-        dedupeExpression
-            .ifPresentOrElse(expr->dedupe(descriptor, expr), ()->add(descriptor));
+    final synchronized void addAuthor(NcdReportProcessedAuthorDescriptor descriptor) {
+        if ( keyIndex.isPresent() ) {
+            dedupe(descriptor, keyIndex.get());
+        } else {
+            dedupeExpression
+                .ifPresentOrElse(expr->dedupe(descriptor, expr), ()->add(descriptor));
+        }
     }
     
     /**
@@ -103,6 +115,21 @@ final class NcdReportAuthorDeduplicator {
                 ()->add(descriptor));
     }
 
+    /**
+     * Same as {@link #dedupe(NcdReportProcessedAuthorDescriptor, Expression)}, but 
+     * finding the matching entries through the given {@link NcdReportAuthorKeyIndex}.
+     * The index returns the keys of all matching entries, ordered by author number, 
+     * so entries are merged in the same order as in the expression-based approach.
+     */
+    private void dedupe(NcdReportProcessedAuthorDescriptor descriptor, NcdReportAuthorKeyIndex keyIndex) {
+        var duplicateEntries = keyIndex.add(descriptor).stream()
+            .map(key->Map.entry(key, deduplicatedAuthors.get(key)))
+            .reduce(this::reduceDuplicates);
+        duplicateEntries.ifPresentOrElse(
+                s->s.getValue().add(descriptor),
+                ()->add(descriptor));
+    }
+
     private Entry<NcdReportProcessedAuthorDescriptor, Set<NcdReportProcessedAuthorDescriptor>> reduceDuplicates(
             Entry<NcdReportProcessedAuthorDescriptor, Set<NcdReportProcessedAuthorDescriptor>> e1,
             Entry<NcdReportProcessedAuthorDescriptor, Set<NcdReportProcessedAuthorDescriptor>> e2) {
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.license.ncd_report.collector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.license.ncd_report.descriptor.NcdReportProcessedAuthorDescriptor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * <p>This class allows for efficiently finding duplicate authors for de-duplication 
+ * expressions that consist of one or more property equality checks combined with
+ * <code>||</code>, like <code>a1.name==a2.name || a1.cleanName==a2.cleanEmailName</code>.
+ * For each of these equality checks, authors are indexed by property value, and
+ * authors that have been identified as duplicates are merged into a single group
+ * using a union-find structure. As such, finding the duplicates of a newly added 
+ * author doesn't require evaluating the de-duplication expression against every
+ * previously added author.</p>
+ * 
+ * <p>Instances of this class can only be created through the {@link #create(Expression)}
+ * method, which returns an empty {@link Optional} if the given expression cannot be 
+ * decomposed into property equality checks.</p>
+ */
+final class NcdReportAuthorKeyIndex {
+    private static final Object NULL_KEY = new Object();
+    private final List<EqualityIndex> indexes;
+    
+    private NcdReportAuthorKeyIndex(List<EqualityIndex> indexes) {
+        this.indexes = indexes;
+    }
+    
+    /**
+     * Create an {@link NcdReportAuthorKeyIndex} instance for the given expression,
+     * or return an empty {@link Optional} if the given expression cannot be 
+     * decomposed into property equality checks.
+     */
+    static final Optional<NcdReportAuthorKeyIndex> create(Expression expression) {
+        if ( !(expression instanceof SpelExpression) ) { return Optional.empty(); }
+        var parser = new SpelExpressionParser();
+        var indexes = new ArrayList<EqualityIndex>();
+        return addEqualityIndexes(parser, indexes, ((SpelExpression)expression).getAST())
+                ? Optional.of(new NcdReportAuthorKeyIndex(indexes))
+                : Optional.empty();
+    }
+    
+    /**
+     * Add the given author to this index, returning the (ordered) group roots of all 
+     * previously added authors that are duplicates of the given author. The first
+     * group root becomes the root of the given author, and of all other returned
+     * group roots.
+     */
+    final SortedSet<NcdReportProcessedAuthorDescriptor> add(NcdReportProcessedAuthorDescriptor descriptor) {
+        var node = new AuthorNode(descriptor);
+        var roots = new TreeSet<AuthorNode>(Comparator.comparingInt(n->n.descriptor.getAuthorNumber()));
+        indexes.forEach(index->index.add(node, roots));
+        if ( !roots.isEmpty() ) {
+            var root = roots.first();
+            roots.forEach(r->r.parent = root);
+            node.parent = root;
+        }
+        var result = new TreeSet<NcdReportProcessedAuthorDescriptor>(Comparator.comparingInt(NcdReportProcessedAuthorDescriptor::getAuthorNumber));
+        roots.forEach(r->result.add(r.descriptor));
+        return result;
+    }
+    
+    private static final boolean addEqualityIndexes(SpelExpressionParser parser, List<EqualityIndex> indexes, SpelNode node) {
+        if ( node instanceof OpOr ) {
+            return addEqualityIndexes(parser, indexes, node.getChild(0))
+                    && addEqualityIndexes(parser, indexes, node.getChild(1));
+        } else if ( node instanceof OpEQ ) {
+            var left = getAuthorProperty(node.getChild(0));
+            var right = getAuthorProperty(node.getChild(1));
+            if ( left==null || right==null || left[0].equals(right[0]) ) { return false; }
+            indexes.add(new EqualityIndex(parser.parseExpression(left[1]), parser.parseExpression(right[1]), left[1].equals(right[1])));
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * For nodes like <code>a1.name</code>, return a two-element array containing
+     * author variable name and property name, or null if the given node doesn't 
+     * match this structure. 
+     */
+    private static final String[] getAuthorProperty(SpelNode node) {
+        if ( node instanceof CompoundExpression && node.getChildCount()==2 
+                && node.getChild(0) instanceof PropertyOrFieldReference
+                && node.getChild(1) instanceof PropertyOrFieldReference ) {
+            var author = ((PropertyOrFieldReference)node.getChild(0)).getName();
+            var property = ((PropertyOrFieldReference)node.getChild(1)).getName();
+            if ( "a1".equals(author) || "a2".equals(author) ) {
+                return new String[] {author, property};
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Index for a single <code>a1.left==a2.right</code> equality check. As 
+     * duplicate expressions are evaluated both ways, this index matches
+     * the left property value of an author against the right property values
+     * of previously added authors, and vice versa.  
+     */
+    @RequiredArgsConstructor
+    private static final class EqualityIndex {
+        private final Expression leftProperty;
+        private final Expression rightProperty;
+        private final boolean symmetric;
+        private final Map<Object, List<AuthorNode>> leftValues = new HashMap<>();
+        private final Map<Object, List<AuthorNode>> rightValues = new HashMap<>();
+        
+        private final void add(AuthorNode node, SortedSet<AuthorNode> roots) {
+            var input = node.descriptor.getExpressionInput();
+            var leftValue = getKey(input, leftProperty);
+            if ( symmetric ) {
+                add(leftValues, leftValue, node, roots);
+            } else {
+                var rightValue = getKey(input, rightProperty);
+                collectRoots(rightValues.get(leftValue), roots);
+                collectRoots(leftValues.get(rightValue), roots);
+                leftValues.computeIfAbsent(leftValue, k->new ArrayList<>()).add(node);
+                rightValues.computeIfAbsent(rightValue, k->new ArrayList<>()).add(node);
+            }
+        }
+        
+        private static final void add(Map<Object, List<AuthorNode>> values, Object value, AuthorNode node, SortedSet<AuthorNode> roots) {
+            var nodes = values.get(value);
+            if ( nodes==null ) {
+                values.put(value, new ArrayList<>(List.of(node)));
+            } else {
+                collectRoots(nodes, roots);
+                nodes.add(node);
+            }
+        }
+        
+        /**
+         * Collect the group roots for the given matching nodes. As all of these nodes 
+         * will be merged into a single group, we only keep the first matching node to 
+         * avoid future lookups from needing to process the same (already merged) nodes 
+         * again.
+         */
+        private static final void collectRoots(List<AuthorNode> matches, SortedSet<AuthorNode> roots) {
+            if ( matches!=null && !matches.isEmpty() ) {
+                matches.forEach(m->roots.add(m.getRoot()));
+                if ( matches.size()>1 ) {
+                    var first = matches.get(0);
+                    matches.clear();
+                    matches.add(first);
+                }
+            }
+        }
+        
+        private static final Object getKey(ObjectNode input, Expression property) {
+            var value = JsonHelper.evaluateSpelExpression(input, property, Object.class);
+            return value==null ? NULL_KEY : value;
+        }
+    }
+    
+    @RequiredArgsConstructor
+    private static final class AuthorNode {
+        private final NcdReportProcessedAuthorDescriptor descriptor;
+        private AuthorNode parent = this;
+        
+        private final AuthorNode getRoot() {
+            var root = this;
+            while ( root.parent!=root ) { root = root.parent; }
+            // Path compression
+            var current = this;
+            while ( current.parent!=root ) {
+                var next = current.parent;
+                current.parent = root;
+                current = next;
+            }
+            return root;
+        }
+    }
+}
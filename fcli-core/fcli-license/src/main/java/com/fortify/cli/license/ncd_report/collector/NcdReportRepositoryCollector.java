@@ -44,7 +44,7 @@ final class NcdReportRepositoryCollector {
     private Map<NcdReportRepositoryReportingStatus, Integer> repositoryCountsByStatus = new HashMap<>();
     
     @SneakyThrows
-    void reportRepository(INcdReportRepositoryDescriptor descriptor, NcdReportRepositoryReportingStatus status, String reason) {
+    synchronized void reportRepository(INcdReportRepositoryDescriptor descriptor, NcdReportRepositoryReportingStatus status, String reason) {
         repositories.add(descriptor);
         increaseCountByStatus(status);
         writers.repositoryWriter().writeRepository(descriptor, status, reason);
@@ -56,11 +56,7 @@ final class NcdReportRepositoryCollector {
         reportRepository(descriptor, NcdReportRepositoryReportingStatus.error, e.getMessage());
     }
     
-    boolean isPreviouslyReported(INcdReportRepositoryDescriptor descriptor) {
-        return repositories.contains(descriptor);
-    }
-    
-    void writeResults() {
+    synchronized void writeResults() {
         ObjectNode repositoryCounts = JsonHelper.getObjectMapper().createObjectNode();
         repositoryCounts.put("total", repositories.size());
         Stream.of(NcdReportRepositoryReportingStatus.values())
@@ -12,8 +12,13 @@
  *******************************************************************************/
 package com.fortify.cli.license.ncd_report.collector;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.BoundedTaskExecutor;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.license.ncd_report.config.INcdReportRepoSelectorConfig;
 import com.fortify.cli.license.ncd_report.config.NcdReportConfig;
@@ -34,6 +39,12 @@ import com.fortify.cli.license.ncd_report.writer.NcdReportResultsWriters;
  * which is then further processed using {@link NcdReportRepositoryBranchCommitCollector}
  * and {@link NcdReportAuthorCollector}.
  * 
+ * If configured to process multiple repositories concurrently, repositories 
+ * are processed on a bounded thread pool; the {@link #processRepository(INcdReportRepoSelectorConfig, INcdReportRepositoryDescriptor, INcdReportBranchCommitGenerator)}
+ * method blocks until a thread becomes available, and {@link #writeResults()} 
+ * waits for all repositories to have been processed. All commit data for a 
+ * single repository is still written as a single block.
+ * 
  * TODO: We currently only support a standard include expression for all sources;
  *       potentially we need to have callback functionality to allow each source
  *       to make additional decisions as to what repositories to include or exclude,
@@ -47,15 +58,18 @@ final class NcdReportRepositoryProcessor implements INcdReportRepositoryProcesso
     private final ObjectNode summary;
     private final NcdReportRepositoryCollector repositoryCollector;
     private final NcdReportAuthorCollector authorCollector;
+    private final Set<INcdReportRepositoryDescriptor> submittedRepositories = ConcurrentHashMap.newKeySet();
+    private final BoundedTaskExecutor executor;
     
-    private int totalAnalyzedCommitCount = 0;
+    private final AtomicInteger totalAnalyzedCommitCount = new AtomicInteger();
     
-    public NcdReportRepositoryProcessor(NcdReportConfig reportConfig, NcdReportResultsWriters writers, ObjectNode summary) {
+    public NcdReportRepositoryProcessor(NcdReportConfig reportConfig, NcdReportResultsWriters writers, ObjectNode summary, int maxConcurrentRepositories) {
         this.reportConfig = reportConfig;
         this.writers = writers;
         this.summary = summary;
         this.repositoryCollector = new NcdReportRepositoryCollector(writers, summary);
         this.authorCollector = new NcdReportAuthorCollector(reportConfig, writers, summary);
+        this.executor = new BoundedTaskExecutor(maxConcurrentRepositories);
     }
     
     @Override
@@ -63,18 +77,25 @@ final class NcdReportRepositoryProcessor implements INcdReportRepositoryProcesso
             INcdReportRepoSelectorConfig repoSelectorConfig, 
             R repoDescriptor, INcdReportBranchCommitGenerator<R> commitGenerator) 
     {
-        if ( !repositoryCollector.isPreviouslyReported(repoDescriptor) ) {
-            try {
-                if ( isExcludedFork(repoDescriptor, reportConfig, repoSelectorConfig) ) {
-                    repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.excluded, "Forks not included");
-                } else if ( isExcludedByExpression(repoDescriptor, reportConfig, repoSelectorConfig) ) {
-                    repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.excluded, "Doesn't match expression");
-                } else {
-                    processRepository(repoDescriptor, commitGenerator);
-                }
-            } catch ( Exception e ) {
-                repositoryCollector.reportRepositoryError(repoDescriptor, e);
+        if ( submittedRepositories.add(repoDescriptor) ) {
+            executor.submit(()->processOrExcludeRepository(repoSelectorConfig, repoDescriptor, commitGenerator));
+        }
+    }
+    
+    private <R extends INcdReportRepositoryDescriptor> void processOrExcludeRepository(
+            INcdReportRepoSelectorConfig repoSelectorConfig, 
+            R repoDescriptor, INcdReportBranchCommitGenerator<R> commitGenerator) 
+    {
+        try {
+            if ( isExcludedFork(repoDescriptor, reportConfig, repoSelectorConfig) ) {
+                repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.excluded, "Forks not included");
+            } else if ( isExcludedByExpression(repoDescriptor, reportConfig, repoSelectorConfig) ) {
+                repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.excluded, "Doesn't match expression");
+            } else {
+                processRepository(repoDescriptor, commitGenerator);
             }
+        } catch ( Exception e ) {
+            repositoryCollector.reportRepositoryError(repoDescriptor, e);
         }
     }
 
@@ -85,12 +106,20 @@ final class NcdReportRepositoryProcessor implements INcdReportRepositoryProcesso
         if ( branchCommitsCollector.isEmpty() ) {
             repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.empty, "No commits found");
         } else {
-            branchCommitsCollector.writeResults(writers);
-            totalAnalyzedCommitCount+=branchCommitsCollector.getTotalCommitCount();
+            // Make sure that commit data for different repositories doesn't get interleaved
+            synchronized (writers) {
+                branchCommitsCollector.writeResults(writers);
+            }
+            totalAnalyzedCommitCount.addAndGet(branchCommitsCollector.getTotalCommitCount());
             repositoryCollector.reportRepository(repoDescriptor, NcdReportRepositoryReportingStatus.included, "Matches all criteria");
         }
     }
 
+    @Override
+    public void awaitCompletion() {
+        executor.awaitCompletion();
+    }
+    
     private boolean isExcludedFork(INcdReportRepositoryDescriptor repoDescriptor, NcdReportConfig reportConfig, INcdReportRepoSelectorConfig repoSelector) {
         return repoDescriptor.isFork() && isExcludeForks(reportConfig, repoSelector);
     }
@@ -108,9 +137,10 @@ final class NcdReportRepositoryProcessor implements INcdReportRepositoryProcesso
     }
     
     void writeResults() {
+        executor.close();
         repositoryCollector.writeResults();
         summary.set("commitCount", JsonHelper.getObjectMapper().createObjectNode()
-                .put("analyzed", totalAnalyzedCommitCount));
+                .put("analyzed", totalAnalyzedCommitCount.get()));
         authorCollector.writeResults();
     }
 }
@@ -17,6 +17,7 @@ import com.fortify.cli.common.report.collector.IReportResultsCollector;
 import com.fortify.cli.common.report.logger.IReportLogger;
 import com.fortify.cli.common.report.logger.ReportLogger;
 import com.fortify.cli.common.report.writer.IReportWriter;
+import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.license.ncd_report.cli.cmd.NcdReportCreateCommand;
 import com.fortify.cli.license.ncd_report.config.NcdReportConfig;
 import com.fortify.cli.license.ncd_report.writer.NcdReportResultsWriters;
@@ -37,18 +38,26 @@ import lombok.experimental.Accessors;
  */
 @Accessors(fluent = true)
 public final class NcdReportResultsCollector implements IReportResultsCollector {
+    public static final String ENVNAME_THREADS = "FCLI_NCD_REPORT_THREADS";
     @Getter private final NcdReportConfig reportConfig;
     @Getter private final IProgressWriterI18n progressWriter;
     private final IReportWriter reportWriter;
     private final NcdReportResultsWriters writers;
     private final NcdReportRepositoryProcessor repositoryProcessor;
+    /** Maximum number of repositories to be processed concurrently */
+    @Getter private final int maxConcurrentRepositories;
     
     public NcdReportResultsCollector(NcdReportConfig reportConfig, IReportWriter reportWriter, IProgressWriterI18n progressWriter) {
         this.reportConfig = reportConfig;
         this.progressWriter = progressWriter;
         this.reportWriter = reportWriter;
         this.writers = new NcdReportResultsWriters(reportWriter, progressWriter);
-        this.repositoryProcessor = new NcdReportRepositoryProcessor(reportConfig, writers, reportWriter.summary());
+        this.maxConcurrentRepositories = getMaxConcurrentRepositories();
+        this.repositoryProcessor = new NcdReportRepositoryProcessor(reportConfig, writers, reportWriter.summary(), maxConcurrentRepositories);
+    }
+    
+    private static final int getMaxConcurrentRepositories() {
+        return Math.max(1, EnvHelper.envAsInteger(ENVNAME_THREADS, 1));
     }
     
     /**
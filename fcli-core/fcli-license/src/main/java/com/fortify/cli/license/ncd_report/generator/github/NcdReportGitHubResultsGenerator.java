@@ -15,12 +15,15 @@ package com.fortify.cli.license.ncd_report.generator.github;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.rest.github.GitHubPagingHelper;
+import com.fortify.cli.common.rest.paging.PagingHelper;
+import com.fortify.cli.common.rest.unirest.config.UnirestRateLimitConfigurer;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.license.ncd_report.collector.INcdReportRepositoryBranchCommitCollector;
 import com.fortify.cli.license.ncd_report.collector.INcdReportRepositoryProcessor;
@@ -60,7 +63,11 @@ public class NcdReportGitHubResultsGenerator extends AbstractNcdReportUnirestRes
      */
     @Override
     protected void generateResults() {
-        Stream.of(sourceConfig().getOrganizations()).forEach(this::generateResults);
+        try {
+            Stream.of(sourceConfig().getOrganizations()).forEach(this::generateResults);
+        } finally {
+            resultsCollector().repositoryProcessor().awaitCompletion();
+        }
     }
     
     /**
@@ -132,21 +139,21 @@ public class NcdReportGitHubResultsGenerator extends AbstractNcdReportUnirestRes
     private boolean generateCommitDataForBranches(INcdReportRepositoryBranchCommitCollector branchCommitCollector, NcdReportGitHubRepositoryDescriptor repoDescriptor, List<NcdReportGitHubBranchDescriptor> branchDescriptors) {
         String since = resultsCollector().reportConfig().getCommitOffsetDateTime()
                 .format(DateTimeFormatter.ISO_INSTANT);
-        boolean commitsFound = false;
+        var commitsFound = new AtomicBoolean(false);
         for ( var branchDescriptor : branchDescriptors ) {
             resultsCollector().progressWriter().writeI18nProgress("fcli.license.ncd-report.loading.branch-commits", repoDescriptor.getFullName(), branchDescriptor.getName());
             HttpRequest<?> req = getCommitsRequest(repoDescriptor, branchDescriptor, 100)
                     .queryString("since", since);
             
-            List<ArrayNode> bodies = GitHubPagingHelper.pagedRequest(req, ArrayNode.class).getBodies();
-            for ( ArrayNode body : bodies ) {
-                for ( JsonNode commit : body ) {
-                    commitsFound = true;
+            // Process commits page by page, rather than loading all pages into memory first
+            PagingHelper.processPages(req, GitHubPagingHelper.nextPageUrlProducer(), r->{
+                for ( JsonNode commit : r.getBody() ) {
+                    commitsFound.set(true);
                     addCommit(branchCommitCollector, repoDescriptor, branchDescriptor, commit);
                 }
-            }
+            });
         }
-        return commitsFound;
+        return commitsFound.get();
     }
     
     /**
@@ -202,10 +209,13 @@ public class NcdReportGitHubResultsGenerator extends AbstractNcdReportUnirestRes
     /**
      * Optionally configure an Authorization header to the configuration
      * of the given {@link UnirestInstance}, based on the optional
-     * tokenExpression provided in the source configuration. 
+     * tokenExpression provided in the source configuration, and 
+     * configure rate limit handling.
      */
     @Override
     protected void configure(UnirestInstance unirest) {
+        // Every concurrently processed repository may have a request in progress
+        UnirestRateLimitConfigurer.configure(unirest, "X-RateLimit-Remaining", "X-RateLimit-Reset", resultsCollector().maxConcurrentRepositories());
         String tokenExpression = sourceConfig().getTokenExpression();
         if ( StringUtils.isNotBlank(tokenExpression) ) {
             // TODO Doesn't really make sense to use this method with null input object
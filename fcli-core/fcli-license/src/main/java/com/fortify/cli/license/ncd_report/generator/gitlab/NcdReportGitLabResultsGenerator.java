@@ -15,6 +15,7 @@ package com.fortify.cli.license.ncd_report.generator.gitlab;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -22,6 +23,8 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.rest.github.GitHubPagingHelper;
 import com.fortify.cli.common.rest.gitlab.GitLabPagingHelper;
+import com.fortify.cli.common.rest.paging.PagingHelper;
+import com.fortify.cli.common.rest.unirest.config.UnirestRateLimitConfigurer;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.license.ncd_report.collector.INcdReportRepositoryBranchCommitCollector;
 import com.fortify.cli.license.ncd_report.collector.INcdReportRepositoryProcessor;
@@ -62,7 +65,11 @@ public class NcdReportGitLabResultsGenerator extends AbstractNcdReportUnirestRes
      */
     @Override
     protected void generateResults() {
-        Stream.of(sourceConfig().getGroups()).forEach(this::generateResults);
+        try {
+            Stream.of(sourceConfig().getGroups()).forEach(this::generateResults);
+        } finally {
+            resultsCollector().repositoryProcessor().awaitCompletion();
+        }
     }
     
     /**
@@ -138,21 +145,21 @@ public class NcdReportGitLabResultsGenerator extends AbstractNcdReportUnirestRes
     private boolean generateCommitDataForBranches(INcdReportRepositoryBranchCommitCollector branchCommitCollector, NcdReportGitLabRepositoryDescriptor repoDescriptor, List<NcdReportGitLabBranchDescriptor> branchDescriptors) {
         String since = resultsCollector().reportConfig().getCommitOffsetDateTime()
                 .format(DateTimeFormatter.ISO_INSTANT);
-        boolean commitsFound = false;
+        var commitsFound = new AtomicBoolean(false);
         for ( var branchDescriptor : branchDescriptors ) {
             resultsCollector().progressWriter().writeI18nProgress("fcli.license.ncd-report.loading.branch-commits", repoDescriptor.getFullName(), branchDescriptor.getName());
             HttpRequest<?> req = getCommitsRequest(repoDescriptor, branchDescriptor, 100)
                     .queryString("since", since);
             
-            List<ArrayNode> bodies = GitHubPagingHelper.pagedRequest(req, ArrayNode.class).getBodies();
-            for ( ArrayNode body : bodies ) {
-                for ( JsonNode commit : body ) {
-                    commitsFound = true;
+            // Process commits page by page, rather than loading all pages into memory first
+            PagingHelper.processPages(req, GitHubPagingHelper.nextPageUrlProducer(), r->{
+                for ( JsonNode commit : r.getBody() ) {
+                    commitsFound.set(true);
                     addCommit(branchCommitCollector, repoDescriptor, branchDescriptor, commit);
                 }
-            }
+            });
         }
-        return commitsFound;
+        return commitsFound.get();
     }
     
     /**
@@ -205,10 +212,13 @@ public class NcdReportGitLabResultsGenerator extends AbstractNcdReportUnirestRes
     /**
      * Optionally configure an Authorization header to the configuration
      * of the given {@link UnirestInstance}, based on the optional
-     * tokenExpression provided in the source configuration. 
+     * tokenExpression provided in the source configuration, and 
+     * configure rate limit handling.
      */
     @Override
     protected void configure(UnirestInstance unirest) {
+        // Every concurrently processed repository may have a request in progress
+        UnirestRateLimitConfigurer.configure(unirest, "RateLimit-Remaining", "RateLimit-Reset", resultsCollector().maxConcurrentRepositories());
         String tokenExpression = sourceConfig().getTokenExpression();
         if ( StringUtils.isNotBlank(tokenExpression) ) {
             // TODO Doesn't really make sense to use this method with null input object
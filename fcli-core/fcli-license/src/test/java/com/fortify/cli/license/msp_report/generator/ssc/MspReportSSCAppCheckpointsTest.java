@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.license.msp_report.generator.ssc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
+
+public class MspReportSSCAppCheckpointsTest {
+    private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final String SSC_URL = "https://ssc.example.com";
+    @TempDir private Path dataDir;
+    
+    @BeforeEach
+    public void setDataDir() {
+        System.setProperty(DATA_DIR_PROPERTY, dataDir.toString());
+    }
+    
+    @AfterEach
+    public void clearDataDir() {
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+    
+    @Test
+    public void testResumeCommittedCheckpoint() throws Exception {
+        var checkpoints = new MspReportSSCAppCheckpoints(SSC_URL, "params", false);
+        try ( var checkpoint = checkpoints.open("1") ) {
+            assertFalse(checkpoint.isResumed());
+            checkpoint.addAppVersionPage(page("v1", "v2"));
+            checkpoint.addArtifactPage("v1", page("a1"));
+            checkpoint.addArtifactPage("v1", page("a2"));
+            checkpoint.addArtifactPage("v2", page("a3"));
+            checkpoint.commit();
+        }
+        try ( var checkpoint = new MspReportSSCAppCheckpoints(SSC_URL, "params", true).open("1") ) {
+            assertTrue(checkpoint.isResumed());
+            assertEquals(page("v1", "v2"), checkpoint.nextAppVersionPage());
+            assertNull(checkpoint.nextAppVersionPage());
+            // Only consume first page for v1; remaining page should be skipped
+            assertEquals(page("a1"), checkpoint.nextArtifactPage("v1"));
+            assertEquals(page("a3"), checkpoint.nextArtifactPage("v2"));
+            assertNull(checkpoint.nextArtifactPage("v2"));
+        }
+    }
+    
+    @Test
+    public void testUncommittedCheckpointIsDiscarded() throws Exception {
+        var checkpoints = new MspReportSSCAppCheckpoints(SSC_URL, "params", false);
+        try ( var checkpoint = checkpoints.open("1") ) {
+            checkpoint.addAppVersionPage(page("v1"));
+        }
+        try ( var checkpoint = new MspReportSSCAppCheckpoints(SSC_URL, "params", true).open("1") ) {
+            assertFalse(checkpoint.isResumed());
+        }
+    }
+    
+    @Test
+    public void testResumeWithDifferentParametersFails() throws Exception {
+        new MspReportSSCAppCheckpoints(SSC_URL, "params", false);
+        assertThrows(IllegalArgumentException.class, ()->new MspReportSSCAppCheckpoints(SSC_URL, "otherParams", true));
+        // A new run without --resume should succeed
+        new MspReportSSCAppCheckpoints(SSC_URL, "otherParams", false);
+    }
+    
+    private static final JsonNode page(String... ids) {
+        var result = objectMapper.createArrayNode();
+        for ( var id : ids ) { result.addObject().put("id", id); }
+        return result;
+    }
+}
@@ -12,13 +12,19 @@
  *******************************************************************************/
 package com.fortify.cli.license.ncd_report.collector;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.license.ncd_report.config.NcdReportContributorConfig;
@@ -55,6 +61,31 @@ public class NcdReportAuthorDeduplicatorTest {
         deduplicatedAuthors.values().forEach(s->Assertions.assertEquals(descriptors.length-1, s.size(), "Unexpected size for duplicates set"));
     }
     
+    @Test
+    public void testIndexedDedupeMatchesExpressionDedupe() {
+        // First expression is handled by NcdReportAuthorKeyIndex, second expression is equivalent but
+        // cannot be decomposed into equality checks, so is evaluated against every previous author.
+        var parser = new SpelExpressionParser();
+        Assertions.assertTrue(NcdReportAuthorKeyIndex.create(parser.parseExpression("a1.name==a2.email || a1.email==a2.email")).isPresent());
+        Assertions.assertTrue(NcdReportAuthorKeyIndex.create(parser.parseExpression("(a1.name==a2.email || a1.email==a2.email) && true")).isEmpty());
+        var indexed = getDeduplicatedAuthorNumbers("a1.name==a2.email || a1.email==a2.email");
+        var expression = getDeduplicatedAuthorNumbers("(a1.name==a2.email || a1.email==a2.email) && true");
+        Assertions.assertEquals(expression, indexed, "Indexed de-duplication results differ from expression-based de-duplication");
+    }
+    
+    private Map<Integer, List<Integer>> getDeduplicatedAuthorNumbers(String duplicateExpression) {
+        var random = new Random(1);
+        var descriptors = IntStream.rangeClosed(1, 200)
+                .mapToObj(i->get(new AuthorDescriptor("user"+random.nextInt(300), "user"+random.nextInt(300)), i))
+                .toArray(NcdReportProcessedAuthorDescriptor[]::new);
+        var config = new NcdReportContributorConfig();
+        config.setDuplicateExpression(Optional.of(duplicateExpression));
+        var result = new LinkedHashMap<Integer, List<Integer>>();
+        getDeduplicatedAuthors(Optional.of(config), descriptors).forEach((k,v)->result.put(k.getAuthorNumber(), 
+                v.stream().map(NcdReportProcessedAuthorDescriptor::getAuthorNumber).collect(Collectors.toList())));
+        return result;
+    }
+    
     private Map<NcdReportProcessedAuthorDescriptor, Set<NcdReportProcessedAuthorDescriptor>> getDeduplicatedAuthors(Optional<NcdReportContributorConfig> config, NcdReportProcessedAuthorDescriptor[] descriptors) {
         NcdReportAuthorDeduplicator deduplicator = new NcdReportAuthorDeduplicator(config);
         Stream.of(descriptors).forEach(deduplicator::addAuthor);
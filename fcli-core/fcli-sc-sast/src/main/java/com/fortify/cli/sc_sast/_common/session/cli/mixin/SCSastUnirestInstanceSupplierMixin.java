@@ -27,12 +27,12 @@ public class SCSastUnirestInstanceSupplierMixin extends AbstractSessionDescripto
     }
     
     public final UnirestInstance getSscUnirestInstance() {
-        return GenericUnirestFactory.getUnirestInstance("sc-sast/ssc/"+getSessionName(),
+        return GenericUnirestFactory.getSessionUnirestInstance("sc-sast/ssc/"+getSessionName(),
                 u->SCSastUnirestHelper.configureSscUnirestInstance(u, getSessionDescriptor()));
     }
 
     public final UnirestInstance getControllerUnirestInstance() {
-        return GenericUnirestFactory.getUnirestInstance("sc-sast/ctrl/"+getSessionName(),
+        return GenericUnirestFactory.getSessionUnirestInstance("sc-sast/ctrl/"+getSessionName(),
                 u->SCSastUnirestHelper.configureScSastControllerUnirestInstance(u, getSessionDescriptor()));
     }
 }
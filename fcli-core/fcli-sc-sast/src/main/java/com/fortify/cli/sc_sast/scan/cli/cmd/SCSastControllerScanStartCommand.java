@@ -13,23 +13,24 @@
 package com.fortify.cli.sc_sast.scan.cli.cmd;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
 import java.util.regex.Pattern;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.progress.cli.mixin.ProgressWriterFactoryMixin;
+import com.fortify.cli.common.rest.upload.FileUploader;
+import com.fortify.cli.common.rest.upload.MultipartFileUploadProtocol;
+import com.fortify.cli.common.rest.upload.PipedUploadInputStream;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.sc_sast._common.output.cli.cmd.AbstractSCSastControllerJsonNodeOutputCommand;
 import com.fortify.cli.sc_sast.scan.cli.mixin.SCSastScanStartOptionsArgGroup;
+import com.fortify.cli.sc_sast.scan.helper.SCSastControllerJobPackageWriter;
 import com.fortify.cli.sc_sast.scan.helper.SCSastControllerJobType;
 import com.fortify.cli.sc_sast.scan.helper.SCSastControllerScanJobHelper;
 import com.fortify.cli.sc_sast.scan.helper.SCSastControllerScanJobHelper.StatusEndpointVersion;
@@ -55,6 +56,7 @@ public final class SCSastControllerScanStartCommand extends AbstractSCSastContro
     @Option(names = "--notify") private String email; // TODO Add email address validation
     @Mixin private SCSastSensorPoolResolverMixin.OptionalOption sensorPoolResolver;
     @Mixin private PublishToAppVersionResolverMixin sscAppVersionResolver;
+    @Mixin private ProgressWriterFactoryMixin progressWriterFactory;
     @Option(names = "--ssc-ci-token") private String ciToken;
 	@Option(names = { "--sargs", "--scan-args" })
 	private String scanArguments = "";
@@ -63,24 +65,27 @@ public final class SCSastControllerScanStartCommand extends AbstractSCSastContro
     public final JsonNode getJsonNode(UnirestInstance unirest) {
         String sensorVersion = normalizeSensorVersion(optionsProvider.getScanStartOptions().getSensorVersion());
         var scanArgsHelper = ScanArgsHelper.parse(scanArguments);
-        MultipartBody body = unirest.post("/rest/v2/job")
-            .multiPartContent()
-            .field("zipFile", createZipFile(scanArgsHelper.getInputFileToZipEntryMap()), "application/zip")
-            .field("username", userName, "text/plain")
-            .field("scaVersion", sensorVersion, "text/plain")
-            .field("clientVersion", sensorVersion, "text/plain")
-            .field("jobType", optionsProvider.getScanStartOptions().getJobType().name(), "text/plain")
-            .field("scaRuntimeArgs", scanArgsHelper.getScanArgs(), "text/plain");
+        var scanStartOptions = optionsProvider.getScanStartOptions();
+        Map<String, String> optionalFields = new LinkedHashMap<>();
+        optionalFields.put("email", email);
+        optionalFields.put("buildId", scanStartOptions.getBuildId());
+        optionalFields.put("pvId", getAppVersionId());
+        optionalFields.put("poolUuid", getSensorPoolUuid());
+        optionalFields.put("uploadToken", getUploadToken());
+        optionalFields.put("dotNetRequired", String.valueOf(scanStartOptions.isDotNetRequired()));
+        optionalFields.put("dotNetFrameworkRequiredVersion", scanStartOptions.getDotNetVersion());
         
-        body = updateBody(body, "email", email);
-        body = updateBody(body, "buildId", optionsProvider.getScanStartOptions().getBuildId());
-        body = updateBody(body, "pvId", getAppVersionId());
-        body = updateBody(body, "poolUuid", getSensorPoolUuid());
-        body = updateBody(body, "uploadToken", getUploadToken());
-        body = updateBody(body, "dotNetRequired", String.valueOf(optionsProvider.getScanStartOptions().isDotNetRequired()));
-        body = updateBody(body, "dotNetFrameworkRequiredVersion", optionsProvider.getScanStartOptions().getDotNetVersion());
-
-        JsonNode response = body.asObject(JsonNode.class).getBody();
+        JsonNode response = submitJob(unirest, createJobPackageEntries(scanArgsHelper.getInputFileToZipEntryMap()), body->{
+            body = body.field("username", userName, "text/plain")
+                .field("scaVersion", sensorVersion, "text/plain")
+                .field("clientVersion", sensorVersion, "text/plain")
+                .field("jobType", scanStartOptions.getJobType().name(), "text/plain")
+                .field("scaRuntimeArgs", scanArgsHelper.getScanArgs(), "text/plain");
+            for ( var e : optionalFields.entrySet() ) {
+                body = updateBody(body, e.getKey(), e.getValue());
+            }
+            return body;
+        });
         if ( !response.has("token") ) {
             throw new IllegalStateException("Unexpected response when submitting scan job: "+response);
         }
@@ -145,34 +150,40 @@ public final class SCSastControllerScanStartCommand extends AbstractSCSastContro
         return StringUtils.isBlank(value) ? body : body.field(field, value, "text/plain");
     }
     
-    private File createZipFile(Map<File, String> extraFiles) {
-        try {
-            File zipFile = File.createTempFile("zip", ".zip");
-            zipFile.deleteOnExit();
-            try (FileOutputStream fout = new FileOutputStream(zipFile); ZipOutputStream zout = new ZipOutputStream(fout)) {
-                final String fileName = (optionsProvider.getScanStartOptions().getJobType() == SCSastControllerJobType.TRANSLATION_AND_SCAN_JOB) ? "translation.zip" : "session.mbs";
-                addFile( zout, fileName, optionsProvider.getScanStartOptions().getPayloadFile());
-                
-                for (var extraFile : extraFiles.entrySet() ) {
-                	addFile(zout, extraFile.getValue(), extraFile.getKey());
-				}
-            }
-            return zipFile;
-        } catch (IOException e) {
-            throw new RuntimeException("Error creating job file", e);
+    /**
+     * Submit the scan job, streaming the job package directly into the request body
+     * while it's being generated, rather than first writing it to a temporary file.
+     * As the job package can only be read once, the request is not retried.
+     */
+    private JsonNode submitJob(UnirestInstance unirest, Map<String, File> jobPackageEntries, UnaryOperator<MultipartBody> bodyUpdater) {
+        try ( var progressWriter = progressWriterFactory.create() ) {
+            return FileUploader.uploadContents("job.zip", MultipartFileUploadProtocol.<JsonNode>builder()
+                    .requestSupplier(()->unirest.post("/rest/v2/job"))
+                    .fieldName("zipFile")
+                    .contentType("application/zip")
+                    .contentSupplier(()->new PipedUploadInputStream("fcli-sc-sast-job-package", new SCSastControllerJobPackageWriter(jobPackageEntries)))
+                    .bodyUpdater(bodyUpdater)
+                    .responseFunction(b->b.asObject(JsonNode.class))
+                    .build(), progressWriter);
         }
     }
-
-	private void addFile(ZipOutputStream zout, String fileName, File file) throws IOException {
-        try ( FileInputStream in = new FileInputStream(file)) {
-            zout.putNextEntry(new ZipEntry(fileName));
-            byte[] buffer = new byte[1024];
-            int len;
-            while ((len = in.read(buffer)) > 0) {
-                zout.write(buffer, 0, len);
-            }
-            zout.closeEntry();
+    
+    private Map<String, File> createJobPackageEntries(Map<File, String> extraFiles) {
+        Map<String, File> result = new LinkedHashMap<>();
+        final String fileName = (optionsProvider.getScanStartOptions().getJobType() == SCSastControllerJobType.TRANSLATION_AND_SCAN_JOB) ? "translation.zip" : "session.mbs";
+        var payloadFile = optionsProvider.getScanStartOptions().getPayloadFile();
+        if ( !payloadFile.canRead() ) {
+            throw new IllegalArgumentException("Can't read payload file "+payloadFile.getPath());
         }
+        result.put(fileName, payloadFile);
+        extraFiles.forEach((file, entryName)->{
+            var existingFile = result.putIfAbsent(entryName, file);
+            if ( existingFile!=null ) {
+                throw new IllegalArgumentException(String.format("Files %s and %s would both be stored as %s in the job package; please rename one of these files", 
+                        existingFile.getPath(), file.getPath(), entryName));
+            }
+        });
+        return result;
     }
 
     private static final class PublishToAppVersionResolverMixin extends AbstractSSCAppVersionResolverMixin {
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.sc_sast.scan.helper;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.fortify.cli.common.rest.upload.PipedUploadInputStream.IContentWriter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * This class writes a ScanCentral SAST job package, containing the translation
+ * payload and any additional input files, as a zip archive to a given {@link OutputStream}.
+ * Together with {@link com.fortify.cli.common.rest.upload.PipedUploadInputStream}, this 
+ * allows the package to be streamed directly into the job submission request, rather 
+ * than first writing the full package to a temporary file. Files are copied using a 
+ * large buffer, and files that are already compressed, like MBS files and translation 
+ * zip files, are written without compression, as compressing them again takes a lot 
+ * of CPU time for hardly any size reduction.
+ */
+@RequiredArgsConstructor
+public final class SCSastControllerJobPackageWriter implements IContentWriter {
+    private static final int BUFFER_SIZE = 1024*1024;
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "mbs", "zip", "jar", "war", "ear", "apk", "aar", "nupkg", "whl", 
+            "gz", "tgz", "bz2", "xz", "7z", "fpr");
+    /** Zip entry names and corresponding files, in the order in which they should be written */
+    private final Map<String, File> entries;
+    
+    @Override
+    public void write(OutputStream out) throws IOException {
+        var bufferedOut = new BufferedOutputStream(out, BUFFER_SIZE);
+        var zout = new ZipOutputStream(bufferedOut);
+        var buffer = new byte[BUFFER_SIZE];
+        for ( var entry : entries.entrySet() ) {
+            var file = entry.getValue();
+            // Stored entries would require calculating the CRC up front, requiring an 
+            // additional pass over the file, so instead we use deflate without compression.
+            zout.setLevel(isCompressed(entry.getKey()) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            zout.putNextEntry(new ZipEntry(entry.getKey()));
+            try ( InputStream in = Files.newInputStream(file.toPath()) ) {
+                int len;
+                while ( (len = in.read(buffer)) > 0 ) {
+                    zout.write(buffer, 0, len);
+                }
+            }
+            zout.closeEntry();
+        }
+        zout.finish();
+        bufferedOut.flush();
+    }
+    
+    private static final boolean isCompressed(String entryName) {
+        var name = entryName.toLowerCase(Locale.ROOT);
+        var idx = name.lastIndexOf('.');
+        return idx>=0 && COMPRESSED_EXTENSIONS.contains(name.substring(idx+1));
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.sc_sast.scan.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.rest.upload.PipedUploadInputStream;
+
+public class SCSastControllerJobPackageWriterTest {
+    @TempDir Path tempDir;
+    
+    @Test
+    public void testPackageContents() throws Exception {
+        var entries = new LinkedHashMap<String, File>();
+        entries.put("translation.zip", createFile("payload.zip", 2*1024*1024));
+        entries.put("filter.txt", createFile("filter.txt", 100));
+        var writer = new SCSastControllerJobPackageWriter(entries);
+        try ( var in = new ZipInputStream(new PipedUploadInputStream("test-job-package", writer)) ) {
+            for ( var entry : entries.entrySet() ) {
+                assertEquals(entry.getKey(), in.getNextEntry().getName());
+                assertArrayEquals(Files.readAllBytes(entry.getValue().toPath()), in.readAllBytes());
+            }
+            assertNull(in.getNextEntry());
+        }
+    }
+    
+    @Test
+    public void testWriterExceptionPropagatesToReader() throws Exception {
+        var entries = new LinkedHashMap<String, File>();
+        entries.put("session.mbs", createFile("session.mbs", 1024));
+        entries.put("missing.txt", tempDir.resolve("missing.txt").toFile());
+        var writer = new SCSastControllerJobPackageWriter(entries);
+        try ( var in = new PipedUploadInputStream("test-job-package", writer) ) {
+            var e = assertThrows(IOException.class, in::readAllBytes);
+            assertTrue(e.getCause() instanceof NoSuchFileException);
+        }
+    }
+    
+    @Test
+    public void testWriterTerminatesWhenReaderCloses() throws Exception {
+        var entries = new LinkedHashMap<String, File>();
+        entries.put("translation.zip", createFile("payload.zip", 16*1024*1024));
+        var threadName = "test-job-package-"+System.nanoTime();
+        var in = new PipedUploadInputStream(threadName, new SCSastControllerJobPackageWriter(entries));
+        assertEquals(1024, in.readNBytes(1024).length);
+        var thread = Thread.getAllStackTraces().keySet().stream()
+                .filter(t->t.getName().equals(threadName)).findFirst().orElseThrow();
+        in.close();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(thread.isAlive());
+    }
+    
+    private File createFile(String name, int length) throws IOException {
+        var contents = new byte[length];
+        for ( int i = 0 ; i < length ; i++ ) { contents[i] = (byte)(i%251); }
+        return Files.write(tempDir.resolve(name), contents).toFile();
+    }
+}
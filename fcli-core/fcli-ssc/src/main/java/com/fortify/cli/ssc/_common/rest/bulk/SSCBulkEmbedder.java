@@ -19,6 +19,7 @@ import java.util.stream.Stream;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.ssc._common.rest.helper.SSCInputTransformer;
 
 import kong.unirest.UnirestInstance;
@@ -28,12 +29,19 @@ import kong.unirest.UnirestInstance;
  * as constructor argument(s), storing the {@link ISSCEntityEmbedder} instances
  * generated by these suppliers, to provide the {@link #transformInput(UnirestInstance, JsonNode)}
  * method that builds and executes a bulk request for inserting embedded data
- * into each JSON node contained in the given input.
+ * into each JSON node contained in the given input. As embed requests are 
+ * independent of each other, they are split into multiple bulk requests that 
+ * are executed concurrently; batch size and concurrency can be configured through
+ * the FCLI_SSC_BULK_BATCH_SIZE and FCLI_SSC_BULK_THREADS environment variables.
  *  
  * @author rsenden
  *
  */
 public class SSCBulkEmbedder {
+    public static final String ENVNAME_BATCH_SIZE = "FCLI_SSC_BULK_BATCH_SIZE";
+    public static final String ENVNAME_THREADS = "FCLI_SSC_BULK_THREADS";
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_THREADS = 4;
     private final Collection<ISSCEntityEmbedder> embedders;
     
     public SSCBulkEmbedder(ISSCEntityEmbedderSupplier... suppliers) {
@@ -48,7 +56,9 @@ public class SSCBulkEmbedder {
                 ? (ArrayNode) data
                 : JsonHelper.toArrayNode(data);
         if ( embedders!=null ) {
-            SSCBulkRequestBuilder builder = new SSCBulkRequestBuilder();
+            SSCBulkRequestBuilder builder = new SSCBulkRequestBuilder()
+                    .batchSize(EnvHelper.envAsInteger(ENVNAME_BATCH_SIZE, DEFAULT_BATCH_SIZE))
+                    .maxConcurrentBatches(EnvHelper.envAsInteger(ENVNAME_THREADS, DEFAULT_THREADS));
             for ( var record : records ) {
                 embedders.forEach(u->u.addEmbedRequests(builder, unirest, record));
             }
@@ -12,31 +12,76 @@
  *******************************************************************************/
 package com.fortify.cli.ssc._common.rest.bulk;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.util.RawValue;
-import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.rest.unirest.UnexpectedHttpResponseException;
+import com.fortify.cli.common.util.ConcurrencyHelper;
 
 import kong.unirest.Body;
+import kong.unirest.HttpMethod;
 import kong.unirest.HttpRequest;
+import kong.unirest.RawResponse;
 import kong.unirest.UnirestInstance;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
 
 /**
- * This class allows for building and executing SSC bulk requests
+ * This class allows for building and executing SSC bulk requests. By default,
+ * all requests are sent in a single bulk request, which SSC executes sequentially
+ * in the order that the requests were added. For independent requests, like requests
+ * for embedding additional data into records, the {@link #batchSize(int)} and 
+ * {@link #maxConcurrentBatches(int)} methods allow for splitting the requests into 
+ * multiple, smaller bulk requests that are executed concurrently. Either way, 
+ * consumers are invoked in the order that the requests were added.
  */
 public class SSCBulkRequestBuilder {
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Pattern BULK_URL_PATTERN = Pattern.compile("/api/v1/bulk(\\?.*)?$");
     private final ArrayNode requests = objectMapper.createArrayNode();
     private final Map<String,Integer> nameToIndexMap = new HashMap<>();
     private final Map<String, Consumer<JsonNode>> consumers = new LinkedHashMap<>();
+    private int batchSize = 0;
+    private int maxConcurrentBatches = 1;
+    
+    /**
+     * Configure the maximum number of requests to be sent in a single bulk request.
+     * Values smaller than 1 (default) send all requests in a single bulk request. This
+     * should only be configured if requests don't depend on the results of any earlier
+     * requests, as requests in different batches may be executed in any order.
+     * @param batchSize Maximum number of requests per bulk request
+     * @return Self for chaining
+     */
+    public SSCBulkRequestBuilder batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+    
+    /**
+     * Configure the maximum number of bulk requests to be executed concurrently
+     * if requests are split into multiple batches as configured through 
+     * {@link #batchSize(int)}. Default value is 1, executing batches sequentially.
+     * @param maxConcurrentBatches Maximum number of concurrent bulk requests
+     * @return Self for chaining
+     */
+    public SSCBulkRequestBuilder maxConcurrentBatches(int maxConcurrentBatches) {
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        return this;
+    }
     
     /**
      * Check whether this SSCBulkRequestBuilder instance already has a request
@@ -126,41 +171,143 @@ public class SSCBulkRequestBuilder {
      * @return {@link SSCBulkResponse} containing the results for each of the requests in the bulk request
      */
     public SSCBulkResponse execute(UnirestInstance unirest) {
-        ObjectNode bulkRequest = objectMapper.createObjectNode();
-        bulkRequest.set("requests", this.requests);
-        var result = new SSCBulkResponse(nameToIndexMap, 
-                unirest.post("/api/v1/bulk").body(bulkRequest)
-                .asObject(JsonNode.class).getBody().get("data"));
+        var result = new SSCBulkResponse(nameToIndexMap, executeBatches(unirest));
         consumers.entrySet().forEach(e->
             e.getValue().accept(result.data(e.getKey())));
         return result;
     }
     
+    /**
+     * Split our requests into batches based on the configured batch size,
+     * execute these batches (potentially concurrently), and combine the
+     * response bodies into a single list, in the same order as our requests. 
+     */
+    private List<ObjectNode> executeBatches(UnirestInstance unirest) {
+        if ( batchSize<1 || requests.size()<=batchSize ) {
+            return executeBatch(unirest, requests);
+        }
+        List<ArrayNode> batches = new ArrayList<>();
+        for ( int i = 0 ; i < requests.size() ; i+=batchSize ) {
+            ArrayNode batch = objectMapper.createArrayNode();
+            for ( int j = i ; j < Math.min(i+batchSize, requests.size()) ; j++ ) {
+                batch.add(requests.get(j));
+            }
+            batches.add(batch);
+        }
+        List<ObjectNode> result = new ArrayList<>(requests.size());
+        ConcurrencyHelper.mapConcurrently(batches, maxConcurrentBatches, b->executeBatch(unirest, b))
+            .forEach(result::addAll);
+        return result;
+    }
+    
+    /**
+     * Return whether the given request is an SSC bulk request that only contains
+     * GET requests, like the bulk requests used for embedding additional data 
+     * into records. This allows for example the response cache to distinguish
+     * such read-only bulk requests from bulk requests that modify data. 
+     */
+    public static final boolean isReadOnlyBulkRequest(HttpRequest<?> request) {
+        if ( request.getHttpMethod()!=HttpMethod.POST || !BULK_URL_PATTERN.matcher(request.getUrl()).find() ) {
+            return false;
+        }
+        var body = request.getBody().orElse(null);
+        if ( body==null || body.isMultiPart() ) { return false; }
+        try {
+            var bodyValue = body.uniPart().getValue();
+            var requests = (bodyValue instanceof String 
+                    ? objectMapper.readTree((String)bodyValue) 
+                    : objectMapper.valueToTree(bodyValue)).path("requests");
+            if ( !requests.isArray() ) { return false; }
+            for ( var entry : requests ) {
+                if ( !HttpMethod.GET.name().equals(entry.path("httpVerb").asText()) ) { return false; }
+            }
+            return true;
+        } catch ( Exception e ) {
+            return false;
+        }
+    }
+    
+    private static final List<ObjectNode> executeBatch(UnirestInstance unirest, ArrayNode requests) {
+        ObjectNode bulkRequest = objectMapper.createObjectNode();
+        bulkRequest.set("requests", requests);
+        var response = unirest.post("/api/v1/bulk").body(bulkRequest)
+                .asObject(SSCBulkRequestBuilder::parseBulkResponse);
+        if ( !response.isSuccess() || response.getBody().getBodies()==null ) {
+            // Normally handled by the Unirest error interceptor, but we want to avoid
+            // NPEs if this builder is used with a Unirest instance without interceptor.
+            throw new UnexpectedHttpResponseException(response);
+        }
+        return response.getBody().getBodies();
+    }
+    
+    /**
+     * Stream the given bulk response, collecting only the response body for 
+     * each entry in the 'data' array. This avoids having to load the full bulk
+     * response, including request data echoed back by SSC, as a single tree. 
+     * For unsuccessful responses, we return the raw response contents, such 
+     * that our generic error handling can report these contents.
+     */
+    @SneakyThrows
+    private static final SSCBulkResponseBodies parseBulkResponse(RawResponse rawResponse) {
+        int status = rawResponse.getStatus();
+        if ( status<200 || status>=300 ) {
+            return new SSCBulkResponseBodies(null, rawResponse.getContentAsString());
+        }
+        List<ObjectNode> bodies = new ArrayList<>();
+        try ( JsonParser parser = objectMapper.createParser(rawResponse.getContent()) ) {
+            if ( parser.nextToken()!=JsonToken.START_OBJECT ) {
+                throw new IllegalStateException("Unexpected SSC bulk response format");
+            }
+            while ( parser.nextToken()==JsonToken.FIELD_NAME ) {
+                String fieldName = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ( "data".equals(fieldName) && token==JsonToken.START_ARRAY ) {
+                    while ( parser.nextToken()==JsonToken.START_OBJECT ) {
+                        bodies.add(getResponseBody(objectMapper.readTree(parser)));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new SSCBulkResponseBodies(bodies, null);
+    }
+    
+    private static final ObjectNode getResponseBody(JsonNode bulkResponseEntry) {
+        var body = bulkResponseEntry.path("responses").path(0).path("body");
+        return body instanceof ObjectNode ? (ObjectNode)body : null;
+    }
+    
+    @RequiredArgsConstructor
+    private static final class SSCBulkResponseBodies {
+        @Getter private final List<ObjectNode> bodies;
+        private final String errorContents;
+        
+        @Override
+        public String toString() {
+            return errorContents;
+        }
+    }
+    
     public static final class SSCBulkResponse {
-        private final JsonNode bulkResponse;
+        private final List<ObjectNode> bodies;
         private final Map<String, Integer> nameToIndexMap;
 
-        private SSCBulkResponse(Map<String, Integer> nameToIndexMap, JsonNode bulkResponse) {
+        private SSCBulkResponse(Map<String, Integer> nameToIndexMap, List<ObjectNode> bodies) {
             this.nameToIndexMap = nameToIndexMap;
-            this.bulkResponse = bulkResponse;
-        }
-        
-        public JsonNode fullBody() {
-            return bulkResponse;
+            this.bodies = bodies;
         }
         
         public ObjectNode body(String requestName) {
             Integer index = nameToIndexMap.get(requestName);
-            // TODO Calling 'get(%s)' works, but ideally we should be able to use
-            //      standard SpEL indexing '[%s]'. Any way to make this work? The
-            //      SpEL Indexer class seems to explicitly check for arrays or 
-            //      collections, and throws an exception if we use '[%s]'.
-            String path = String.format("get(%s).responses[0].body", index);
-            return JsonHelper.evaluateSpelExpression(bulkResponse, path, ObjectNode.class);
+            if ( index==null ) {
+                throw new IllegalArgumentException(String.format("Request name '%s' was not added to bulk request", requestName));
+            }
+            return bodies.get(index);
         }
         
         public JsonNode data(String requestName) {
             return body(requestName).get("data");
         }
     }
-}
\ No newline at end of file
+}
@@ -12,24 +12,19 @@
  *******************************************************************************/
 package com.fortify.cli.ssc._common.rest.query;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.expression.Expression;
-import org.springframework.expression.spel.SpelNode;
-import org.springframework.expression.spel.ast.OpAnd;
-import org.springframework.expression.spel.ast.OpEQ;
 
+import com.fortify.cli.common.rest.query.AbstractServerSideQueryPlanner;
 import com.fortify.cli.common.rest.query.IServerSideQueryParamValueGenerator;
-import com.fortify.cli.common.spring.expression.AbstractSpelNodeVisitor;
-import com.fortify.cli.common.spring.expression.SpelNodeHelper;
-import com.fortify.cli.common.util.JavaHelper;
 
 public final class SSCQParamGenerator implements IServerSideQueryParamValueGenerator {
-    private static final Logger LOG = LoggerFactory.getLogger(SSCQParamGenerator.class);
     private final Map<String, String> qNamesByPropertyPaths = new HashMap<>();
     private final Map<String, Function<String,String>> valueGeneratorsByPropertyPaths = new HashMap<>();
     
@@ -47,55 +42,41 @@ public final class SSCQParamGenerator implements IServerSideQueryParamValueGener
     
     @Override
     public final String getServerSideQueryParamValue(Expression expression) {
-        return new SSCQParamSpELNodeVisitor(expression).getQParamValue();
+        return new SSCQParamPlanner(expression).plan();
     }
     
-    private final class SSCQParamSpELNodeVisitor extends AbstractSpelNodeVisitor {
-        private StringBuffer qParamValue = new StringBuffer();
+    private final class SSCQParamPlanner extends AbstractServerSideQueryPlanner {
+        private String disjunction;
         
-        public SSCQParamSpELNodeVisitor(Expression expression) {
-            super(expression); visit();
-        }
-
-        public String getQParamValue() {
-            return qParamValue.isEmpty() ? null : qParamValue.toString();
+        public SSCQParamPlanner(Expression expression) {
+            super(expression);
         }
         
         @Override
-        protected void visit(SpelNode node) {
-            LOG.trace("Visiting node: "+node);
-            JavaHelper.as(node, OpAnd.class).ifPresent(this::visitAnd);
-            JavaHelper.as(node, OpEQ.class).ifPresent(this::visitEQ);
-        }
-        
-        private void visitAnd(OpAnd node) {
-            LOG.trace("Processing OpAnd node: "+node);
-            visitChildren(node);
-        }
-
-        private void visitEQ(OpEQ node) {
-            var propertyName = SpelNodeHelper.operand(node, SpelNodeHelper::qualifiedPropertyName).orElse(null);
-            var literalString = SpelNodeHelper.operand(node, SpelNodeHelper::literalString).orElse(null);
-            LOG.trace("OpEQ property: {}, literal: {}", propertyName, literalString);
-            if ( propertyName!=null && literalString!=null ) {
-                addEQ(propertyName, literalString);
+        protected Optional<String> render(List<ServerSideQueryPredicate> disjuncts) {
+            List<String> queries = new ArrayList<>();
+            for ( var predicate : disjuncts ) {
+                var propertyPath = predicate.getPropertyPath();
+                String qName = qNamesByPropertyPaths.get(propertyPath);
+                if ( qName==null ) { return Optional.empty(); }
+                Function<String, String> valueGenerator = valueGeneratorsByPropertyPaths.get(propertyPath);
+                predicate.getValues().forEach(v->queries.add(String.format("%s:%s", qName, valueGenerator.apply(v))));
             }
+            if ( queries.size()==1 ) { return Optional.of(queries.get(0)); }
+            // SSC doesn't support grouping, so we only push down a single disjunction
+            if ( disjunction!=null ) { return Optional.empty(); }
+            disjunction = String.join("+or+", queries);
+            return Optional.of(disjunction);
         }
         
-        private void addEQ(String propertyName, String value) {
-            String qName = qNamesByPropertyPaths.get(propertyName);
-            if ( qName!=null ) {
-                Function<String, String> valueGenerator = valueGeneratorsByPropertyPaths.get(propertyName);
-                addQuery(String.format("%s:%s", qName, valueGenerator.apply(value)));
-            }
-        }
-
-        private void addQuery(String query) {
-            qParamValue.append(
-                qParamValue.isEmpty()
-                    ? query
-                    : ("+and+"+query)
-            );
+        @Override
+        protected String join(List<String> conjuncts) {
+            // We put the disjunction (if any) at the end; independent of operator precedence,
+            // SSC may then return more records than expected, but never less. This is fine, 
+            // as the full query expression is always applied client-side.
+            var result = new ArrayList<String>(conjuncts);
+            if ( result.remove(disjunction) ) { result.add(disjunction); }
+            return String.join("+and+", result);
         }
     }
 }
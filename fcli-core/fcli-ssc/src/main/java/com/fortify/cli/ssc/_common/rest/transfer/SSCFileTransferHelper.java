@@ -22,6 +22,8 @@ import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.progress.helper.IProgressWriter;
 import com.fortify.cli.common.progress.helper.ProgressWriterType;
+import com.fortify.cli.common.rest.upload.FileUploader;
+import com.fortify.cli.common.rest.upload.MultipartFileUploadProtocol;
 
 import kong.unirest.GetRequest;
 import kong.unirest.HttpRequest;
@@ -63,16 +65,13 @@ public class SSCFileTransferHelper {
                 acceptHeaderValue = "application/xml";
                 objectMapper = XMLMAPPER;
             }
-            
-            try ( SSCProgressMonitor uploadMonitor = new SSCProgressMonitor("Upload") ) {
-                return addTokenFunction.apply(tokenSupplier.get(), unirest.post(endpoint))
-                    .multiPartContent() // Force multipart request with correct Content-Type header
-                    .field("file", filePath)
-                    .uploadMonitor(uploadMonitor)
-                    .headerReplace("Accept", acceptHeaderValue) 
-                    .withObjectMapper(objectMapper)
-                    .asObject(returnType).getBody();
-            }
+            final String accept = acceptHeaderValue;
+            final ObjectMapper responseMapper = objectMapper;
+            return FileUploader.upload(filePath, MultipartFileUploadProtocol.<T>builder()
+                    .requestSupplier(()->addTokenFunction.apply(tokenSupplier.get(), unirest.post(endpoint)))
+                    .bodyUpdater(b->b.headerReplace("Accept", accept).withObjectMapper(responseMapper))
+                    .responseFunction(b->b.asObject(returnType))
+                    .build());
         }
     }
     
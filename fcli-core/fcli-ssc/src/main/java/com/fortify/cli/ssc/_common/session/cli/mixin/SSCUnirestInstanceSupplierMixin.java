@@ -12,14 +12,27 @@
  *******************************************************************************/
 package com.fortify.cli.ssc._common.session.cli.mixin;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
 import com.fortify.cli.common.session.cli.mixin.AbstractSessionUnirestInstanceSupplierMixin;
+import com.fortify.cli.ssc._common.rest.bulk.SSCBulkRequestBuilder;
 import com.fortify.cli.ssc._common.session.helper.SSCSessionDescriptor;
 import com.fortify.cli.ssc._common.session.helper.SSCSessionHelper;
 import com.fortify.cli.ssc.access_control.helper.SSCTokenHelper;
 
+import kong.unirest.HttpRequest;
 import kong.unirest.UnirestInstance;
 
 public final class SSCUnirestInstanceSupplierMixin extends AbstractSessionUnirestInstanceSupplierMixin<SSCSessionDescriptor> {   
+    private static final List<Pattern> CACHEABLE_URL_PATTERNS = List.of(
+        // Application version lookups by id or name, as done by SSCAppVersionHelper
+        Pattern.compile("/api/v1/projectVersions\\?includeInactive=true&limit=2(&fields=[^&]*)?&q=(id|project\\.name)(:|%3A)[^&]*$"),
+        Pattern.compile("/api/v1/projectVersions/\\d+/filterSets(\\?|$)"),
+        Pattern.compile("/api/v1/attributeDefinitions(\\?|$)")
+    );
+    
     @Override
     public final SSCSessionDescriptor getSessionDescriptor(String sessionName) {
         return SSCSessionHelper.instance().get(sessionName, true);
@@ -29,4 +42,14 @@ public final class SSCUnirestInstanceSupplierMixin extends AbstractSessionUnires
     public final void configure(UnirestInstance unirest, SSCSessionDescriptor sessionDescriptor) {
         SSCTokenHelper.configureUnirest(unirest, sessionDescriptor.getUrlConfig(), sessionDescriptor.getActiveToken());
     }
+    
+    @Override
+    protected final Collection<Pattern> getCacheableUrlPatterns() {
+        return CACHEABLE_URL_PATTERNS;
+    }
+    
+    @Override
+    protected final boolean isReadOnlyRequest(HttpRequest<?> request) {
+        return SSCBulkRequestBuilder.isReadOnlyBulkRequest(request);
+    }
 }
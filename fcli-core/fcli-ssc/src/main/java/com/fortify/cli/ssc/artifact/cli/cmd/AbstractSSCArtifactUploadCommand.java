@@ -19,6 +19,8 @@ import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.cli.cmd.IBaseRequestSupplier;
 import com.fortify.cli.common.progress.cli.mixin.ProgressWriterFactoryMixin;
 import com.fortify.cli.common.progress.helper.IProgressWriterI18n;
+import com.fortify.cli.common.rest.upload.FileUploader;
+import com.fortify.cli.common.rest.upload.MultipartFileUploadProtocol;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionResolverMixin;
@@ -39,16 +41,19 @@ public abstract class AbstractSSCArtifactUploadCommand extends AbstractSSCArtifa
             var unirest = getUnirestInstance();
         	String engineType = getEngineType();
             SSCAppVersionDescriptor av = parentResolver.getAppVersionDescriptor(unirest);
-            HttpRequestWithBody request = unirest.post(SSCUrls.PROJECT_VERSION_ARTIFACTS(av.getVersionId()));
-            if ( StringUtils.isNotBlank(engineType) ) {
-            	// TODO Check parser plugin is enabled in SSC
-            	request = request.queryString("engineType", engineType);
-            }
             File file = getFile();
             preUpload(unirest, progressWriter, file);
-            JsonNode uploadResponse = request.multiPartContent()
-            		.field("file", file)
-            		.asObject(JsonNode.class).getBody();
+            JsonNode uploadResponse = FileUploader.upload(file, MultipartFileUploadProtocol.<JsonNode>builder()
+                    .requestSupplier(()->{
+                        HttpRequestWithBody request = unirest.post(SSCUrls.PROJECT_VERSION_ARTIFACTS(av.getVersionId()));
+                        if ( StringUtils.isNotBlank(engineType) ) {
+                            // TODO Check parser plugin is enabled in SSC
+                            request = request.queryString("engineType", engineType);
+                        }
+                        return request;
+                    })
+                    .responseFunction(b->b.asObject(JsonNode.class))
+                    .build(), progressWriter);
             postUpload(unirest, progressWriter, file);
             String artifactId = JsonHelper.evaluateSpelExpression(uploadResponse, "data.id", String.class);
             // TODO Do we actually show any scan data from the embedded scans?
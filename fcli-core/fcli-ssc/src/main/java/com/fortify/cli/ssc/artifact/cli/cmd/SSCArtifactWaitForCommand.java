@@ -12,6 +12,7 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.artifact.cli.cmd;
 
+import java.util.Arrays;
 import java.util.Set;
 
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
@@ -39,11 +40,12 @@ public class SSCArtifactWaitForCommand extends AbstractWaitForCommand {
     @Override
     protected WaitHelperBuilder configure(UnirestInstance unirest, WaitHelperBuilder builder) {
         return builder
-                .recordsSupplier(artifactsResolver::getArtifactDescriptorJsonNodes)
+                .recordsById(Arrays.asList(artifactsResolver.getArtifactIds()), artifactsResolver::getArtifactDescriptorJsonNode)
                 .recordTransformer(SSCArtifactHelper::addScanTypes)
                 .currentStateProperty("status")
                 .knownStates(SSCArtifactStatus.getKnownStateNames())
                 .failureStates(SSCArtifactStatus.getFailureStateNames())
+                .finalStates(SSCArtifactStatus.getFinalStateNames())
                 .matchStates(states);
     }
 }
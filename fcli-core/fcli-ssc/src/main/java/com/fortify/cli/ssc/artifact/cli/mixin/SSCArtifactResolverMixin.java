@@ -49,6 +49,10 @@ public class SSCArtifactResolverMixin {
             return Stream.of(getArtifactDescriptors(unirest)).map(SSCArtifactDescriptor::asJsonNode).collect(Collectors.toList());
         }
         
+        public JsonNode getArtifactDescriptorJsonNode(UnirestInstance unirest, String artifactId){
+            return SSCArtifactHelper.getArtifactDescriptor(unirest, artifactId).asJsonNode();
+        }
+        
         public String[] getArtifactIds(UnirestInstance unirest) {
             return Stream.of(getArtifactDescriptors(unirest)).map(SSCArtifactDescriptor::getId).toArray(String[]::new);
         }
@@ -49,6 +49,10 @@ public enum SSCArtifactStatus {
         };
     }
     
+    public static final SSCArtifactStatus[] getFinalStates() {
+        return new SSCArtifactStatus[]{ PROCESS_COMPLETE, DELETED, PURGED };
+    }
+    
     public static final SSCArtifactStatus[] getKnownStates() {
         return SSCArtifactStatus.values();
     }
@@ -61,6 +65,10 @@ public enum SSCArtifactStatus {
         return Stream.of(getFailureStates()).map(SSCArtifactStatus::name).toArray(String[]::new);
     }
     
+    public static final String[] getFinalStateNames() {
+        return Stream.of(getFinalStates()).map(SSCArtifactStatus::name).toArray(String[]::new);
+    }
+    
     public static final String[] getKnownStateNames() {
         return Stream.of(getKnownStates()).map(SSCArtifactStatus::name).toArray(String[]::new);
     }
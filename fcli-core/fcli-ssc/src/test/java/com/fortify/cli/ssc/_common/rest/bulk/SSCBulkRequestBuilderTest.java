@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.ssc._common.rest.bulk;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import kong.unirest.Config;
+import kong.unirest.UnirestInstance;
+
+public class SSCBulkRequestBuilderTest {
+    private static final String BASE_URL = "https://ssc.example.com/ssc";
+    private final UnirestInstance unirest = new UnirestInstance(new Config());
+    
+    @AfterEach
+    public void shutdown() {
+        unirest.shutDown();
+    }
+    
+    @Test
+    public void testGetOnlyBulkRequestIsReadOnly() throws Exception {
+        assertTrue(SSCBulkRequestBuilder.isReadOnlyBulkRequest(
+                unirest.post(BASE_URL+"/api/v1/bulk").body(bulkBody("GET", "GET"))));
+    }
+    
+    @Test
+    public void testModifyingBulkRequestIsNotReadOnly() throws Exception {
+        assertFalse(SSCBulkRequestBuilder.isReadOnlyBulkRequest(
+                unirest.post(BASE_URL+"/api/v1/bulk").body(bulkBody("GET", "PUT"))));
+    }
+    
+    @Test
+    public void testOtherRequestsAreNotReadOnly() throws Exception {
+        assertFalse(SSCBulkRequestBuilder.isReadOnlyBulkRequest(
+                unirest.post(BASE_URL+"/api/v1/projectVersions").body(bulkBody("GET"))));
+        assertFalse(SSCBulkRequestBuilder.isReadOnlyBulkRequest(
+                unirest.put(BASE_URL+"/api/v1/bulk").body(bulkBody("GET"))));
+        assertFalse(SSCBulkRequestBuilder.isReadOnlyBulkRequest(
+                unirest.post(BASE_URL+"/api/v1/bulk").body("not json")));
+    }
+    
+    private static final String bulkBody(String... httpVerbs) {
+        var requests = new StringBuilder();
+        for ( var httpVerb : httpVerbs ) {
+            if ( requests.length()>0 ) { requests.append(','); }
+            requests.append(String.format("{\"uri\":\"%s/api/v1/projectVersions/1\",\"httpVerb\":\"%s\"}", BASE_URL, httpVerb));
+        }
+        return "{\"requests\":["+requests+"]}";
+    }
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.util.daemon.cli.cmd;
+
+import java.time.Duration;
+
+import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand;
+import com.fortify.cli.common.daemon.FcliDaemonHelper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.output.writer.ISingularSupplier;
+import com.fortify.cli.common.util.DateTimePeriodHelper;
+import com.fortify.cli.common.util.DateTimePeriodHelper.Period;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Help.Visibility;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+@Command(name = OutputHelperMixins.Start.CMD_NAME)
+public final class DaemonStartCommand extends AbstractRunnableCommand implements ISingularSupplier, IActionCommandResultSupplier {
+    private static final DateTimePeriodHelper PERIOD_HELPER = DateTimePeriodHelper.byRange(Period.SECONDS, Period.DAYS);
+    @Getter @Mixin private OutputHelperMixins.Start outputHelper;
+    @Option(names = {"--idle-timeout"}, defaultValue = "30m", showDefaultValue = Visibility.ALWAYS)
+    private String idleTimeout;
+    
+    @Override @SneakyThrows
+    public final Integer call() {
+        initMixins();
+        var server = FcliDaemonHelper.createServer(Duration.ofMillis(PERIOD_HELPER.parsePeriodToMillis(idleTimeout)));
+        // Output is written before running the server, as the server runs until stopped
+        outputHelper.write(JsonHelper.getObjectMapper().createObjectNode()
+                .put("pid", ProcessHandle.current().pid())
+                .put("socket", server.getSocketPath().toString())
+                .put("idleTimeout", server.getIdleTimeout().toString()));
+        server.run();
+        return 0;
+    }
+    
+    @Override
+    public String getActionCommandResult() {
+        return "STARTED";
+    }
+    
+    @Override
+    public boolean isSingular() {
+        return true;
+    }
+}
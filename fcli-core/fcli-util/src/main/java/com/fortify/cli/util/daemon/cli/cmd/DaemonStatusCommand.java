@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.util.daemon.cli.cmd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.daemon.FcliDaemonClient;
+import com.fortify.cli.common.daemon.FcliDaemonHelper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+
+@Command(name = OutputHelperMixins.Status.CMD_NAME)
+public class DaemonStatusCommand extends AbstractOutputCommand implements IJsonNodeSupplier {
+    @Getter @Mixin private OutputHelperMixins.Status outputHelper;
+    
+    @Override @SneakyThrows
+    public JsonNode getJsonNode() {
+        var result = JsonHelper.getObjectMapper().createObjectNode();
+        var status = FcliDaemonClient.getStatus();
+        if ( status==null ) {
+            result.put("status", "NOT_RUNNING").put("socket", FcliDaemonHelper.getSocketPath().toString());
+        } else {
+            result.put("status", "RUNNING").setAll((ObjectNode)status);
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean isSingular() {
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.util.daemon.cli.cmd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.daemon.FcliDaemonClient;
+import com.fortify.cli.common.daemon.FcliDaemonHelper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+
+import lombok.Getter;
+import lombok.SneakyThrows;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+
+@Command(name = OutputHelperMixins.Stop.CMD_NAME)
+public class DaemonStopCommand extends AbstractOutputCommand implements IJsonNodeSupplier, IActionCommandResultSupplier {
+    @Getter @Mixin private OutputHelperMixins.Stop outputHelper;
+    private boolean stopped;
+    
+    @Override @SneakyThrows
+    public JsonNode getJsonNode() {
+        stopped = FcliDaemonClient.stop();
+        return JsonHelper.getObjectMapper().createObjectNode()
+                .put("socket", FcliDaemonHelper.getSocketPath().toString());
+    }
+    
+    @Override
+    public String getActionCommandResult() {
+        return stopped ? "STOP_REQUESTED" : "NOT_RUNNING";
+    }
+    
+    @Override
+    public boolean isSingular() {
+        return true;
+    }
+}
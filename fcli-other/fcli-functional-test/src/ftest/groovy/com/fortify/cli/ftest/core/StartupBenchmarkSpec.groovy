@@ -0,0 +1,37 @@
+package com.fortify.cli.ftest.core;
+
+import com.fortify.cli.ftest._common.Fcli
+import com.fortify.cli.ftest._common.spec.FcliBaseSpec
+import com.fortify.cli.ftest._common.spec.Prefix
+
+import spock.lang.Requires
+
+/**
+ * Measures fcli start-up time for each top-level command by repeatedly running
+ * '<command> -h'. This spec only runs if the ft.benchmark property is set; the
+ * ft.benchmark.iterations property can be used to override the number of runs
+ * per command. To measure cold start times, run this spec against an fcli JAR
+ * file (JVM) or native binary through the ft.fcli property; when running against
+ * the fcli build, all commands run within the test JVM.
+ */
+@Prefix("core.startup-benchmark")
+@Requires({sys['ft.benchmark']})
+class StartupBenchmarkSpec extends FcliBaseSpec {
+    def "help"(String command) {
+        def iterations = Integer.parseInt(System.getProperty("ft.benchmark.iterations", "10"))
+        def args = command ? [command, "-h"] : ["-h"]
+        def durations = []
+        when:
+            iterations.times {
+                def start = System.nanoTime()
+                Fcli.run(args)
+                durations << (System.nanoTime()-start)/1_000_000
+            }
+            println String.format("Start-up time for 'fcli %s': min %dms, avg %dms, max %dms",
+                args.join(" "), durations.min() as long, durations.sum()/iterations as long, durations.max() as long)
+        then:
+            durations.size()==iterations
+        where:
+            command << ["", "config", "fod", "sc-dast", "sc-sast", "ssc", "tool", "license", "util"]
+    }
+}